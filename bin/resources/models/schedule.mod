@@ -6,6 +6,8 @@ set TIME ordered;
 param type {ROOMS} integer > 0;
 param release {ROOMS} integer >= 0;
 param process {ROOMS} integer > 0;
+param est {ROOMS} integer >= 0 default 0;
+param lst {ROOMS} integer default last(TIME);
 param deadline {ROOMS} default last(TIME);
 
 param request {GUESTS} integer > 0;
@@ -13,7 +15,9 @@ param arrival {GUESTS} integer >= 0;
 
 param weight {GUESTS, ROOMS} >= 0;
 
-var schedule {r in ROOMS, h in HOUSEKEEPERS, t in TIME} integer >=0, <= 1;
+set WINDOW {r in ROOMS} = {t in TIME: t >= est[r] && t <= lst[r]};
+
+var schedule {r in ROOMS, h in HOUSEKEEPERS, t in WINDOW[r]} integer >=0, <= 1;
 var completion {r in ROOMS} integer >= 0;
 var makespan integer >= 0;
 var tardiness {r in ROOMS} integer >= 0;
@@ -25,16 +29,16 @@ minimize Sum_Tardiness: sum {r in ROOMS} tardiness[r];
 minimize Max_Tardiness: maxTardiness;
 
 subject to Release_Time {r in ROOMS}:
-	release[r]+1 <= sum {h in HOUSEKEEPERS, t in TIME} t*schedule[r,h,t];
+	release[r]+1 <= sum {h in HOUSEKEEPERS, t in WINDOW[r]} t*schedule[r,h,t];
 
 subject to Every_Room_Cleaned {r in ROOMS}:
-	sum {h in HOUSEKEEPERS, t in TIME} schedule[r,h,t]= 1;
+	sum {h in HOUSEKEEPERS, t in WINDOW[r]} schedule[r,h,t]= 1;
 	
 subject to Clean_Time {r in ROOMS}:
-	completion[r]= sum {h in HOUSEKEEPERS, t in TIME} (t*schedule[r,h,t]) + process[r] - 1;
+	completion[r]= sum {h in HOUSEKEEPERS, t in WINDOW[r]} (t*schedule[r,h,t]) + process[r] - 1;
 
 subject to One_Job_At_A_Time {h in HOUSEKEEPERS, t in TIME}:
-	sum {r in ROOMS, pt in TIME: pt < t && pt >= max(0,t-process[r])} schedule[r,h,pt] <= 1;
+	sum {r in ROOMS, pt in WINDOW[r]: pt < t && pt >= max(0,t-process[r])} schedule[r,h,pt] <= 1;
 	
 subject to Max_Completion_Time {r in ROOMS}:
     completion[r] <= makespan;
@@ -0,0 +1,54 @@
+set ROOMS;
+set GUESTS;
+set HOUSEKEEPERS;
+set TIME ordered;
+
+param type {ROOMS} integer > 0;
+param release {ROOMS} integer >= 0;
+param process {ROOMS} integer > 0;
+param est {ROOMS} integer >= 0 default 0;
+param lst {ROOMS} integer default last(TIME);
+param deadline {ROOMS} default last(TIME);
+
+param request {GUESTS} integer > 0;
+param arrival {GUESTS} integer >= 0;
+
+param weight {GUESTS, ROOMS} >= 0;
+
+set WINDOW {r in ROOMS} = {t in TIME: t >= est[r] && t <= lst[r]};
+
+# Housekeepers are identical, so only the start of every room is decided
+var start {r in ROOMS, t in WINDOW[r]} integer >=0, <= 1;
+var completion {r in ROOMS} integer >= 0;
+var makespan integer >= 0;
+var tardiness {r in ROOMS} integer >= 0;
+var maxTardiness integer >= 0;
+
+minimize Makespan: makespan;
+minimize Sum_Completion_Time: sum {r in ROOMS} completion[r];
+minimize Sum_Tardiness: sum {r in ROOMS} tardiness[r];
+minimize Max_Tardiness: maxTardiness;
+
+subject to Release_Time {r in ROOMS}:
+	release[r]+1 <= sum {t in WINDOW[r]} t*start[r,t];
+
+subject to Every_Room_Cleaned {r in ROOMS}:
+	sum {t in WINDOW[r]} start[r,t]= 1;
+	
+subject to Clean_Time {r in ROOMS}:
+	completion[r]= sum {t in WINDOW[r]} (t*start[r,t]) + process[r] - 1;
+
+subject to H_Jobs_At_A_Time {t in TIME}:
+	sum {r in ROOMS, pt in WINDOW[r]: pt < t && pt >= max(0,t-process[r])} start[r,pt] <= card(HOUSEKEEPERS);
+	
+subject to Max_Completion_Time {r in ROOMS}:
+    completion[r] <= makespan;
+    
+subject to Waiting_Time {r in ROOMS}:
+	tardiness[r] >= completion[r] - deadline[r] + 1;
+
+subject to Tardiness {r in ROOMS}:
+	tardiness[r] >= 0;
+	
+subject to Max_Waiting_Time {r in ROOMS}:
+	tardiness[r] <= maxTardiness;
\ No newline at end of file
@@ -0,0 +1,55 @@
+set ROOMS ordered;
+set GUESTS;
+set HOUSEKEEPERS ordered;
+
+param type {ROOMS} integer > 0;
+param release {ROOMS} integer >= 0;
+param process {ROOMS} integer > 0;
+param horizon integer > 0;
+param est {r in ROOMS} integer >= 0 default release[r]+1;
+param lst {r in ROOMS} integer default horizon-process[r]+1;
+param deadline {ROOMS} default horizon+1;
+
+param request {GUESTS} integer > 0;
+param arrival {GUESTS} integer >= 0;
+
+param weight {GUESTS, ROOMS} >= 0;
+
+# The model size does not depend on the length of a time interval: rooms are sequenced in pairs
+set PAIRS = {r in ROOMS, q in ROOMS: ord(r) < ord(q)};
+
+# Housekeepers are identical, so the k-th room is cleaned by one of the first k housekeepers
+var clean {r in ROOMS, h in HOUSEKEEPERS: ord(h) <= ord(r)} binary;
+var before {(r,q) in PAIRS} binary;
+var start {r in ROOMS} >= est[r], <= lst[r];
+var completion {r in ROOMS} >= 0;
+var makespan >= 0;
+var tardiness {r in ROOMS} >= 0;
+var maxTardiness >= 0;
+
+minimize Makespan: makespan;
+minimize Sum_Completion_Time: sum {r in ROOMS} completion[r];
+minimize Sum_Tardiness: sum {r in ROOMS} tardiness[r];
+minimize Max_Tardiness: maxTardiness;
+
+subject to Every_Room_Cleaned {r in ROOMS}:
+	sum {h in HOUSEKEEPERS: ord(h) <= ord(r)} clean[r,h]= 1;
+
+subject to Clean_Time {r in ROOMS}:
+	completion[r]= start[r] + process[r] - 1;
+
+# Two rooms cleaned by the same housekeeper are cleaned one after the other
+subject to Precedence {(r,q) in PAIRS, h in HOUSEKEEPERS: ord(h) <= ord(r)}:
+	start[r] + process[r] <= start[q] + max(0, lst[r]+process[r]-est[q]) * (3 - before[r,q] - clean[r,h] - clean[q,h]);
+
+subject to Succession {(r,q) in PAIRS, h in HOUSEKEEPERS: ord(h) <= ord(r)}:
+	start[q] + process[q] <= start[r] + max(0, lst[q]+process[q]-est[r]) * (2 + before[r,q] - clean[r,h] - clean[q,h]);
+
+subject to Max_Completion_Time {r in ROOMS}:
+    completion[r] <= makespan;
+    
+subject to Waiting_Time {r in ROOMS}:
+	tardiness[r] >= completion[r] - deadline[r] + 1;
+
+subject to Max_Waiting_Time {r in ROOMS}:
+	tardiness[r] <= maxTardiness;
@@ -0,0 +1,74 @@
+set ROOMS ordered;
+set GUESTS;
+set HOUSEKEEPERS ordered;
+
+param type {ROOMS} integer > 0;
+param release {ROOMS} integer >= 0;
+param process {ROOMS} integer > 0;
+param horizon integer > 0;
+param est {r in ROOMS} integer >= 0 default release[r]+1;
+param lst {r in ROOMS} integer default horizon-process[r]+1;
+
+param request {GUESTS} integer > 0;
+param arrival {GUESTS} integer >= 0;
+
+param weight {GUESTS,ROOMS} >= 0;
+param minMeanMatchingWeight default 0;
+
+# The model size does not depend on the length of a time interval: rooms are sequenced in pairs
+set PAIRS = {r in ROOMS, q in ROOMS: ord(r) < ord(q)};
+
+# Housekeepers are identical, so the k-th room is cleaned by one of the first k housekeepers
+var clean {r in ROOMS, h in HOUSEKEEPERS: ord(h) <= ord(r)} binary;
+var before {(r,q) in PAIRS} binary;
+var start {r in ROOMS} >= est[r], <= lst[r];
+var assign {g in GUESTS, r in ROOMS} integer >= 0, <= 1;
+var completion {r in ROOMS} >= 0;
+var makespan >= 0;
+var tardiness {g in GUESTS} >= 0;
+var maxTardiness >= 0;
+
+minimize Sum_Tardiness: sum {g in GUESTS} tardiness[g];
+minimize Max_Tardiness: maxTardiness;
+maximize Mean_Satisfaction: sum {g in GUESTS, r in ROOMS} assign[g,r]*weight[g,r];
+maximize Mean_Satisfaction_And_Sum_Tardiness: sum {g in GUESTS, r in ROOMS} assign[g,r]*weight[g,r] - (sum {g in GUESTS} tardiness[g]);
+
+# HOUSEKEEPING CONSTRAINTS
+
+subject to Every_Room_Cleaned {r in ROOMS}:
+	sum {h in HOUSEKEEPERS: ord(h) <= ord(r)} clean[r,h]= 1;
+
+subject to Clean_Time {r in ROOMS}:
+	completion[r]= start[r] + process[r] - 1;
+
+# Two rooms cleaned by the same housekeeper are cleaned one after the other
+subject to Precedence {(r,q) in PAIRS, h in HOUSEKEEPERS: ord(h) <= ord(r)}:
+	start[r] + process[r] <= start[q] + max(0, lst[r]+process[r]-est[q]) * (3 - before[r,q] - clean[r,h] - clean[q,h]);
+
+subject to Succession {(r,q) in PAIRS, h in HOUSEKEEPERS: ord(h) <= ord(r)}:
+	start[q] + process[q] <= start[r] + max(0, lst[q]+process[q]-est[r]) * (2 + before[r,q] - clean[r,h] - clean[q,h]);
+
+subject to Max_Completion_Time {r in ROOMS}:
+    completion[r] <= makespan;
+	
+# ROOM ASSIGNMENT CONSTRAINTS
+
+subject to Accommodate_Everyone {g in GUESTS}:
+	sum {r in ROOMS} assign[g,r] = 1;
+	
+subject to Room_Capacity {r in ROOMS}:
+	sum {g in GUESTS} assign[g,r] <= 1;
+	
+subject to Requested_Type {g in GUESTS}: 
+	sum {r in ROOMS} assign[g,r]*type[r] >= request[g]; 
+    
+subject to Average_Satisfaction:
+    (sum {g in GUESTS, r in ROOMS} assign[g,r]*weight[g,r])/card(GUESTS) >= minMeanMatchingWeight;
+	
+# OVERLAP (linear: a guest only waits for the room they are assigned)
+	
+subject to Waiting_Time {g in GUESTS, r in ROOMS}:
+	tardiness[g] >= completion[r] - arrival[g] + 1 - (horizon + 1) * (1 - assign[g,r]);
+	
+subject to Max_Waiting_Time {g in GUESTS}:
+	tardiness[g] <= maxTardiness;
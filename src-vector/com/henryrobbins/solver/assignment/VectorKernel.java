@@ -0,0 +1,101 @@
+package com.henryrobbins.solver.assignment;
+
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/** The inner loops of HungarianKernel with the Java Vector API. Columns are processed a full vector
+ * at a time on the preferred species; the remaining columns are processed as in the scalar kernel.
+ * Adding the lock (0 or positive infinity) to a distance excludes locked columns from a minimum,
+ * and a lock of 0 masks the columns updated or selected, so the results equal the scalar kernel's.
+ * This class is compiled and run with --add-modules jdk.incubator.vector and is loaded reflectively
+ * by HungarianKernel.load(). */
+class VectorKernel implements HungarianKernel {
+
+	private static final VectorSpecies<Double> D= DoubleVector.SPECIES_PREFERRED;
+
+	@Override
+	public double relax(double[] c, double[] v, double base, double[] d, double[] hops, double[] pred, double[] lock,
+		double h, double row, double tol, int n) {
+		DoubleVector mins= DoubleVector.broadcast(D, Double.POSITIVE_INFINITY);
+		int bound= D.loopBound(n);
+		int k= 0;
+		for (; k < bound; k+= D.length()) {
+			DoubleVector lk= DoubleVector.fromArray(D, lock, k);
+			// The same rounding as base + c[k] - v[k] in the scalar kernel
+			DoubleVector cur= DoubleVector.fromArray(D, c, k).add(base).sub(DoubleVector.fromArray(D, v, k)).add(lk);
+			DoubleVector dk= DoubleVector.fromArray(D, d, k);
+			DoubleVector hk= DoubleVector.fromArray(D, hops, k);
+			VectorMask<Double> better= cur.lt(dk.sub(tol))
+				.or(cur.compare(VectorOperators.LE, dk.add(tol)).and(hk.compare(VectorOperators.GT, h)))
+				.and(lk.eq(0));
+			dk= dk.blend(cur, better);
+			dk.intoArray(d, k);
+			hk.blend(h, better).intoArray(hops, k);
+			DoubleVector.fromArray(D, pred, k).blend(row, better).intoArray(pred, k);
+			mins= mins.min(dk.add(lk));
+		}
+		double min= mins.reduceLanes(VectorOperators.MIN);
+		for (; k < n; k++ ) {
+			if (lock[k] != 0) continue;
+			double cur= base + c[k] - v[k];
+			if (cur < d[k] - tol || cur <= d[k] + tol && h < hops[k]) {
+				d[k]= cur;
+				hops[k]= h;
+				pred[k]= row;
+			}
+			min= Math.min(min, d[k]);
+		}
+		return min;
+	}
+
+	@Override
+	public int select(double[] d, double[] hops, double[] lock, double min, double tol, int n) {
+		// The fewest hops among candidate columns, then the first candidate with that many hops
+		DoubleVector inf= DoubleVector.broadcast(D, Double.POSITIVE_INFINITY);
+		DoubleVector fewest= inf;
+		double limit= min + tol;
+		int bound= D.loopBound(n);
+		int k= 0;
+		for (; k < bound; k+= D.length()) {
+			VectorMask<Double> cand= DoubleVector.fromArray(D, d, k).compare(VectorOperators.LE, limit)
+				.and(DoubleVector.fromArray(D, lock, k).eq(0));
+			fewest= fewest.min(inf.blend(DoubleVector.fromArray(D, hops, k), cand));
+		}
+		double h= fewest.reduceLanes(VectorOperators.MIN);
+		for (int j= k; j < n; j++ ) {
+			if (lock[j] == 0 && d[j] <= limit) h= Math.min(h, hops[j]);
+		}
+		for (k= 0; k < bound; k+= D.length()) {
+			VectorMask<Double> cand= DoubleVector.fromArray(D, d, k).compare(VectorOperators.LE, limit)
+				.and(DoubleVector.fromArray(D, lock, k).eq(0)).and(DoubleVector.fromArray(D, hops, k).eq(h));
+			if (cand.anyTrue()) return k + cand.firstTrue();
+		}
+		for (; k < n; k++ ) {
+			if (lock[k] == 0 && d[k] <= limit && hops[k] == h) return k;
+		}
+		return -1;
+	}
+
+	@Override
+	public double minReduced(double[] c, double[] v, int n) {
+		DoubleVector mins= DoubleVector.broadcast(D, Double.POSITIVE_INFINITY);
+		int bound= D.loopBound(n);
+		int k= 0;
+		for (; k < bound; k+= D.length()) {
+			mins= mins.min(DoubleVector.fromArray(D, c, k).sub(DoubleVector.fromArray(D, v, k)));
+		}
+		double min= mins.reduceLanes(VectorOperators.MIN);
+		for (; k < n; k++ ) {
+			min= Math.min(min, c[k] - v[k]);
+		}
+		return min;
+	}
+
+	@Override
+	public String toString() {
+		return "Vector";
+	}
+
+}
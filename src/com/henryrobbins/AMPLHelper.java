@@ -3,7 +3,10 @@ package com.henryrobbins;
 import java.io.File;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.PriorityQueue;
 
 import org.apache.commons.collections4.BidiMap;
 
@@ -18,6 +21,7 @@ import com.henryrobbins.hotel.Guest;
 import com.henryrobbins.hotel.Housekeeper;
 import com.henryrobbins.hotel.Instance;
 import com.henryrobbins.hotel.Room;
+import com.henryrobbins.solver.schedule.FirstAvailable;
 
 /** This helper class contains static methods used by various solvers */
 public abstract class AMPLHelper {
@@ -89,7 +93,7 @@ public abstract class AMPLHelper {
 		uploadModel(ampl, "schedule");
 		setObjectiveFunction(ampl, obj);
 		setRoomAndGuestParams(ampl, instance);
-		setHousekeepingParams(ampl, instance);
+		setHousekeepingParams(ampl, instance, horizon(instance, obj));
 		ampl.solve();
 
 		Schedule schedule= getSchedule(ampl, instance);
@@ -97,6 +101,51 @@ public abstract class AMPLHelper {
 		return schedule;
 	}
 
+	/** Run the schedule model with the given objective function for the given instance. <br>
+	 * If aggregate, the housekeeper-aggregated model is run instead: it only decides when <br>
+	 * every room starts, with at most H rooms cleaned at any time, and housekeepers are <br>
+	 * then given to the rooms by assignHousekeepers.
+	 *
+	 * @param obj       The name of the objective function (defined in the model)
+	 * @param instance  The instance to generate a housekeeping schedule for (not null)
+	 * @param aggregate True iff the housekeeper-aggregated model should be run
+	 * @return A housekeeping schedule for the given instance */
+	public static Schedule runScheduleIP(Instance instance, String obj, boolean aggregate) {
+		return runScheduleIP(instance, obj, aggregate ? "scheduleAggregate" : "schedule");
+	}
+
+	/** Run the given schedule model with the given objective function for the given instance. <br>
+	 * The model is "schedule" (time-indexed), "scheduleAggregate" (time-indexed and <br>
+	 * housekeeper-aggregated), or "scheduleDisjunctive" (sequence-based: its size does not <br>
+	 * depend on the length of a time interval).
+	 *
+	 * @param obj      The name of the objective function (defined in the model)
+	 * @param instance The instance to generate a housekeeping schedule for (not null)
+	 * @param model    The name of the schedule model
+	 * @return A housekeeping schedule for the given instance */
+	public static Schedule runScheduleIP(Instance instance, String obj, String model) {
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+		if (!"schedule".equals(model) && !"scheduleAggregate".equals(model) && !"scheduleDisjunctive".equals(model))
+			throw new IllegalArgumentException("Schedule model undefined");
+
+		AMPL ampl= createAMPL();
+		uploadModel(ampl, model);
+		setObjectiveFunction(ampl, obj);
+		setRoomAndGuestParams(ampl, instance);
+		Schedule schedule;
+		if (model.equals("scheduleDisjunctive")) {
+			setDisjunctiveParams(ampl, instance, horizon(instance, obj));
+			ampl.solve();
+			schedule= getDisjunctiveSchedule(ampl, instance);
+		} else {
+			setHousekeepingParams(ampl, instance, horizon(instance, obj));
+			ampl.solve();
+			schedule= getSchedule(ampl, instance, model.equals("scheduleAggregate"));
+		}
+		close(ampl);
+		return schedule;
+	}
+
 	/** Run the solution model with the given objective function for the given instance
 	 *
 	 * @param obj      The name of the objective function (defined in the model)
@@ -118,6 +167,31 @@ public abstract class AMPLHelper {
 
 	}
 
+	/** Run the solution model with the given objective function for the given instance. <br>
+	 * If disjunctive, the sequence-based solution model is run instead: its size does not <br>
+	 * depend on the length of a time interval.
+	 *
+	 * @param obj         The name of the objective function (defined in the model)
+	 * @param instance    The instance to generate a solution for (not null)
+	 * @param disjunctive True iff the sequence-based model should be run
+	 * @return A solution with room assignment and housekeeping schedule for the given instance */
+	public static Solution runSolutionIP(Instance instance, String obj, boolean disjunctive) {
+		if (!disjunctive) return runSolutionIP(instance, obj);
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+
+		AMPL ampl= createAMPL();
+		uploadModel(ampl, "solutionDisjunctive");
+		setObjectiveFunction(ampl, obj);
+		setRoomAndGuestParams(ampl, instance);
+		setDisjunctiveParams(ampl, instance, horizon(instance));
+		ampl.solve();
+
+		Schedule schedule= getDisjunctiveSchedule(ampl, instance);
+		Assignment assignment= getAssignment(ampl, instance);
+		close(ampl);
+		return new Solution(instance, schedule, assignment);
+	}
+
 	/** Create an instance of AMPL with proper options */
 	public static AMPL createAMPL() {
 		AMPL ampl= new AMPL(new Environment(path.toString()));
@@ -235,15 +309,85 @@ public abstract class AMPLHelper {
 	}
 
 	/** Sets parameters for set of housekeepers and time intervals. The time intervals <br>
-	 * are from 0 to the maximum makespan. The maximum makespan is calculated by summing <br>
-	 * over the cleaning times of every room and adding the sum to the latest checkout time.
+	 * cover the horizon computed by horizon(instance), which keeps an optimal <br>
+	 * schedule for every objective function of the schedule and solution models.
 	 *
 	 * @param ampl     An instance of AMPL (not null)
 	 * @param instance The instance whose data will be uploaded (not null) */
 	public static void setHousekeepingParams(AMPL ampl, Instance instance) {
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+		setHousekeepingParams(ampl, instance, horizon(instance));
+	}
+
+	/** Sets parameters for set of housekeepers and time intervals. The time intervals <br>
+	 * are from 0 to one past the given horizon (One_Job_At_A_Time at time t constrains <br>
+	 * the interval before it). Every room may only start within its window, from one after <br>
+	 * its checkout time to the latest start completing it by the horizon, so no schedule <br>
+	 * variable is created outside of this window.
+	 *
+	 * @param ampl     An instance of AMPL (not null)
+	 * @param instance The instance whose data will be uploaded (not null)
+	 * @param horizon  The last time interval (every room must fit before it) */
+	public static void setHousekeepingParams(AMPL ampl, Instance instance, int horizon) {
+		if (ampl == null) throw new IllegalArgumentException("AMPL is null");
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+
+		setHousekeepers(ampl, instance);
+
+		DataFrame timeDF= new DataFrame(1, "TIME");
+
+		int[] time= new int[horizon + 2];
+		for (int t= 0; t <= horizon + 1; t++ ) {
+			time[t]= t;
+		}
+
+		timeDF.setColumn("TIME", time);
+		ampl.setData(timeDF, "TIME");
+
+		ArrayList<Room> rooms= instance.rooms();
+		DataFrame windowDF= new DataFrame(1, "ROOMS");
+
+		int rSize= rooms.size();
+		String[] num= new String[rSize];
+		int[] est= new int[rSize];
+		int[] lst= new int[rSize];
+
+		for (int i= 0; i < rSize; i++ ) {
+			Room room= rooms.get(i);
+			num[i]= Integer.toString(room.num());
+			est[i]= room.release() + 1;
+			lst[i]= horizon - room.process() + 1;
+			if (lst[i] < est[i]) throw new IllegalArgumentException("Horizon is too short");
+		}
+
+		windowDF.setColumn("ROOMS", num);
+		windowDF.addColumn("est", est);
+		windowDF.addColumn("lst", lst);
+		ampl.setData(windowDF);
+
+	}
+
+	/** Sets parameters for the sequence-based (disjunctive) models: the set of housekeepers <br>
+	 * and the horizon. Every room may only start from one after its checkout time to the <br>
+	 * latest start completing it by the horizon. No time intervals are uploaded, so the size <br>
+	 * of these models does not depend on the length of a time interval.
+	 *
+	 * @param ampl     An instance of AMPL (not null)
+	 * @param instance The instance whose data will be uploaded (not null)
+	 * @param horizon  The last time interval (every room must fit before it) */
+	public static void setDisjunctiveParams(AMPL ampl, Instance instance, int horizon) {
 		if (ampl == null) throw new IllegalArgumentException("AMPL is null");
 		if (instance == null) throw new IllegalArgumentException("Instance is null");
+		for (Room room : instance.rooms()) {
+			if (room.release() + room.process() > horizon) throw new IllegalArgumentException("Horizon is too short");
+		}
+
+		setHousekeepers(ampl, instance);
+		ampl.getParameter("horizon").set(horizon);
+	}
 
+	/** Set the set of housekeepers, with IDs 1 to H, for the given instance of AMPL */
+	private static void setHousekeepers(AMPL ampl, Instance instance) {
 		DataFrame housekeeperDF= new DataFrame(1, "HOUSEKEEPERS");
 
 		int n= instance.getH();
@@ -254,24 +398,42 @@ public abstract class AMPLHelper {
 
 		housekeeperDF.setColumn("HOUSEKEEPERS", id);
 		ampl.setData(housekeeperDF, "HOUSEKEEPERS");
+	}
 
-		DataFrame timeDF= new DataFrame(1, "TIME");
+	/** Return a horizon by which some optimal schedule completes every room, for any <br>
+	 * objective function that does not decrease as rooms are completed later. Take an optimal <br>
+	 * schedule with the least total completion time. No housekeeper idles once every room has <br>
+	 * checked out (at time R), and the last room cannot start earlier on another housekeeper, <br>
+	 * so every housekeeper works from R until at least its start. Hence the last room, with <br>
+	 * cleaning time p, starts at most (P - p) / H after R, where P is the total cleaning time. <br>
+	 * The horizon is R + (P - pmax) / H + pmax, which is R + P for a single housekeeper.
+	 *
+	 * @param instance The instance to be scheduled (not null) */
+	public static int horizon(Instance instance) {
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
 
-		int maxMakespan= 0;
+		int total= 0;
+		int maxProcess= 0;
 		int maxRelease= 0;
 		for (Room room : instance.rooms()) {
-			maxMakespan+= room.process();
+			total+= room.process();
+			maxProcess= Math.max(maxProcess, room.process());
 			maxRelease= Math.max(maxRelease, room.release());
 		}
-		maxMakespan+= maxRelease;
-		int[] time= new int[maxMakespan + 1];
-		for (int t= 0; t <= maxMakespan; t++ ) {
-			time[t]= t;
-		}
-
-		timeDF.setColumn("TIME", time);
-		ampl.setData(timeDF, "TIME");
+		return maxRelease + (total - maxProcess) / instance.getH() + maxProcess;
+	}
 
+	/** Return a horizon by which some schedule optimizing the given objective function of the <br>
+	 * schedule model completes every room. When minimizing the makespan, this is the makespan <br>
+	 * of a FirstAvailable schedule; otherwise it is horizon(instance).
+	 *
+	 * @param instance The instance to be scheduled (not null)
+	 * @param obj      The name of the objective function (defined in the schedule model) */
+	public static int horizon(Instance instance, String obj) {
+		int horizon= horizon(instance);
+		if (!"Makespan".equals(obj)) return horizon;
+		int makespan= (int) new FirstAvailable().solve(instance).completionStats().getMax();
+		return Math.min(horizon, makespan);
 	}
 
 	/** Sets parameters for a previous assignment. 'prev[g][r]' is set to 1 if guest g <br>
@@ -351,7 +513,7 @@ public abstract class AMPLHelper {
 
 	/** Return the housekeeping schedule associated with the decision variable 'schedule' <br>
 	 * in the given AMPL instance. "Schedule" indicates which housekeeper cleans each room <br>
-	 * and the time interval in which the housekeeper begins cleaning.
+	 * and the time interval (within the room's window) in which the housekeeper begins cleaning.
 	 *
 	 * @param ampl     An instance of AMPL (not null)
 	 * @param instance The instance the returned housekeeping schedule is for (not null)
@@ -364,13 +526,15 @@ public abstract class AMPLHelper {
 		ArrayList<Room> rooms= instance.rooms();
 
 		for (Room room : rooms) {
+			String r= Integer.toString(room.num());
+			int est= ((Double) ampl.getParameter("est").get(r)).intValue();
+			int lst= ((Double) ampl.getParameter("lst").get(r)).intValue();
 			for (Housekeeper housekeeper : schedule.getHousekeepers()) {
-				for (Object t : ampl.getSet("TIME").toArray()) {
-					String r= Integer.toString(room.num());
+				for (int t= est; t <= lst; t++ ) {
 					String h= Integer.toString(housekeeper.id());
-					double sched= ampl.getVariable("schedule").get(r, h, t).value();
+					double sched= ampl.getVariable("schedule").get(r, h, (double) t).value();
 					if (sched == 1.0) {
-						schedule.add(housekeeper, room, ((Double) t).intValue());
+						schedule.add(housekeeper, room, t);
 						break;
 					}
 				}
@@ -381,6 +545,107 @@ public abstract class AMPLHelper {
 
 	}
 
+	/** Return the housekeeping schedule in the given AMPL instance. If aggregate, the <br>
+	 * schedule is associated with the decision variable 'start' of the housekeeper-aggregated <br>
+	 * model, which indicates the time interval in which each room begins to be cleaned. <br>
+	 * Otherwise, it is associated with the decision variable 'schedule' (see getSchedule).
+	 *
+	 * @param ampl      An instance of AMPL (not null)
+	 * @param instance  The instance the returned housekeeping schedule is for (not null)
+	 * @param aggregate True iff the housekeeper-aggregated model was run
+	 * @return The housekeeping schedule for the instance */
+	public static Schedule getSchedule(AMPL ampl, Instance instance, boolean aggregate) {
+		if (!aggregate) return getSchedule(ampl, instance);
+		if (ampl == null) throw new IllegalArgumentException("AMPL is null");
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+
+		ArrayList<Room> rooms= instance.rooms();
+		int[] start= new int[rooms.size()];
+
+		for (int i= 0; i < rooms.size(); i++ ) {
+			String r= Integer.toString(rooms.get(i).num());
+			int est= ((Double) ampl.getParameter("est").get(r)).intValue();
+			int lst= ((Double) ampl.getParameter("lst").get(r)).intValue();
+			for (int t= est; t <= lst; t++ ) {
+				if (ampl.getVariable("start").get(r, (double) t).value() == 1.0) {
+					start[i]= t;
+					break;
+				}
+			}
+		}
+
+		return assignHousekeepers(instance, start);
+	}
+
+	/** Return the housekeeping schedule associated with the decision variables 'start' and <br>
+	 * 'clean' of a sequence-based (disjunctive) model in the given AMPL instance. "Start" is <br>
+	 * the time every room begins to be cleaned (rounded, as the model's times are continuous) <br>
+	 * and "clean" indicates which housekeeper cleans it.
+	 *
+	 * @param ampl     An instance of AMPL (not null)
+	 * @param instance The instance the returned housekeeping schedule is for (not null)
+	 * @return The housekeeping schedule for the instance */
+	public static Schedule getDisjunctiveSchedule(AMPL ampl, Instance instance) {
+		if (ampl == null) throw new IllegalArgumentException("AMPL is null");
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+
+		Schedule schedule= new Schedule(instance);
+		ArrayList<Room> rooms= instance.rooms();
+		ArrayList<Housekeeper> housekeepers= schedule.getHousekeepers();
+
+		for (int i= 0; i < rooms.size(); i++ ) {
+			Room room= rooms.get(i);
+			String r= Integer.toString(room.num());
+			int start= (int) Math.round(ampl.getVariable("start").get(r).value());
+			// The i-th room (from 0) may only be cleaned by one of the first i + 1 housekeepers
+			for (int k= 0; k < housekeepers.size() && k <= i; k++ ) {
+				String h= Integer.toString(housekeepers.get(k).id());
+				if (ampl.getVariable("clean").get(r, h).value() > 0.5) {
+					schedule.add(housekeepers.get(k), room, start);
+					break;
+				}
+			}
+		}
+
+		return schedule;
+	}
+
+	/** Return the housekeeping schedule in which every room of the given instance starts at the <br>
+	 * given time. In order of start, every room is given to the housekeeper who has been free <br>
+	 * the longest. This uses at most as many housekeepers as rooms cleaned at any one time, so <br>
+	 * it succeeds iff no more than H rooms are ever cleaned at once. Throw an <br>
+	 * IllegalArgumentException otherwise.
+	 *
+	 * @param instance The instance the returned housekeeping schedule is for (not null)
+	 * @param start    The start time of every room (in the order of instance.rooms()) */
+	public static Schedule assignHousekeepers(Instance instance, int[] start) {
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+		ArrayList<Room> rooms= instance.rooms();
+		if (start == null || start.length != rooms.size())
+			throw new IllegalArgumentException("Start times do not match the rooms");
+
+		Schedule schedule= new Schedule(instance);
+		PriorityQueue<Housekeeper> housekeepers= new PriorityQueue<>(
+			Comparator.comparingInt(Housekeeper::getMakespan).thenComparingInt(Housekeeper::id));
+		housekeepers.addAll(schedule.getHousekeepers());
+
+		Integer[] order= new Integer[rooms.size()];
+		for (int i= 0; i < order.length; i++ ) {
+			order[i]= i;
+		}
+		Arrays.sort(order, Comparator.comparingInt((Integer i) -> start[i]));
+
+		for (int i : order) {
+			Housekeeper housekeeper= housekeepers.poll();
+			if (housekeeper.getMakespan() >= start[i])
+				throw new IllegalArgumentException("More than H rooms are cleaned at once");
+			schedule.add(housekeeper, rooms.get(i), start[i]);
+			housekeepers.add(housekeeper);
+		}
+
+		return schedule;
+	}
+
 	/** Return the room assignment associated with the decision variable 'assign' and the <br>
 	 * housekeeping schedule associated with the decision variable 'schedule' in the given AMPL <br>
 	 * instance. "Assign" indicates which room a guest is assigned to. "Schedule" indicates which <br>
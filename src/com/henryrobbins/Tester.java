@@ -7,7 +7,20 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.collections4.BidiMap;
 import org.apache.commons.collections4.bidimap.DualHashBidiMap;
@@ -31,19 +44,44 @@ import com.henryrobbins.hotel.Housekeeper;
 import com.henryrobbins.hotel.Instance;
 import com.henryrobbins.hotel.InstanceFactory;
 import com.henryrobbins.hotel.Room;
+import com.henryrobbins.solver.PortfolioSolver;
+import com.henryrobbins.solver.Solver;
 import com.henryrobbins.solver.assignment.AssignmentIPSolver;
+import com.henryrobbins.solver.assignment.AuctionMeanSat;
 import com.henryrobbins.solver.assignment.BestFirst;
+import com.henryrobbins.solver.assignment.FeasibilityOracle;
+import com.henryrobbins.solver.assignment.Hungarian;
+import com.henryrobbins.solver.assignment.HungarianKernel;
+import com.henryrobbins.solver.assignment.IncrementalAssignmentSolver;
 import com.henryrobbins.solver.assignment.Linear;
+import com.henryrobbins.solver.assignment.OnlineMeanSat;
 import com.henryrobbins.solver.assignment.OnlineMeanSatIP;
 import com.henryrobbins.solver.assignment.PreserveEdgesMeanSat;
+import com.henryrobbins.solver.assignment.SparseMeanSat;
+import com.henryrobbins.solver.assignment.SuggestiveMeanSat;
 import com.henryrobbins.solver.assignment.SuggestiveMeanSatIP;
+import com.henryrobbins.solver.assignment.TierDecomposition;
+import com.henryrobbins.solver.assignment.TypeCounting;
 import com.henryrobbins.solver.assignment.WorstFirst;
+import com.henryrobbins.solver.schedule.ATCDispatch;
+import com.henryrobbins.solver.schedule.CoarseToFine;
+import com.henryrobbins.solver.schedule.Dispatch;
+import com.henryrobbins.solver.schedule.DispatchRule;
 import com.henryrobbins.solver.schedule.FirstAvailable;
 import com.henryrobbins.solver.schedule.NeededFirst;
 import com.henryrobbins.solver.schedule.NeededFirstNoWait;
+import com.henryrobbins.solver.schedule.ScheduleBranchAndBound;
 import com.henryrobbins.solver.schedule.ScheduleIPSolver;
+import com.henryrobbins.solver.schedule.ScheduleLNS;
+import com.henryrobbins.solver.schedule.ScheduleLagrangian;
+import com.henryrobbins.solver.schedule.ScheduleLocalSearch;
 import com.henryrobbins.solver.solution.AssignmentSTScheduleIP;
 import com.henryrobbins.solver.solution.FirstRoom;
+import com.henryrobbins.solver.solution.IteratedDecomposition;
+import com.henryrobbins.solver.solution.MemeticSolver;
+import com.henryrobbins.solver.solution.ParetoExplorer;
+import com.henryrobbins.solver.solution.ReadinessMatching;
+import com.henryrobbins.solver.solution.RollingHorizon;
 import com.henryrobbins.solver.solution.ScheduleSTAssignmentIP;
 import com.henryrobbins.solver.solution.SolutionIPSolver;
 
@@ -962,6 +1000,34 @@ public class Tester {
 		assertThrows(IllegalArgumentException.class, () -> { AMPLHelper.runSolutionIP(instance, ""); });
 		assertThrows(IllegalArgumentException.class, () -> { AMPLHelper.runSolutionIP(null, "test3"); });
 
+		// The horizon fits some optimal schedule and is tightened by a heuristic makespan
+		assertThrows(IllegalArgumentException.class, () -> { AMPLHelper.horizon(null); });
+		int horizon= AMPLHelper.horizon(instance);
+		int makespan= (int) new FirstAvailable().solve(instance).completionStats().getMax();
+		assertEquals(true, makespan <= horizon);
+		assertEquals(Math.min(horizon, makespan), AMPLHelper.horizon(instance, "Makespan"));
+		assertEquals(horizon, AMPLHelper.horizon(instance, "Sum_Completion_Time"));
+
+		// Housekeepers are given back to the start times of a schedule
+		assertThrows(IllegalArgumentException.class, () -> { AMPLHelper.assignHousekeepers(instance, new int[0]); });
+		Schedule schedule= new FirstAvailable().solve(instance);
+		ArrayList<Room> rooms= instance.rooms();
+		int[] start= new int[rooms.size()];
+		for (int i= 0; i < start.length; i++ ) {
+			start[i]= schedule.completion(rooms.get(i)) - rooms.get(i).process() + 1;
+		}
+		Schedule assigned= AMPLHelper.assignHousekeepers(instance, start);
+		assertEquals(true, assigned.isValid());
+		assertEquals(schedule.completionStats().getSum(), assigned.completionStats().getSum());
+
+		// Every room cleaned at once needs more than H housekeepers
+		int last= 0;
+		for (Room room : rooms) {
+			last= Math.max(last, room.release() + 1);
+		}
+		Arrays.fill(start, last);
+		assertThrows(IllegalArgumentException.class, () -> { AMPLHelper.assignHousekeepers(instance, start); });
+
 		AMPL ampl= AMPLHelper.createAMPL();
 
 		assertThrows(IllegalArgumentException.class, () -> { AMPLHelper.uploadModel(null, "minMakespanTI"); });
@@ -1207,6 +1273,315 @@ public class Tester {
 		}
 	}
 
+	@Test
+	void testFeasibilityOracle() {
+
+		assertThrows(IllegalArgumentException.class, () -> { new FeasibilityOracle(null); });
+
+		Instance instance= test[2];
+		FeasibilityOracle oracle= new FeasibilityOracle(instance);
+		assertThrows(IllegalArgumentException.class, () -> { oracle.canAssign(null, instance.room(1)); });
+		assertThrows(IllegalArgumentException.class, () -> { oracle.assign(instance.guest(1), null); });
+		assertEquals(true, oracle.feasible());
+		assertEquals(0, oracle.slack(1));
+		assertEquals(0, oracle.slack(2));
+		assertEquals(1, oracle.slack(3));
+		assertEquals(0, oracle.slack(4));
+
+		// Guest 1 requests type 1 but the type 2 tier has no slack
+		assertEquals(true, oracle.canAssign(instance.guest(1), instance.room(1)));
+		assertEquals(false, oracle.canAssign(instance.guest(1), instance.room(5)));
+		assertEquals(false, oracle.canAssign(instance.guest(3), instance.room(1)));
+		assertEquals(true, oracle.canAssign(instance.guest(3), instance.room(6)));
+
+		assertEquals(true, oracle.assign(instance.guest(3), instance.room(6)));
+		assertEquals(false, oracle.assign(instance.guest(3), instance.room(5)));
+		assertEquals(0, oracle.slack(3));
+		assertEquals(true, oracle.canAssign(instance.guest(5), instance.room(5)));
+		assertEquals(false, oracle.canAssign(instance.guest(5), instance.room(6)));
+		assertEquals(true, oracle.feasible());
+	}
+
+	@Test
+	void testTypeCounting() {
+
+		TypeCounting solver= new TypeCounting();
+		Instance instance= test[2];
+		assertThrows(IllegalArgumentException.class, () -> { solver.solve(null); });
+		Assignment assignment= solver.solve(instance);
+		assertEquals((double) 11 / 18, assignment.satisfactionStats().getMean(), 0.01);
+		assertEquals(1, assignment.upgradeStats().getSum());
+		assertEquals("Type Counting", solver.toString());
+
+		for (int i= 0; i < t; i++ ) {
+			instance= InstanceFactory.randInstance(n);
+			assignment= solver.solve(instance);
+			for (Guest guest : instance.guests()) {
+				assertEquals(true, assignment.isGuestAssigned(guest));
+			}
+		}
+	}
+
+	@Test
+	void testAuctionMeanSat() {
+
+		assertThrows(IllegalArgumentException.class, () -> { new AuctionMeanSat(0, ForkJoinPool.commonPool()); });
+		assertThrows(IllegalArgumentException.class, () -> { new AuctionMeanSat(1e-7, null); });
+
+		AuctionMeanSat solver= new AuctionMeanSat(1e-7, ForkJoinPool.commonPool());
+		Instance instance= test[2];
+		assertThrows(IllegalArgumentException.class, () -> { solver.solve(null); });
+		AuctionMeanSat.Auction auction= solver.auction(instance);
+		Assignment assignment= auction.assignment();
+
+		assertEquals((double) 31 / 36, assignment.satisfactionStats().getMean(), 0.01);
+		assertEquals(true, auction.gap() <= instance.rooms().size() * 1e-7);
+		assertEquals("Auction", solver.toString());
+
+		AssignmentIPSolver maxAvg= new AssignmentIPSolver("Mean_Satisfaction");
+
+		for (int i= 0; i < t; i++ ) {
+			instance= InstanceFactory.randInstance(n);
+			double realAvg= maxAvg.solve(instance).satisfactionStats().getMean();
+			double avg= solver.solve(instance).satisfactionStats().getMean();
+			assertEquals(realAvg, avg, 0.01);
+		}
+	}
+
+	@Test
+	void testSparseMeanSat() {
+
+		assertThrows(IllegalArgumentException.class, () -> { new SparseMeanSat(0); });
+
+		SparseMeanSat solver= new SparseMeanSat(2);
+		Instance instance= test[2];
+		assertThrows(IllegalArgumentException.class, () -> { solver.solve(null); });
+		SparseMeanSat.Matching matching= solver.match(instance);
+		Assignment assignment= matching.assignment();
+
+		assertEquals((double) 31 / 36, assignment.satisfactionStats().getMean(), 0.01);
+		assertEquals(false, matching.dense());
+		assertEquals("Sparse Mean Satisfaction", solver.toString());
+
+		AssignmentIPSolver maxAvg= new AssignmentIPSolver("Mean_Satisfaction");
+
+		for (int i= 0; i < t; i++ ) {
+			instance= InstanceFactory.randInstance(n);
+			double realAvg= maxAvg.solve(instance).satisfactionStats().getMean();
+			double avg= solver.solve(instance).satisfactionStats().getMean();
+			assertEquals(realAvg, avg, 0.01);
+		}
+	}
+
+	@Test
+	void testTierDecomposition() {
+
+		assertThrows(IllegalArgumentException.class, () -> { new TierDecomposition(null); });
+
+		Instance instance= test[2];
+		assertEquals(new ArrayList<>(Arrays.asList(1, 2)), instance.noSlackTypes());
+		ArrayList<Instance> tiers= InstanceFactory.tiers(instance);
+		assertEquals(2, tiers.size());
+		assertEquals(4, tiers.get(0).guests().size());
+		assertEquals(4, tiers.get(0).rooms().size());
+		assertEquals(2, tiers.get(1).guests().size());
+		assertEquals(2, tiers.get(1).rooms().size());
+
+		TierDecomposition solver= new TierDecomposition(new AssignmentIPSolver("Mean_Satisfaction"));
+		assertThrows(IllegalArgumentException.class, () -> { solver.solve(null); });
+		Assignment assignment= solver.solve(instance);
+		assertEquals((double) 31 / 36, assignment.satisfactionStats().getMean(), 0.01);
+		assertEquals("Mean_Satisfaction (Tiers)", solver.toString());
+
+		AssignmentIPSolver maxAvg= new AssignmentIPSolver("Mean_Satisfaction");
+
+		for (int i= 0; i < t; i++ ) {
+			instance= InstanceFactory.randInstance(n);
+			double realAvg= maxAvg.solve(instance).satisfactionStats().getMean();
+			double avg= solver.solve(instance).satisfactionStats().getMean();
+			assertEquals(realAvg, avg, 0.01);
+		}
+	}
+
+	@Test
+	void testHungarian() {
+
+		assertThrows(IllegalArgumentException.class, () -> { new Hungarian(new double[0][0]); });
+		assertThrows(IllegalArgumentException.class, () -> { new Hungarian(new double[][] { { 1, 2 } }); });
+
+		Hungarian hungarian= new Hungarian(new double[][] { { 4, 1, 3 }, { 2, 0, 5 }, { 3, 2, 2 } });
+		hungarian.solve();
+		assertEquals(5, hungarian.total(), 1e-9);
+		assertEquals(1, hungarian.col(0));
+		assertEquals(0, hungarian.col(1));
+		assertEquals(2, hungarian.col(2));
+		for (int i= 0; i < 3; i++ ) {
+			assertEquals(0, hungarian.reduced(i, hungarian.col(i)), 1e-9);
+			for (int j= 0; j < 3; j++ ) {
+				assertEquals(true, hungarian.reduced(i, j) >= -1e-9);
+			}
+		}
+		assertEquals(true, Hungarian.kernel().equals("Scalar") || Hungarian.kernel().equals("Vector"));
+	}
+
+	@Test
+	void testHungarianKernel() {
+
+		// With the Vector API module added, the vector kernel must be compiled and loaded
+		HungarianKernel kernel= HungarianKernel.load();
+		HungarianKernel scalar= new HungarianKernel.ScalarKernel();
+		if (ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent() &&
+			!"false".equals(System.getProperty("hotel.simd"))) {
+			assertEquals("Vector", kernel.toString());
+		}
+
+		// Random rows of small values (many ties) with infinite costs, distances, and locks
+		Random random= new Random(0);
+		double inf= Double.POSITIVE_INFINITY;
+		for (int i= 0; i < 1000; i++ ) {
+			int size= 1 + random.nextInt(40);
+			double[] c= new double[size];
+			double[] v= new double[size];
+			double[] d= new double[size];
+			double[] hops= new double[size];
+			double[] pred= new double[size];
+			double[] lock= new double[size];
+			for (int k= 0; k < size; k++ ) {
+				c[k]= random.nextInt(8) == 0 ? inf : random.nextInt(4) + (i % 2) * random.nextDouble();
+				v[k]= random.nextInt(3) - (i % 2) * random.nextDouble();
+				d[k]= random.nextInt(6) == 0 ? inf : random.nextInt(5);
+				hops[k]= random.nextInt(3);
+				pred[k]= random.nextInt(size);
+				lock[k]= random.nextInt(4) == 0 ? inf : 0;
+			}
+			double base= random.nextInt(3);
+			double h= random.nextInt(3);
+			double row= random.nextInt(size);
+			double tol= random.nextBoolean() ? 0 : 1e-9;
+
+			assertEquals(scalar.minReduced(c, v, size), kernel.minReduced(c, v, size));
+			double[] d2= Arrays.copyOf(d, size);
+			double[] hops2= Arrays.copyOf(hops, size);
+			double[] pred2= Arrays.copyOf(pred, size);
+			double min= scalar.relax(c, v, base, d, hops, pred, lock, h, row, tol, size);
+			assertEquals(min, kernel.relax(c, v, base, d2, hops2, pred2, lock, h, row, tol, size));
+			assertEquals(true, Arrays.equals(d, d2) && Arrays.equals(hops, hops2) && Arrays.equals(pred, pred2));
+			assertEquals(scalar.select(d, hops, lock, min, tol, size), kernel.select(d, hops, lock, min, tol, size));
+		}
+	}
+
+	@Test
+	void testIncrementalAssignmentSolver() {
+
+		IncrementalAssignmentSolver solver= new IncrementalAssignmentSolver();
+		Instance instance= test[2];
+		assertThrows(IllegalArgumentException.class, () -> { solver.solve(null); });
+		assertThrows(IllegalArgumentException.class, () -> { solver.update(instance); });
+		Assignment assignment= solver.solve(instance);
+
+		assertEquals((double) 31 / 36, assignment.satisfactionStats().getMean(), 0.01);
+		assertEquals(31.0 / 6, solver.totalSatisfaction(), 0.01);
+		assertEquals(0, solver.update(instance));
+		assertThrows(IllegalArgumentException.class, () -> { solver.addGuest(instance, null); });
+		assertThrows(IllegalArgumentException.class, () -> { solver.addGuest(instance, instance.guest(1)); });
+		assertThrows(IllegalArgumentException.class, () -> { solver.removeGuest(instance, instance.guest(1)); });
+		assertEquals("Incremental Mean Satisfaction", solver.toString());
+
+		AssignmentIPSolver maxAvg= new AssignmentIPSolver("Mean_Satisfaction");
+
+		for (int i= 0; i < t; i++ ) {
+			Instance before= InstanceFactory.randInstance(n);
+			Instance after= InstanceFactory.addGuestTo(before);
+			if (after == null) continue;
+			Guest guest= after.guest(after.guests().size());
+
+			Assignment prev= solver.solve(before);
+			assertEquals(maxAvg.solve(before).satisfactionStats().getMean(), prev.satisfactionStats().getMean(), 0.01);
+
+			int changed= solver.addGuest(after, guest);
+			assignment= solver.assignment();
+			assertEquals(maxAvg.solve(after).satisfactionStats().getMean(), assignment.satisfactionStats().getMean(), 0.01);
+			int actual= 0;
+			for (Guest g : before.guests()) {
+				if (!prev.assignment().get(g).equals(assignment.assignment().get(g))) actual++ ;
+			}
+			assertEquals(actual, changed);
+
+			solver.removeGuest(before, guest);
+			assertEquals(prev.satisfactionStats().getMean(), solver.assignment().satisfactionStats().getMean(), 0.01);
+		}
+
+		// Guest 3 may take room 1 (moving guest 1) or room 2 (moving guest 2, or both guests 1 and 2)
+		Hotel.Builder hotel= new Hotel.Builder();
+		hotel.setH(1);
+		Room room1= new Room(1, 2, 1, 0, 1);
+		Room room2= new Room(2, 2, 1, 0, 1);
+		Room room3= new Room(3, 1, 1, 0, 1);
+		hotel.addRoom(room1);
+		hotel.addRoom(room2);
+		hotel.addRoom(room3);
+		Guest guest1= new Guest(1, 1, 1);
+		Guest guest2= new Guest(2, 1, 1);
+		Guest guest3= new Guest(3, 2, 1);
+		Instance.Builder builder= new Instance.Builder(hotel.build());
+		builder.addGuest(guest1);
+		builder.addGuest(guest2);
+		builder.addWeight(guest1, room1, 1.0);
+		builder.addWeight(guest1, room2, 0.5);
+		builder.addWeight(guest1, room3, 0.5);
+		builder.addWeight(guest2, room1, 1.0);
+		builder.addWeight(guest2, room2, 1.0);
+		builder.addWeight(guest2, room3, 0.5);
+		Instance before= builder.build();
+		builder.addGuest(guest3);
+		builder.addWeight(guest3, room1, 1.0);
+		builder.addWeight(guest3, room2, 1.0);
+		Instance after= builder.build();
+
+		Assignment prev= solver.solve(before);
+		assertEquals(room1, prev.assignment().get(guest1));
+		assertEquals(room2, prev.assignment().get(guest2));
+		assertEquals(1, solver.addGuest(after, guest3));
+		assertEquals(2.5, solver.totalSatisfaction(), 1e-9);
+		int moved= 0;
+		for (Guest g : before.guests()) {
+			if (!prev.assignment().get(g).equals(solver.assignment().assignment().get(g))) moved++ ;
+		}
+		assertEquals(1, moved);
+
+		// An update must be on the same hotel object, not an equal copy whose rooms have no weights
+		Hotel.Builder copy= new Hotel.Builder();
+		copy.setH(1);
+		copy.addRoom(new Room(1, 2, 1, 0, 1));
+		copy.addRoom(new Room(2, 2, 1, 0, 1));
+		copy.addRoom(new Room(3, 1, 1, 0, 1));
+		Hotel equal= copy.build();
+		assertEquals(true, equal.equals(before.hotel()));
+		Instance.Builder copied= new Instance.Builder(equal);
+		copied.addGuest(guest1);
+		copied.addGuest(guest2);
+		assertThrows(IllegalArgumentException.class, () -> { solver.update(copied.build()); });
+
+		// A guest read again counts as removed and added, so its new weights are used: guest 1
+		// now prefers room 2, which moves the kept guest 2 to room 1
+		solver.solve(before);
+		Guest reread= new Guest(1, 1, 1);
+		assertEquals(true, reread.equals(guest1));
+		Instance.Builder again= new Instance.Builder(before.hotel());
+		again.addGuest(reread);
+		again.addGuest(guest2);
+		again.addWeight(reread, room1, 0.5);
+		again.addWeight(reread, room2, 1.0);
+		again.addWeight(reread, room3, 0.5);
+		again.addWeight(guest2, room1, 1.0);
+		again.addWeight(guest2, room2, 1.0);
+		again.addWeight(guest2, room3, 0.5);
+		assertEquals(1, solver.update(again.build()));
+		assertEquals(2.0, solver.totalSatisfaction(), 1e-9);
+		assertEquals(room2, solver.assignment().assignment().get(reread));
+		assertEquals(room1, solver.assignment().assignment().get(guest2));
+	}
+
 	@Test
 	void testOnlineMeanSatIP() {
 
@@ -1229,6 +1604,31 @@ public class Tester {
 
 	}
 
+	@Test
+	void testOnlineMeanSat() {
+
+		OnlineMeanSat solver= new OnlineMeanSat();
+		Instance instance= test[2];
+		assertThrows(IllegalArgumentException.class, () -> { solver.solve(null); });
+		Assignment assignment= solver.solve(instance);
+
+		assertEquals((double) 31 / 36, assignment.satisfactionStats().getMean(), 0.01);
+		assertEquals("Online", solver.toString());
+
+		OnlineMeanSatIP online= new OnlineMeanSatIP();
+
+		for (int i= 0; i < t; i++ ) {
+			instance= InstanceFactory.randInstance(n);
+			Assignment real= online.solve(instance);
+			assignment= solver.solve(instance);
+			for (Guest guest : instance.guests()) {
+				assertEquals(instance.weight(guest, real.assignment().get(guest)),
+					instance.weight(guest, assignment.assignment().get(guest)), 0.01);
+			}
+		}
+
+	}
+
 	@Test
 	void testSuggestiveMeanSatIP() {
 
@@ -1253,6 +1653,50 @@ public class Tester {
 		}
 	}
 
+	@Test
+	void testSuggestiveMeanSat() {
+
+		assertThrows(IllegalArgumentException.class, () -> { new SuggestiveMeanSat(-1); });
+		assertThrows(IllegalArgumentException.class, () -> { new SuggestiveMeanSat(2); });
+		assertThrows(IllegalArgumentException.class, () -> { new SuggestiveMeanSat(1, null); });
+
+		SuggestiveMeanSat solver= new SuggestiveMeanSat(1);
+		Instance instance= test[2];
+		assertThrows(IllegalArgumentException.class, () -> { solver.solve(null); });
+		SuggestiveMeanSat.Suggestion suggestion= solver.suggest(instance);
+		Assignment assignment= suggestion.assignment();
+
+		assertEquals((double) 31 / 36, assignment.satisfactionStats().getMean(), 0.01);
+		for (Guest guest : instance.guests()) {
+			assertEquals(true, suggestion.feasibleRooms().get(guest).contains(assignment.assignment().get(guest)));
+		}
+		assertEquals("Suggestive", solver.toString());
+
+		AssignmentIPSolver maxAvg= new AssignmentIPSolver("Mean_Satisfaction");
+		SuggestiveMeanSat relaxed= new SuggestiveMeanSat(0.9);
+
+		for (int i= 0; i < t; i++ ) {
+			instance= InstanceFactory.randInstance(n);
+			double realAvg= maxAvg.solve(instance).satisfactionStats().getMean();
+			double avg= solver.solve(instance).satisfactionStats().getMean();
+			assertEquals(realAvg, avg, 0.01);
+			avg= relaxed.solve(instance).satisfactionStats().getMean();
+			assertEquals(true, avg >= realAvg * 0.9 - 0.01);
+		}
+
+		// Picking alike, every guest has the feasible rooms of SuggestiveMeanSatIP with the same alpha
+		for (int i= 0; i < t; i++ ) {
+			instance= InstanceFactory.randInstance(n);
+			for (double alpha : new double[] { 1, 0.9, 0.5 }) {
+				SuggestiveMeanSat.Suggestion fast= new SuggestiveMeanSat(alpha, new Random(i)).suggest(instance);
+				SuggestiveMeanSat.Suggestion ip= new SuggestiveMeanSatIP(alpha, new Random(i)).suggest(instance);
+				for (Guest guest : instance.guests()) {
+					assertEquals(ip.feasibleRooms().get(guest), fast.feasibleRooms().get(guest));
+				}
+			}
+		}
+	}
+
 	@Test
 	void testPreserveEdges() {
 
@@ -1313,6 +1757,26 @@ public class Tester {
 		assertEquals(8, schedule5.completionStats().getMax());
 		assertEquals("Needed First", needed.toString());
 
+		// One room of type 1 cannot satisfy a request of type 2
+		Hotel.Builder hbuilder= new Hotel.Builder();
+		hbuilder.addRoom(new Room(1, 1, 1, 0, 1));
+		hbuilder.setH(1);
+		Instance.Builder builder= new Instance.Builder(hbuilder.build());
+		builder.addGuest(new Guest(1, 2, 1));
+		Instance infeasible= builder.build();
+		assertThrows(IllegalArgumentException.class, () -> { needed.solve(infeasible); });
+
+		// The schedules are those of the implementation with lists of types
+		for (int i= 0; i < 20 * t; i++ ) {
+			Instance instance= InstanceFactory.randInstance((1 + i % 10) * n);
+			Schedule expected= neededFirstByLists(instance, false);
+			Schedule schedule= needed.solve(instance);
+			for (Room room : instance.rooms()) {
+				assertEquals(expected.completion(room), schedule.completion(room));
+				assertEquals(expected.getAssignment(room).id(), schedule.getAssignment(room).id());
+			}
+		}
+
 	}
 
 	@Test
@@ -1331,6 +1795,515 @@ public class Tester {
 		assertEquals(6, schedule5.completionStats().getMax());
 		assertEquals("Needed First No-Wait", neededNoWait.toString());
 
+		// One room of type 1 cannot satisfy a request of type 2
+		Hotel.Builder hbuilder= new Hotel.Builder();
+		hbuilder.addRoom(new Room(1, 1, 1, 0, 1));
+		hbuilder.setH(1);
+		Instance.Builder builder= new Instance.Builder(hbuilder.build());
+		builder.addGuest(new Guest(1, 2, 1));
+		Instance infeasible= builder.build();
+		assertThrows(IllegalArgumentException.class, () -> { neededNoWait.solve(infeasible); });
+
+		// The schedules are those of the implementation with lists of types
+		for (int i= 0; i < 20 * t; i++ ) {
+			Instance instance= InstanceFactory.randInstance((1 + i % 10) * n);
+			Schedule expected= neededFirstByLists(instance, true);
+			Schedule schedule= neededNoWait.solve(instance);
+			for (Room room : instance.rooms()) {
+				assertEquals(expected.completion(room), schedule.completion(room));
+				assertEquals(expected.getAssignment(room).id(), schedule.getAssignment(room).id());
+			}
+		}
+
+	}
+
+	/** Return the least sum of completion times (or sum of tardiness, if an assignment gives <br>
+	 * deadlines) over all list schedules of the given instance: the rooms are started in the <br>
+	 * order of some permutation by the housekeeper free first. Some list schedule is optimal. */
+	private static int listOptimum(Instance instance, Assignment assignment) {
+		ArrayList<Room> rooms= instance.rooms();
+		int m= rooms.size();
+		int[] release= new int[m];
+		int[] process= new int[m];
+		int[] arrival= new int[m];
+		for (int j= 0; j < m; j++ ) {
+			Room room= rooms.get(j);
+			release[j]= room.release();
+			process[j]= room.process();
+			Guest guest= assignment == null ? null : assignment.assignment().getKey(room);
+			arrival[j]= guest == null ? Integer.MAX_VALUE : guest.arrival();
+		}
+		int[] free= new int[instance.getH()];
+		Arrays.fill(free, 1);
+		return listOptimum(release, process, arrival, assignment != null, new boolean[m], free, m);
+	}
+
+	/** Return the least cost of listing the unlisted rooms with housekeepers free at the given times */
+	private static int listOptimum(int[] release, int[] process, int[] arrival, boolean tardiness,
+		boolean[] listed, int[] free, int left) {
+		if (left == 0) return 0;
+		int k= 0;
+		for (int i= 1; i < free.length; i++ ) {
+			if (free[i] < free[k]) k= i;
+		}
+		int best= Integer.MAX_VALUE;
+		for (int j= 0; j < listed.length; j++ ) {
+			if (listed[j]) continue;
+			int before= free[k];
+			int completion= Math.max(before, release[j] + 1) + process[j] - 1;
+			int cost= !tardiness ? completion :
+				arrival[j] == Integer.MAX_VALUE ? 0 : Math.max(0, completion + 1 - arrival[j]);
+			listed[j]= true;
+			free[k]= completion + 1;
+			best= Math.min(best, cost + listOptimum(release, process, arrival, tardiness, listed, free, left - 1));
+			free[k]= before;
+			listed[j]= false;
+		}
+		return best;
+	}
+
+	/** Return the greatest total satisfaction of any assignment of the given instance whose <br>
+	 * tardiness (the sum if sum, else the maximum) given the schedule is at most the given bound, <br>
+	 * by enumerating every assignment, or -1 if there is none */
+	private static double bruteSatisfaction(Instance instance, Schedule schedule, boolean sum, int bound) {
+		return bruteSatisfaction(instance, schedule, sum, bound, 0, new boolean[instance.rooms().size()], 0);
+	}
+
+	/** Return the greatest satisfaction of assigning the guests from the given index on to the <br>
+	 * unused rooms within the bound, given the tardiness of the guests before it */
+	private static double bruteSatisfaction(Instance instance, Schedule schedule, boolean sum, int bound, int g,
+		boolean[] used, int tardiness) {
+		if (tardiness > bound) return -1;
+		if (g == instance.guests().size()) return 0;
+		Guest guest= instance.guests().get(g);
+		double best= -1;
+		for (int j= 0; j < used.length; j++ ) {
+			Room room= instance.rooms().get(j);
+			if (used[j] || room.type() < guest.type()) continue;
+			int late= Math.max(0, schedule.completion(room) + 1 - guest.arrival());
+			used[j]= true;
+			double rest= bruteSatisfaction(instance, schedule, sum, bound, g + 1, used,
+				sum ? tardiness + late : Math.max(tardiness, late));
+			used[j]= false;
+			if (rest >= 0) best= Math.max(best, rest + instance.weight(guest, room));
+		}
+		return best;
+	}
+
+	/** Return the total satisfaction of the given assignment */
+	private static double satisfaction(Instance instance, Assignment assignment) {
+		double total= 0;
+		for (Guest guest : instance.guests()) {
+			total+= instance.weight(guest, assignment.assignment().get(guest));
+		}
+		return total;
+	}
+
+	/** Return the schedule of NeededFirst (or NeededFirstNoWait if noWait) as first implemented, <br>
+	 * with the needed room types kept in lists, to check the implementation with counts */
+	private static Schedule neededFirstByLists(Instance instance, boolean noWait) {
+		Schedule schedule= new Schedule(instance);
+		ArrayList<Room> rooms= instance.rooms();
+		ArrayList<Integer> typeMultiset= new ArrayList<>();
+		for (Room room : rooms) {
+			typeMultiset.add(room.type());
+		}
+		ArrayList<Integer> minSet= new ArrayList<>();
+		for (Guest guest : instance.guests()) {
+			int request= guest.type();
+			while (!typeMultiset.contains(request)) {
+				request++ ;
+			}
+			typeMultiset.remove((Integer) request);
+			minSet.add(request);
+		}
+
+		LinkedList<Room> postponeQueue= new LinkedList<>();
+		PriorityQueue<Housekeeper> housekeepers= new PriorityQueue<>(Comparator.comparingInt(Housekeeper::getMakespan));
+		housekeepers.addAll(schedule.getHousekeepers());
+		Collections.sort(rooms, Comparator.comparingInt(Room::release));
+		for (Room room : rooms) {
+			int type= room.type();
+			if (noWait && housekeepers.peek().getMakespan() <= room.release()) {
+				Housekeeper housekeeper= housekeepers.poll();
+				schedule.append(housekeeper, room);
+				minSet.remove((Integer) type);
+				housekeepers.add(housekeeper);
+			} else if (minSet.contains(type)) {
+				Housekeeper housekeeper= housekeepers.poll();
+				schedule.append(housekeeper, room);
+				minSet.remove((Integer) type);
+				housekeepers.add(housekeeper);
+			} else {
+				postponeQueue.add(room);
+			}
+		}
+		for (Room room : postponeQueue) {
+			Housekeeper housekeeper= housekeepers.poll();
+			schedule.append(housekeeper, room);
+			housekeepers.add(housekeeper);
+		}
+		return schedule;
+	}
+
+	@Test
+	void testDispatch() throws Exception {
+
+		assertThrows(IllegalArgumentException.class, () -> { new Dispatch(null); });
+		Dispatch erd= new Dispatch(new DispatchRule.ERD());
+		assertThrows(IllegalArgumentException.class, () -> { erd.solve(null); });
+
+		// ERD dispatches rooms as FirstAvailable does
+		Schedule schedule= erd.solve(test[0]);
+		assertEquals(6, schedule.completionStats().getMax());
+		assertEquals(26, schedule.completionStats().getSum());
+		int[] availibilities= { 0, 0, 0, 0, 2, 3, 5, 6 };
+		assertEquals(true, Arrays.equals(availibilities, schedule.getRoomsAvailable()));
+		assertEquals("Dispatch (ERD)", erd.toString());
+
+		// One housekeeper and three rooms released together; only room 2 is needed (by time 4)
+		Hotel.Builder hbuilder= new Hotel.Builder();
+		Room room1= new Room(1, 1, 1, 0, 3);
+		Room room2= new Room(2, 2, 1, 0, 1);
+		Room room3= new Room(3, 1, 1, 0, 2);
+		hbuilder.addRoom(room1);
+		hbuilder.addRoom(room2);
+		hbuilder.addRoom(room3);
+		hbuilder.setH(1);
+		Instance.Builder builder= new Instance.Builder(hbuilder.build());
+		builder.addGuest(new Guest(1, 2, 4));
+		Instance instance= builder.build();
+
+		assertEquals(13, erd.solve(instance).completionStats().getSum());
+		Dispatch spt= new Dispatch(new DispatchRule.SPT());
+		assertEquals(10, spt.solve(instance).completionStats().getSum());
+		assertEquals("Dispatch (SPT)", spt.toString());
+		Dispatch lpt= new Dispatch(new DispatchRule.LPT());
+		assertEquals(14, lpt.solve(instance).completionStats().getSum());
+		assertEquals("Dispatch (LPT)", lpt.toString());
+		Dispatch edd= new Dispatch(new DispatchRule.EDD());
+		schedule= edd.solve(instance);
+		assertEquals(11, schedule.completionStats().getSum());
+		assertEquals(1, schedule.completion(room2));
+		assertEquals("Dispatch (EDD)", edd.toString());
+		Dispatch needed= new Dispatch(new DispatchRule.Needed());
+		schedule= needed.solve(instance);
+		assertEquals(11, schedule.completionStats().getSum());
+		assertEquals(1, schedule.completion(room2));
+		assertEquals("Dispatch (Needed First)", needed.toString());
+
+		FirstAvailable compare= new FirstAvailable();
+		for (int i= 0; i < t; i++ ) {
+			instance= InstanceFactory.randInstance(n);
+			schedule= erd.solve(instance);
+			assertEquals(true, schedule.isValid());
+			assertEquals(compare.solve(instance).completionStats().getSum(), schedule.completionStats().getSum());
+		}
+
+		// Concurrent dispatches sharing a rule match dispatches one at a time
+		ArrayList<Instance> instances= new ArrayList<>();
+		ArrayList<Callable<Double>> tasks= new ArrayList<>();
+		for (int i= 0; i < 8 * t; i++ ) {
+			Instance random= InstanceFactory.randInstance(10 * n);
+			instances.add(random);
+			tasks.add(() -> edd.solve(random).completionStats().getSum());
+		}
+		ExecutorService executor= Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Double>> sums= executor.invokeAll(tasks);
+			for (int i= 0; i < instances.size(); i++ ) {
+				assertEquals(edd.solve(instances.get(i)).completionStats().getSum(), sums.get(i).get(), 1e-9);
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+	}
+
+	@Test
+	void testATCDispatch() {
+
+		assertThrows(IllegalArgumentException.class, () -> { new DispatchRule.ATC(0); });
+		assertThrows(IllegalArgumentException.class, () -> { new ATCDispatch(null); });
+		assertThrows(IllegalArgumentException.class, () -> { new ATCDispatch(new double[0]); });
+		assertThrows(IllegalArgumentException.class, () -> { new ATCDispatch(new double[] { 1, -1 }); });
+		ATCDispatch solver= new ATCDispatch();
+		assertThrows(IllegalArgumentException.class, () -> { solver.solve(null); });
+		assertEquals("ATC Dispatch", solver.toString());
+		assertEquals("Dispatch (ATC 0.5)", new Dispatch(new DispatchRule.ATC(0.5)).toString());
+
+		// One housekeeper and three rooms released together; only room 2 is needed (by time 4)
+		Hotel.Builder hbuilder= new Hotel.Builder();
+		Room room1= new Room(1, 1, 1, 0, 3);
+		Room room2= new Room(2, 2, 1, 0, 1);
+		Room room3= new Room(3, 1, 1, 0, 2);
+		hbuilder.addRoom(room1);
+		hbuilder.addRoom(room2);
+		hbuilder.addRoom(room3);
+		hbuilder.setH(1);
+		Instance.Builder builder= new Instance.Builder(hbuilder.build());
+		builder.addGuest(new Guest(1, 2, 4));
+		Instance instance= builder.build();
+
+		Schedule schedule= solver.solve(instance);
+		assertEquals(1, schedule.completion(room2));
+		assertEquals(11, schedule.completionStats().getSum());
+
+		for (int i= 0; i < t; i++ ) {
+			instance= InstanceFactory.randInstance(n);
+			assertEquals(true, solver.solve(instance).isValid());
+		}
+
+	}
+
+	@Test
+	void testScheduleBranchAndBound() throws Exception {
+
+		assertThrows(IllegalArgumentException.class, () -> { new ScheduleBranchAndBound(null); });
+		assertThrows(IllegalArgumentException.class, () -> { new ScheduleBranchAndBound("Foo"); });
+		assertThrows(IllegalArgumentException.class, () -> { new ScheduleBranchAndBound("Makespan", 0); });
+		ScheduleBranchAndBound solver= new ScheduleBranchAndBound("Makespan");
+		assertThrows(IllegalArgumentException.class, () -> { solver.solve(null); });
+
+		ScheduleBranchAndBound.Search search= solver.search(test[0], null);
+		Schedule schedule= search.schedule();
+		assertEquals(true, schedule.isValid());
+		assertEquals(true, search.optimal());
+		assertEquals(true, search.nodes() >= 0);
+		assertEquals(true, schedule.completionStats().getMax() <= 6);
+		assertEquals(search.value(), (int) schedule.completionStats().getMax());
+		assertEquals(schedule.completionStats().getMax(), solver.solve(test[0]).completionStats().getMax());
+		assertEquals("Makespan Branch and Bound", solver.toString());
+
+		// One housekeeper and three rooms released together; only room 2 has a deadline (time 4)
+		Hotel.Builder hbuilder= new Hotel.Builder();
+		Room room1= new Room(1, 1, 1, 0, 3);
+		Room room2= new Room(2, 2, 1, 0, 1);
+		Room room3= new Room(3, 1, 1, 0, 2);
+		hbuilder.addRoom(room1);
+		hbuilder.addRoom(room2);
+		hbuilder.addRoom(room3);
+		hbuilder.setH(1);
+		Instance.Builder builder= new Instance.Builder(hbuilder.build());
+		Guest guest= new Guest(1, 2, 4);
+		builder.addGuest(guest);
+		Instance instance= builder.build();
+
+		assertEquals(6, solver.solve(instance).completionStats().getMax());
+		Assignment assignment= new Assignment(instance);
+		assignment.assign(guest, room2);
+		ScheduleBranchAndBound tardiness= new ScheduleBranchAndBound("Max_Tardiness");
+		search= tardiness.search(instance, assignment);
+		schedule= search.schedule();
+		assertEquals(true, schedule.isValid());
+		assertEquals(0, search.value());
+		assertEquals(true, schedule.completion(room2) <= 3);
+		assertEquals("Max_Tardiness Branch and Bound", tardiness.toString());
+
+		FirstAvailable compare= new FirstAvailable();
+		for (int i= 0; i < t; i++ ) {
+			instance= InstanceFactory.randInstance(n);
+			schedule= solver.solve(instance);
+			assertEquals(true, schedule.isValid());
+			assertEquals(true, schedule.completionStats().getMax() <= compare.solve(instance).completionStats().getMax());
+		}
+
+		// One solver may be shared by several threads
+		ScheduleBranchAndBound shared= new ScheduleBranchAndBound("Makespan", 10_000);
+		ArrayList<Instance> instances= new ArrayList<>();
+		ArrayList<Callable<Integer>> tasks= new ArrayList<>();
+		for (int i= 0; i < 4 * t; i++ ) {
+			Instance random= InstanceFactory.randInstance(n);
+			instances.add(random);
+			tasks.add(() -> shared.search(random, null).value());
+		}
+		ExecutorService executor= Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Integer>> values= executor.invokeAll(tasks);
+			for (int i= 0; i < instances.size(); i++ ) {
+				assertEquals(shared.search(instances.get(i), null).value(), (int) values.get(i).get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+	}
+
+	@Test
+	void testScheduleLocalSearch() {
+
+		assertThrows(IllegalArgumentException.class, () -> { new ScheduleLocalSearch(null); });
+		assertThrows(IllegalArgumentException.class, () -> { new ScheduleLocalSearch("Max_Tardiness"); });
+		assertThrows(IllegalArgumentException.class, () -> { new ScheduleLocalSearch(null, "Makespan", 10, 1); });
+		assertThrows(IllegalArgumentException.class, () -> {
+			new ScheduleLocalSearch(new FirstAvailable(), "Makespan", 0, 1);
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			new ScheduleLocalSearch(new FirstAvailable(), "Makespan", 10, 0);
+		});
+		ScheduleLocalSearch solver= new ScheduleLocalSearch(new FirstAvailable(), "Sum_Completion_Time", 20, 2);
+		assertThrows(IllegalArgumentException.class, () -> { solver.solve(null); });
+		assertEquals("Sum_Completion_Time Local Search", solver.toString());
+
+		// The local search never does worse than the schedule it starts from
+		FirstAvailable compare= new FirstAvailable();
+		ScheduleLocalSearch makespan= new ScheduleLocalSearch(compare, "Makespan", 20, 2);
+		ScheduleLocalSearch tardiness= new ScheduleLocalSearch(compare, "Sum_Tardiness", 20, 2);
+		for (int i= 0; i < t; i++ ) {
+			Instance instance= InstanceFactory.randInstance(n);
+			Schedule initial= compare.solve(instance);
+			Schedule schedule= solver.solve(instance);
+			assertEquals(true, schedule.isValid());
+			assertEquals(true, schedule.completionStats().getSum() <= initial.completionStats().getSum());
+			schedule= makespan.solve(instance);
+			assertEquals(true, schedule.isValid());
+			assertEquals(true, schedule.completionStats().getMax() <= initial.completionStats().getMax());
+			schedule= tardiness.solve(instance, new BestFirst().solve(instance));
+			assertEquals(true, schedule.isValid());
+		}
+
+		// The sums maintained under the deltas of the moves are those of the schedule returned
+		for (int i= 0; i < t; i++ ) {
+			Instance instance= InstanceFactory.randInstance(10 * n);
+			Assignment assignment= new BestFirst().solve(instance);
+			for (ScheduleLocalSearch search : new ScheduleLocalSearch[] { solver, makespan, tardiness }) {
+				ScheduleLocalSearch.Anneal anneal= search.anneal(instance, assignment);
+				long sumC= 0;
+				long sumT= 0;
+				for (Room room : instance.rooms()) {
+					int completion= anneal.schedule().completion(room);
+					Guest guest= assignment.assignment().getKey(room);
+					sumC+= completion;
+					if (guest != null) sumT+= Math.max(0, completion + 1 - guest.arrival());
+				}
+				assertEquals(sumC, anneal.sumCompletionTime());
+				assertEquals(sumT, anneal.sumTardiness());
+			}
+		}
+
+	}
+
+	@Test
+	void testScheduleLNS() {
+
+		assertThrows(IllegalArgumentException.class, () -> { new ScheduleLNS(null); });
+		assertThrows(IllegalArgumentException.class, () -> { new ScheduleLNS("Sum_Completion_Time"); });
+		assertThrows(IllegalArgumentException.class, () -> { new ScheduleLNS(null, "Makespan", 10, 1); });
+		assertThrows(IllegalArgumentException.class, () -> {
+			new ScheduleLNS(new FirstAvailable(), "Makespan", 0, 1);
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			new ScheduleLNS(new FirstAvailable(), "Makespan", 10, 0);
+		});
+		ScheduleLNS solver= new ScheduleLNS(new FirstAvailable(), "Makespan", 20, 12);
+		assertThrows(IllegalArgumentException.class, () -> { solver.solve(null); });
+		assertEquals("Makespan LNS", solver.toString());
+
+		// The search never does worse than the schedule it starts from
+		FirstAvailable compare= new FirstAvailable();
+		ScheduleLNS tardiness= new ScheduleLNS(compare, "Max_Tardiness", 20, 12);
+		for (int i= 0; i < t; i++ ) {
+			Instance instance= InstanceFactory.randInstance(n);
+			Schedule initial= compare.solve(instance);
+			Schedule schedule= solver.solve(instance);
+			assertEquals(true, schedule.isValid());
+			assertEquals(true, schedule.makespan() <= initial.makespan());
+			Assignment assignment= new BestFirst().solve(instance);
+			schedule= tardiness.solve(instance, assignment);
+			assertEquals(true, schedule.isValid());
+			int before= 0;
+			int after= 0;
+			for (Room room : instance.rooms()) {
+				Guest guest= assignment.assignment().getKey(room);
+				if (guest == null) continue;
+				before= Math.max(before, initial.tardinessOf(guest, room));
+				after= Math.max(after, schedule.tardinessOf(guest, room));
+			}
+			assertEquals(true, after <= before);
+		}
+
+	}
+
+	@Test
+	void testScheduleLagrangian() {
+
+		assertThrows(IllegalArgumentException.class, () -> { new ScheduleLagrangian(null); });
+		assertThrows(IllegalArgumentException.class, () -> { new ScheduleLagrangian("Makespan"); });
+		assertThrows(IllegalArgumentException.class, () -> { new ScheduleLagrangian("Sum_Tardiness", 0); });
+		ScheduleLagrangian solver= new ScheduleLagrangian("Sum_Completion_Time", 50);
+		assertThrows(IllegalArgumentException.class, () -> { solver.solve(null); });
+		assertEquals("Sum_Completion_Time Lagrangian", solver.toString());
+
+		// The optimal sum of completion times of test[5] is 29
+		ScheduleLagrangian.Relaxation relaxation= solver.relax(test[5], null);
+		assertEquals(true, relaxation.lowerBound() <= 29 && 29 <= relaxation.value());
+
+		// The bound never exceeds the optimum, found by enumerating list schedules
+		ScheduleLagrangian tardiness= new ScheduleLagrangian("Sum_Tardiness", 50);
+		for (int i= 0; i < t; i++ ) {
+			Instance instance= InstanceFactory.randInstance(n);
+			relaxation= solver.relax(instance, null);
+			Schedule schedule= relaxation.schedule();
+			assertEquals(true, schedule.isValid());
+			int optimum= listOptimum(instance, null);
+			assertEquals(true, relaxation.lowerBound() <= optimum && optimum <= relaxation.value());
+			assertEquals(relaxation.value(), (int) schedule.completionStats().getSum());
+			Assignment assignment= new BestFirst().solve(instance);
+			relaxation= tardiness.relax(instance, assignment);
+			assertEquals(true, relaxation.schedule().isValid());
+			optimum= listOptimum(instance, assignment);
+			assertEquals(true, 0 <= relaxation.lowerBound() && relaxation.lowerBound() <= optimum);
+			assertEquals(true, optimum <= relaxation.value());
+		}
+
+	}
+
+	@Test
+	void testCoarseToFine() {
+
+		assertThrows(IllegalArgumentException.class, () -> { new CoarseToFine(null, 3); });
+		assertThrows(IllegalArgumentException.class, () -> { new CoarseToFine("Max_Tardiness", 3); });
+		assertThrows(IllegalArgumentException.class, () -> { new CoarseToFine("Makespan", 0); });
+		assertThrows(IllegalArgumentException.class, () -> { new CoarseToFine("Makespan", 3, null); });
+		assertThrows(IllegalArgumentException.class, () -> { CoarseToFine.coarsen(null, 3); });
+		CoarseToFine solver= new CoarseToFine("Makespan", 3, new ScheduleBranchAndBound("Makespan", 10_000));
+		assertThrows(IllegalArgumentException.class, () -> { solver.solve(null); });
+		assertEquals("Makespan Coarse-to-Fine (3)", solver.toString());
+
+		// Release times are rounded down and cleaning times to the nearest interval (at least one)
+		Instance instance= InstanceFactory.randInstance(n);
+		Instance coarse= CoarseToFine.coarsen(instance, 3);
+		for (Room room : instance.rooms()) {
+			Room coarseRoom= coarse.room(room.num());
+			assertEquals(room.release() / 3, coarseRoom.release());
+			assertEquals(Math.max(1, (room.process() + 1) / 3), coarseRoom.process());
+		}
+		assertEquals(instance.guests().size(), coarse.guests().size());
+
+		// On the same grid, refining never does worse than the schedule it keeps the sequences of
+		ScheduleBranchAndBound exact= new ScheduleBranchAndBound("Makespan", 10_000);
+		CoarseToFine same= new CoarseToFine("Makespan", 1, exact);
+		CoarseToFine sum= new CoarseToFine("Sum_Completion_Time", 2, new FirstAvailable());
+		for (int i= 0; i < t; i++ ) {
+			instance= InstanceFactory.randInstance(n);
+			CoarseToFine.Refinement refinement= same.refine(instance);
+			Schedule schedule= refinement.schedule();
+			assertEquals(true, schedule.isValid());
+			assertEquals(true, refinement.value() <= exact.search(instance, null).value());
+			assertEquals(refinement.value(), schedule.makespan());
+			assertEquals(true, refinement.value() <= refinement.coarseValue());
+			refinement= solver.refine(instance);
+			schedule= refinement.schedule();
+			assertEquals(true, schedule.isValid());
+			assertEquals(refinement.value(), schedule.makespan());
+			assertEquals(refinement.gap(),
+				(double) (refinement.value() - refinement.coarseValue()) / refinement.coarseValue(), 1e-9);
+			refinement= sum.refine(instance);
+			schedule= refinement.schedule();
+			assertEquals(true, schedule.isValid());
+			assertEquals(refinement.value(), (int) schedule.completionStats().getSum());
+		}
+
 	}
 
 	@Test
@@ -1346,6 +2319,16 @@ public class Tester {
 		assertEquals(true, 7 <= schedule.completionStats().getMax());
 		assertEquals(29, schedule.completionStats().getSum());
 		assertEquals("Sum_Completion_Time", solver.toString());
+		assertThrows(IllegalArgumentException.class, () -> { new ScheduleIPSolver(null, true); });
+		assertEquals("Sum_Completion_Time (Aggregated)", new ScheduleIPSolver("Sum_Completion_Time", true).toString());
+		assertThrows(IllegalArgumentException.class, () -> { new ScheduleIPSolver("Makespan", "notAModel"); });
+
+		// The sequence-based model has the same optimum
+		ScheduleIPSolver disjunctive= new ScheduleIPSolver("Sum_Completion_Time", "scheduleDisjunctive");
+		schedule= disjunctive.solve(instance);
+		assertEquals(true, schedule.isValid());
+		assertEquals(29, schedule.completionStats().getSum());
+		assertEquals("Sum_Completion_Time (Disjunctive)", disjunctive.toString());
 
 		for (int i= 0; i < t; i++ ) {
 			Instance inst= InstanceFactory.randInstance(n);
@@ -1426,6 +2409,422 @@ public class Tester {
 
 	}
 
+	@Test
+	void testReadinessMatching() {
+
+		assertThrows(IllegalArgumentException.class, () -> { new ReadinessMatching(null); });
+		assertThrows(IllegalArgumentException.class, () -> { new ReadinessMatching(new FirstAvailable(), -1, false); });
+		ReadinessMatching solver= new ReadinessMatching(new FirstAvailable());
+		assertThrows(IllegalArgumentException.class, () -> { solver.solve(null); });
+		assertEquals("Readiness Matching (0.0)", solver.toString());
+		ReadinessMatching bottleneck= new ReadinessMatching(new FirstAvailable(), 0, true);
+		assertEquals("Readiness Matching (0.0, Bottleneck)", bottleneck.toString());
+
+		// For the same schedule, the matching never does worse than assigning guests as they arrive
+		FirstRoom compare= new FirstRoom(new FirstAvailable());
+		ReadinessMatching satisfied= new ReadinessMatching(new FirstAvailable(), 100, false);
+		for (int i= 0; i < t; i++ ) {
+			Instance instance= InstanceFactory.randInstance(n);
+			Solution firstRoom= compare.solve(instance);
+			Solution solution= solver.solve(instance);
+			assertEquals(true, solution.tardinessStats().getSum() <= firstRoom.tardinessStats().getSum());
+			for (Guest guest : instance.guests()) {
+				assertEquals(true, solution.assignment().assignment().get(guest).type() >= guest.type());
+			}
+			Solution minMax= bottleneck.solve(instance);
+			assertEquals(true, minMax.tardinessStats().getMax() <= solution.tardinessStats().getMax());
+			assertEquals(true, minMax.tardinessStats().getMax() <= firstRoom.tardinessStats().getMax());
+			Solution happy= satisfied.solve(instance);
+			assertEquals(true, happy.assignment().satisfactionStats().getSum() >= solution.assignment()
+				.satisfactionStats().getSum() - 1e-9);
+		}
+
+	}
+
+	@Test
+	void testIteratedDecomposition() {
+
+		assertThrows(IllegalArgumentException.class, () -> { new IteratedDecomposition(null); });
+		assertThrows(IllegalArgumentException.class, () -> { new IteratedDecomposition("Max_Tardiness"); });
+		assertThrows(IllegalArgumentException.class, () -> {
+			new IteratedDecomposition(null, "Sum_Tardiness", 10, 5);
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			new IteratedDecomposition(new ATCDispatch(), "Sum_Tardiness", 0, 5);
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			new IteratedDecomposition(new ATCDispatch(), "Sum_Tardiness", 10, 0);
+		});
+		IteratedDecomposition solver= new IteratedDecomposition(new ATCDispatch(), "Sum_Tardiness", 10, 5);
+		assertThrows(IllegalArgumentException.class, () -> { solver.solve(null); });
+		assertEquals("Sum_Tardiness Iterated Decomposition", solver.toString());
+
+		// The first assignment is optimal for the initial schedule, and no round does worse
+		IteratedDecomposition joint= new IteratedDecomposition(new ATCDispatch(), "Mean_Satisfaction_And_Sum_Tardiness",
+			10, 5);
+		for (int i= 0; i < t; i++ ) {
+			Instance instance= InstanceFactory.randInstance(n);
+			IteratedDecomposition.Decomposition decomposition= solver.decompose(instance);
+			Solution solution= decomposition.solution();
+			assertEquals(true, solution.schedule().isValid());
+			assertEquals(true, 1 <= decomposition.rounds() && decomposition.rounds() <= 5);
+			for (Guest guest : instance.guests()) {
+				assertEquals(true, solution.assignment().assignment().get(guest).type() >= guest.type());
+			}
+			Solution compare= new Solution(instance, new ATCDispatch().solve(instance), new BestFirst().solve(instance));
+			assertEquals(true, solution.tardinessStats().getSum() <= compare.tardinessStats().getSum());
+			solution= joint.solve(instance);
+			assertEquals(true, solution.schedule().isValid());
+		}
+
+		// With a housekeeper for every room, the schedule cannot change, so the second round
+		// meets the completion times and deadlines of the first, reuses both and stops
+		Hotel.Builder hbuilder= new Hotel.Builder();
+		Room room1= new Room(1, 1, 1, 0, 2);
+		Room room2= new Room(2, 1, 1, 1, 3);
+		Room room3= new Room(3, 2, 1, 0, 1);
+		hbuilder.addRoom(room1);
+		hbuilder.addRoom(room2);
+		hbuilder.addRoom(room3);
+		hbuilder.setH(3);
+		Instance.Builder builder= new Instance.Builder(hbuilder.build());
+		builder.addGuest(new Guest(1, 1, 3));
+		builder.addGuest(new Guest(2, 2, 2));
+		Instance instance= builder.build();
+		IteratedDecomposition cycling= new IteratedDecomposition(new FirstAvailable(), "Sum_Tardiness", 10, 5);
+		IteratedDecomposition.Decomposition decomposition= cycling.decompose(instance);
+		Solution solution= decomposition.solution();
+		assertEquals(2, decomposition.rounds());
+		assertEquals(2, decomposition.repeats());
+
+		// The reused subproblems are those solved afresh by a single round
+		IteratedDecomposition once= new IteratedDecomposition(new FirstAvailable(), "Sum_Tardiness", 10, 1);
+		decomposition= once.decompose(instance);
+		Solution fresh= decomposition.solution();
+		assertEquals(1, decomposition.rounds());
+		assertEquals(0, decomposition.repeats());
+		for (Room room : instance.rooms()) {
+			assertEquals(fresh.schedule().completion(room), solution.schedule().completion(room));
+		}
+		for (Guest guest : instance.guests()) {
+			assertEquals(fresh.assignment().assignment().get(guest), solution.assignment().assignment().get(guest));
+		}
+
+	}
+
+	@Test
+	void testParetoExplorer() throws Exception {
+
+		assertThrows(IllegalArgumentException.class, () -> { new ParetoExplorer(null); });
+		assertThrows(IllegalArgumentException.class, () -> { new ParetoExplorer("Makespan"); });
+		assertThrows(IllegalArgumentException.class, () -> {
+			new ParetoExplorer(new FirstAvailable(), "Sum_Tardiness", 1, 10);
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			new ParetoExplorer(new FirstAvailable(), "Sum_Tardiness", 5, 0);
+		});
+		ParetoExplorer sum= new ParetoExplorer(new FirstAvailable(), "Sum_Tardiness", 5, 10);
+		assertThrows(IllegalArgumentException.class, () -> { sum.explore(null); });
+		assertEquals("Mean_Satisfaction / Sum_Tardiness Pareto Explorer", sum.toString());
+		ParetoExplorer max= new ParetoExplorer(new FirstAvailable(), "Max_Tardiness", 5, 10);
+
+		// Along the frontier both tardiness and satisfaction increase
+		ReadinessMatching bottleneck= new ReadinessMatching(new FirstAvailable(), 0, true);
+		for (int i= 0; i < t; i++ ) {
+			Instance instance= InstanceFactory.randInstance(n);
+			Solution tightest= null;
+			for (ParetoExplorer explorer : new ParetoExplorer[] { sum, max }) {
+				ParetoExplorer.Frontier explored= explorer.explore(instance);
+				ArrayList<Solution> frontier= explored.solutions();
+				assertEquals(true, frontier.size() >= 1);
+				assertEquals(frontier.size(), explored.epsilons().size());
+				for (int k= 0; k < frontier.size(); k++ ) {
+					Solution solution= frontier.get(k);
+					assertEquals(true, solution.schedule().isValid());
+					double tardiness= explorer == sum ? solution.tardinessStats().getSum() :
+						solution.tardinessStats().getMax();
+					assertEquals(true, tardiness <= explored.epsilons().get(k));
+					for (Guest guest : instance.guests()) {
+						assertEquals(true, solution.assignment().assignment().get(guest).type() >= guest.type());
+					}
+					if (k == 0) continue;
+					Solution previous= frontier.get(k - 1);
+					assertEquals(true, solution.assignment().satisfactionStats().getMean() > previous.assignment()
+						.satisfactionStats().getMean());
+				}
+				tightest= frontier.get(0);
+			}
+			assertEquals(true, tightest.tardinessStats().getMax() <= bottleneck.solve(instance).tardinessStats().getMax());
+		}
+
+		// No satisfaction is traded for tardiness, however small the loss: with one housekeeper
+		// per room the schedule is fixed, and the maximum satisfaction (1.52) is one unit of
+		// tardiness worse than the next best (1.515)
+		Hotel.Builder hbuilder= new Hotel.Builder();
+		hbuilder.addRoom(new Room(1, 1, 1, 0, 5));
+		hbuilder.addRoom(new Room(2, 1, 1, 0, 1));
+		hbuilder.addRoom(new Room(3, 1, 1, 2, 2));
+		hbuilder.setH(3);
+		Instance.Builder builder= new Instance.Builder(hbuilder.build());
+		double[][] weights= { { 0.5, 0.7, 0.6 }, { 0.52, 0.4, 0.45 }, { 0.365, 0.31, 0.3 } };
+		int[] arrival= { 2, 3, 6 };
+		for (int g= 0; g < 3; g++ ) {
+			builder.addGuest(new Guest(g + 1, 1, arrival[g]));
+		}
+		for (int g= 0; g < 3; g++ ) {
+			for (int r= 0; r < 3; r++ ) {
+				builder.addWeight(builder.guest(g + 1), builder.room(r + 1), weights[g][r]);
+			}
+		}
+		Instance tiny= builder.build();
+		for (ParetoExplorer explorer : new ParetoExplorer[] { sum, max }) {
+			ArrayList<Solution> frontier= explorer.explore(tiny).solutions();
+			Solution last= frontier.get(frontier.size() - 1);
+			assertEquals(5, last.schedule().completion(tiny.room(1)));
+			assertEquals(1.52, satisfaction(tiny, last.assignment()), 1e-9);
+			assertEquals(3, (int) last.tardinessStats().getSum());
+			assertEquals(tiny.room(1), last.assignment().assignment().get(tiny.guest(2)));
+		}
+
+		// Both frontiers of the tiny instance are exact: (2, 1.515) and (3, 1.52)
+		for (ParetoExplorer explorer : new ParetoExplorer[] { sum, max }) {
+			boolean isSum= explorer == sum;
+			ArrayList<Solution> frontier= explorer.explore(tiny).solutions();
+			assertEquals(2, frontier.size());
+			for (Solution solution : frontier) {
+				int tardiness= (int) (isSum ? solution.tardinessStats().getSum() : solution.tardinessStats().getMax());
+				assertEquals(bruteSatisfaction(tiny, solution.schedule(), isSum, tardiness),
+					satisfaction(tiny, solution.assignment()), 1e-9);
+			}
+		}
+
+		// Every point of the maximum tardiness frontier is the most satisfying assignment of its
+		// schedule within its maximum tardiness
+		for (int i= 0; i < t; i++ ) {
+			Instance instance= InstanceFactory.randInstance(n);
+			for (Solution solution : max.explore(instance).solutions()) {
+				int tardiness= (int) solution.tardinessStats().getMax();
+				assertEquals(bruteSatisfaction(instance, solution.schedule(), false, tardiness),
+					satisfaction(instance, solution.assignment()), 1e-9);
+			}
+		}
+
+		ParetoExplorer.Frontier frontier= max.explore(tiny);
+		frontier.writeCSV(testingDir, "testParetoExplorer");
+		assertEquals(frontier.solutions().size() + 1, Files.readAllLines(testingDir.resolve("testParetoExplorer.csv")).size());
+
+	}
+
+	@Test
+	void testRollingHorizon() {
+
+		ReadinessMatching solver= new ReadinessMatching(new FirstAvailable());
+		assertThrows(IllegalArgumentException.class, () -> { new RollingHorizon(null); });
+		assertThrows(IllegalArgumentException.class, () -> { new RollingHorizon(solver, 0, 1, 100); });
+		assertThrows(IllegalArgumentException.class, () -> { new RollingHorizon(solver, 2, 3, 100); });
+		assertThrows(IllegalArgumentException.class, () -> { new RollingHorizon(solver, 2, 1, 0); });
+		RollingHorizon rolling= new RollingHorizon(solver, 2, 1, 100);
+		assertThrows(IllegalArgumentException.class, () -> { rolling.solve(null); });
+		assertThrows(IllegalArgumentException.class, () -> { rolling.solve(new ArrayList<>()); });
+		assertEquals("Readiness Matching (0.0) (Rolling Horizon 2/1)", rolling.toString());
+
+		// Days are short, so cleaning runs into the next day and must not overlap it
+		Hotel hotel= HotelFactory.randHotel(10);
+		ArrayList<Instance> days= new ArrayList<>();
+		for (int i= 0; i < t; i++ ) {
+			days.add(InstanceFactory.randInstance(hotel));
+		}
+		for (RollingHorizon driver : new RollingHorizon[] { rolling, new RollingHorizon(solver, 3, 2, 100) }) {
+			ArrayList<Solution> season= driver.solve(days);
+			assertEquals(days.size(), season.size());
+			ArrayList<ArrayList<int[]>> busy= new ArrayList<>();
+			for (int k= 0; k < hotel.getH(); k++ ) {
+				busy.add(new ArrayList<>());
+			}
+			for (int d= 0; d < season.size(); d++ ) {
+				Schedule schedule= season.get(d).schedule();
+				Assignment assignment= season.get(d).assignment();
+				assertEquals(true, schedule.isValid());
+				for (Guest guest : days.get(d).guests()) {
+					assertEquals(true, assignment.assignment().get(guest).type() >= guest.type());
+				}
+				for (int k= 0; k < hotel.getH(); k++ ) {
+					Housekeeper housekeeper= schedule.getHousekeepers().get(k);
+					for (Room room : housekeeper.getSchedule()) {
+						int start= housekeeper.getStartTime(room) + d * 100;
+						busy.get(k).add(new int[] { start, start + room.process() - 1 });
+					}
+				}
+			}
+			for (ArrayList<int[]> intervals : busy) {
+				intervals.sort((a, b) -> a[0] - b[0]);
+				for (int k= 1; k < intervals.size(); k++ ) {
+					assertEquals(true, intervals.get(k)[0] > intervals.get(k - 1)[1]);
+				}
+			}
+		}
+
+		// Every busy room (numbered up to the team size) goes to its placeholder guest and starts at 1
+		int[] pinned= { 0 };
+		Solver<Solution> window= instance -> {
+			Solution solution= solver.solve(instance);
+			for (Room room : instance.rooms()) {
+				if (room.num() > hotel.getH()) continue;
+				pinned[0]++ ;
+				assertEquals(room.process(), solution.schedule().completion(room));
+				assertEquals(room.process() + 1, solution.assignment().assignment().getKey(room).arrival());
+			}
+			return solution;
+		};
+		new RollingHorizon(window, 2, 1, 100).solve(days);
+		assertEquals(true, pinned[0] > 0);
+
+	}
+
+	@Test
+	void testMemeticSolver() throws Exception {
+
+		assertThrows(IllegalArgumentException.class, () -> { new MemeticSolver(null); });
+		assertThrows(IllegalArgumentException.class, () -> { new MemeticSolver("Makespan"); });
+		assertThrows(IllegalArgumentException.class, () -> {
+			new MemeticSolver(new FirstAvailable(), "Sum_Tardiness", 1, 100, 5);
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			new MemeticSolver(new FirstAvailable(), "Sum_Tardiness", 10, 0, 5);
+		});
+		assertThrows(IllegalArgumentException.class, () -> {
+			new MemeticSolver(new FirstAvailable(), "Sum_Tardiness", 10, 100, -1);
+		});
+		MemeticSolver solver= new MemeticSolver(new FirstAvailable(), "Sum_Tardiness", 10, 10_000, 5);
+		assertThrows(IllegalArgumentException.class, () -> { solver.solve(null); });
+		assertEquals("Sum_Tardiness Memetic", solver.toString());
+		MemeticSolver joint= new MemeticSolver(new FirstAvailable(), "Mean_Satisfaction_And_Sum_Tardiness", 10, 10_000, 5);
+
+		// The best objective value never increases and is that of the solution returned, which is
+		// no worse than the seed: the FirstAvailable sequence (dispatched to the same completion
+		// times) and its minimum cost matching
+		for (int i= 0; i < t; i++ ) {
+			Instance instance= InstanceFactory.randInstance(n);
+			for (MemeticSolver memetic : new MemeticSolver[] { solver, joint }) {
+				MemeticSolver.Evolution evolution= memetic.evolve(instance);
+				Solution solution= evolution.solution();
+				assertEquals(5, evolution.generations());
+				assertEquals(true, solution.schedule().isValid());
+				for (Guest guest : instance.guests()) {
+					assertEquals(true, solution.assignment().assignment().get(guest).type() >= guest.type());
+				}
+				ArrayList<Double> best= evolution.bestPerSecond();
+				for (int k= 1; k < best.size(); k++ ) {
+					assertEquals(true, best.get(k) <= best.get(k - 1));
+				}
+				double value= solution.tardinessStats().getSum();
+				if (memetic == joint) value-= solution.assignment().satisfactionStats().getSum();
+				assertEquals(value, best.get(best.size() - 1), 1e-6);
+				Solution seed= new ReadinessMatching(new FirstAvailable(), memetic == joint ? 1 : 0, false).solve(instance);
+				double seedValue= seed.tardinessStats().getSum();
+				if (memetic == joint) seedValue-= seed.assignment().satisfactionStats().getSum();
+				assertEquals(true, value <= seedValue + 1e-6);
+			}
+		}
+
+		// Concurrent solves on a shared solver match solves one at a time
+		ArrayList<Instance> instances= new ArrayList<>();
+		ArrayList<Callable<Double>> tasks= new ArrayList<>();
+		for (int i= 0; i < 4; i++ ) {
+			Instance random= InstanceFactory.randInstance(n);
+			instances.add(random);
+			tasks.add(() -> {
+				ArrayList<Double> best= joint.evolve(random).bestPerSecond();
+				return best.get(best.size() - 1);
+			});
+		}
+		ExecutorService executor= Executors.newFixedThreadPool(4);
+		try {
+			List<Future<Double>> values= executor.invokeAll(tasks);
+			for (int i= 0; i < instances.size(); i++ ) {
+				ArrayList<Double> best= joint.evolve(instances.get(i)).bestPerSecond();
+				assertEquals(best.get(best.size() - 1), values.get(i).get(), 1e-9);
+			}
+		} finally {
+			executor.shutdown();
+		}
+
+	}
+
+	@Test
+	void testPortfolioSolver() throws Exception {
+
+		Statistic<Schedule> makespan= new Statistic.Makespan();
+		Solver<Schedule> fast= new FirstAvailable();
+		Solver<Schedule> exact= new ScheduleBranchAndBound("Makespan", 10_000);
+		Solver<Schedule> failing= instance -> { throw new IllegalStateException("Failed"); };
+		Semaphore cancelled= new Semaphore(0);
+		Solver<Schedule> slow= instance -> {
+			try {
+				Thread.sleep(60_000);
+			} catch (InterruptedException e) {
+				cancelled.release();
+				throw new IllegalStateException("Cancelled", e);
+			}
+			return fast.solve(instance);
+		};
+
+		assertThrows(IllegalArgumentException.class, () -> { new PortfolioSolver<>(null, makespan, false, 100); });
+		assertThrows(IllegalArgumentException.class, () -> { new PortfolioSolver<>(List.of(), makespan, false, 100); });
+		assertThrows(IllegalArgumentException.class, () -> { new PortfolioSolver<>(List.of(fast), null, false, 100); });
+		assertThrows(IllegalArgumentException.class, () -> { new PortfolioSolver<>(List.of(fast), makespan, false, 0); });
+		assertThrows(IllegalArgumentException.class, () -> {
+			new PortfolioSolver<>(List.of(fast), makespan, false, 100, null);
+		});
+
+		// With a budget far beyond every solver, the best decision is returned once all have
+		// returned, skipping failures
+		List<Solver<Schedule>> solvers= List.of(fast, exact, failing);
+		PortfolioSolver<Schedule> solver= new PortfolioSolver<>(solvers, makespan, false, 600_000);
+		assertThrows(IllegalArgumentException.class, () -> { solver.solve(null); });
+		for (int i= 0; i < t; i++ ) {
+			Instance instance= InstanceFactory.randInstance(n);
+			double best= Math.min(makespan.getStat(fast.solve(instance)), makespan.getStat(exact.solve(instance)));
+			PortfolioSolver.Race<Schedule> race= solver.race(instance);
+			Schedule schedule= race.decision();
+			assertEquals(true, schedule.isValid());
+			assertEquals(best, makespan.getStat(schedule), 1e-6);
+			assertEquals(best, makespan.getStat(solvers.get(race.winner()).solve(instance)), 1e-6);
+		}
+
+		// Once the budget is spent, the solvers still running are cancelled
+		PortfolioSolver<Schedule> timed= new PortfolioSolver<>(List.of(slow, fast), makespan, false, 100);
+		long begin= System.nanoTime();
+		PortfolioSolver.Race<Schedule> race= timed.race(test[0]);
+		assertEquals(true, race.decision().isValid());
+		assertEquals(true, System.nanoTime() - begin < 30_000_000_000L);
+		assertEquals(1, race.winner());
+		assertEquals(true, cancelled.tryAcquire(30, TimeUnit.SECONDS));
+
+		// Should no solver return within the budget, the solve fails without waiting further
+		PortfolioSolver<Schedule> late= new PortfolioSolver<>(List.of(slow), makespan, false, 100);
+		begin= System.nanoTime();
+		assertThrows(IllegalStateException.class, () -> { late.solve(test[0]); });
+		assertEquals(true, System.nanoTime() - begin < 30_000_000_000L);
+		assertEquals(true, cancelled.tryAcquire(30, TimeUnit.SECONDS));
+		PortfolioSolver<Schedule> none= new PortfolioSolver<>(List.of(failing), makespan, false, 100);
+		assertThrows(IllegalStateException.class, () -> { none.solve(test[0]); });
+
+		// A given executor is left running, and its tasks still running are cancelled
+		ExecutorService executor= Executors.newFixedThreadPool(2);
+		try {
+			PortfolioSolver<Schedule> shared= new PortfolioSolver<>(List.of(slow, fast), makespan, false, 100, executor);
+			assertEquals(true, shared.solve(test[0]).isValid());
+			assertEquals(false, executor.isShutdown());
+			assertEquals(true, cancelled.tryAcquire(30, TimeUnit.SECONDS));
+			assertEquals(true, shared.solve(test[1]).isValid());
+			assertEquals(true, cancelled.tryAcquire(30, TimeUnit.SECONDS));
+		} finally {
+			executor.shutdownNow();
+		}
+
+	}
+
 	@Test
 	void testSumTardiness() {
 		assertThrows(IllegalArgumentException.class, () -> { new SolutionIPSolver(null); });
@@ -1435,6 +2834,12 @@ public class Tester {
 		Solution solution= solver.solve(instance);
 		assertEquals(19, solution.tardinessStats().getSum());
 		assertEquals("Solution (Sum_Tardiness)", solver.toString());
+
+		// The sequence-based model has the same optimum
+		SolutionIPSolver disjunctive= new SolutionIPSolver("Sum_Tardiness", true);
+		solution= disjunctive.solve(instance);
+		assertEquals(19, solution.tardinessStats().getSum());
+		assertEquals("Solution (Sum_Tardiness, Disjunctive)", disjunctive.toString());
 	}
 
 	@Test
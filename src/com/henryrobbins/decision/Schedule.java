@@ -26,7 +26,7 @@ public class Schedule implements Decision {
 	// MAINTAINS STATISTICS
 	/** Set of finishing times for every assigned room */
 	private DescriptiveStatistics completionStats= new DescriptiveStatistics();
-	/** The number of rooms available at every relevant time interval */
+	/** The number of rooms available at every relevant time interval (null if out of date) */
 	private int[] roomsAvailable;
 
 	/** Construct an empty housekeeping schedule for the instance
@@ -54,7 +54,8 @@ public class Schedule implements Decision {
 		startTimes= new HashMap<>(schedule.startTimes);
 		assign= new HashMap<>(schedule.assign);
 		completionStats= new DescriptiveStatistics(schedule.completionStats);
-		roomsAvailable= Arrays.copyOf(schedule.roomsAvailable, schedule.roomsAvailable.length);
+		roomsAvailable= schedule.roomsAvailable == null ? null :
+			Arrays.copyOf(schedule.roomsAvailable, schedule.roomsAvailable.length);
 	}
 
 	/** Return the list of housekeepers */
@@ -67,7 +68,7 @@ public class Schedule implements Decision {
 	 * @param The room whose housekeeper is in question (room must be in instance) */
 	public Housekeeper getAssignment(Room room) {
 		if (room == null) throw new IllegalArgumentException("Room is null");
-		if (!instance.rooms().contains(room)) throw new IllegalArgumentException("Room not in instance");
+		if (!room.equals(instance.room(room.num()))) throw new IllegalArgumentException("Room not in instance");
 		return assign.get(room);
 	}
 
@@ -88,12 +89,13 @@ public class Schedule implements Decision {
 
 	/** Return the number of rooms available at every relevant time interval */
 	public int[] getRoomsAvailable() {
+		if (roomsAvailable == null) calculateRoomsAvailable();
 		return roomsAvailable;
 	}
 
 	/** Return the number of rooms available at time interval t */
 	public int getRoomsAvailableAt(int t) {
-		return roomsAvailable[t];
+		return getRoomsAvailable()[t];
 	}
 
 	/** Return the lateness of the given room if assigned the given guest. Return null if <br>
@@ -118,24 +120,19 @@ public class Schedule implements Decision {
 
 	/** Calculates the number of rooms available at every relevant time interval. <br>
 	 * Relevant time intervals include all intervals leading up to and including the <br>
-	 * interval in which all rooms are cleaned and available for check in. */
+	 * interval in which all rooms are cleaned and available for check in. A room <br>
+	 * completed at time c is available from time c + 1 on, so the counts are a prefix <br>
+	 * sum over completion times. */
 	private void calculateRoomsAvailable() {
 		int[] roomsAvailable= new int[makespan() + 2];
-		for (int i= 0; i < makespan() + 2; i++ ) {
-			roomsAvailable[i]= calculateRoomsAvailableAt(i);
-		}
-		this.roomsAvailable= roomsAvailable;
-
-	}
-
-	/** Return the number of rooms available at a given time interval */
-	private int calculateRoomsAvailableAt(int t) {
-		int counter= 0;
 		for (Room room : startTimes.keySet()) {
 			Integer startTime= startTimes.get(room);
-			if (startTime != null && startTime + room.process() - 1 < t) { counter++ ; }
+			if (startTime != null) roomsAvailable[startTime + room.process()]++ ;
+		}
+		for (int t= 1; t < roomsAvailable.length; t++ ) {
+			roomsAvailable[t]+= roomsAvailable[t - 1];
 		}
-		return counter;
+		this.roomsAvailable= roomsAvailable;
 	}
 
 	/** Return a report of statistics for the current housekeeping schedule */
@@ -166,13 +163,13 @@ public class Schedule implements Decision {
 	public boolean add(Housekeeper housekeeper, Room room, int start) {
 		if (!housekeepers.contains(housekeeper))
 			throw new IllegalArgumentException("Schedule does not contain this housekeeper");
-		if (!instance.rooms().contains(room)) throw new IllegalArgumentException("Room not in instance");
+		if (!room.equals(instance.room(room.num()))) throw new IllegalArgumentException("Room not in instance");
 		if (assign.get(room) != null) return false;
 		if (housekeeper.addRoom(room, start)) {
 			assign.put(room, housekeeper);
 			startTimes.put(room, start);
 			completionStats.addValue(start + room.process() - 1);
-			calculateRoomsAvailable();
+			roomsAvailable= null;
 			return true;
 		} else {
 			return false;
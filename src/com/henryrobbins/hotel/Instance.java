@@ -118,6 +118,29 @@ public final class Instance {
 		return noSlack - 1;
 	}
 
+	/** Return the room types t at which there is no slack, i.e. the number of rooms of type t or <br>
+	 * greater equals the number of requests for type t or greater. Every such type splits the <br>
+	 * instance: guests requesting type t or greater must be assigned exactly the rooms of type t <br>
+	 * or greater. Return an empty list if currently infeasible. */
+	public ArrayList<Integer> noSlackTypes() {
+		ArrayList<Integer> noSlack= new ArrayList<>();
+		if (!feasible()) return noSlack;
+		int maxType= Collections.max(hotel.typeFreq().keySet());
+
+		// Set the number of available rooms and requests of type 1 or greater
+		int available= hotel.rooms().size();
+		int requests= guests.size();
+
+		for (int t= 1; t <= maxType; t++ ) {
+			if (available == requests) noSlack.add(t);
+			Integer avail= hotel.typeFreq().get(t);
+			Integer req= requestFrequency.get(t);
+			available-= avail == null ? 0 : avail;
+			requests-= req == null ? 0 : req;
+		}
+		return noSlack;
+	}
+
 	/** Return true if the list of rooms can accommodate all guests (where "accommodate" entails <br>
 	 * that every guest can be assigned a room type satisfying their request); false otherwise */
 	public boolean feasible() {
@@ -209,8 +232,10 @@ public final class Instance {
 		 * @param room  The room the weight is associated with (in the instance)
 		 * @param wgt   The weight to be added (represents satisfaction) in 0..1 */
 		public Builder addWeight(Guest guest, Room room, Double wgt) {
-			if (!guests.contains(guest)) throw new IllegalArgumentException("Guest not in instance");
-			if (!hotel.rooms().contains(room)) throw new IllegalArgumentException("Room not in instance");
+			if (guest == null || !guest.equals(guestMap.get(guest.id())))
+				throw new IllegalArgumentException("Guest not in instance");
+			if (room == null || !room.equals(hotel.room(room.num())))
+				throw new IllegalArgumentException("Room not in instance");
 			if (wgt < 0 || wgt > 1) throw new IllegalArgumentException("Weight not in [0,1]");
 			weights.put(guest, room, wgt);
 			return this;
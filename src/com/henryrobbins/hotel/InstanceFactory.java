@@ -213,6 +213,55 @@ public abstract class InstanceFactory {
 
 	}
 
+	/** Split the given instance into independent instances at every room type without slack. <br>
+	 * The instance for the tier between consecutive no-slack types a < b contains the guests <br>
+	 * requesting and the rooms of types a..b-1. Tiers without guests are omitted. Every tier <br>
+	 * instance keeps the size of the housekeeping team.
+	 *
+	 * @param instance A feasible instance (not null) */
+	public static ArrayList<Instance> tiers(Instance instance) {
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+		if (!instance.feasible()) throw new IllegalArgumentException("Instance is infeasible");
+
+		ArrayList<Integer> cuts= instance.noSlackTypes();
+		cuts.remove((Integer) 1);
+
+		ArrayList<Instance> tiers= new ArrayList<>();
+		ArrayList<Room> rooms= instance.rooms();
+		ArrayList<Guest> guests= instance.guests();
+		for (int k= 0; k <= cuts.size(); k++ ) {
+			int lb= k == 0 ? 1 : cuts.get(k - 1);
+			int ub= k == cuts.size() ? Integer.MAX_VALUE : cuts.get(k);
+
+			ArrayList<Guest> tierGuests= new ArrayList<>();
+			for (Guest guest : guests) {
+				if (guest.type() >= lb && guest.type() < ub) tierGuests.add(guest);
+			}
+			if (tierGuests.isEmpty()) continue;
+
+			Hotel.Builder hotelBuilder= new Hotel.Builder().setH(instance.getH());
+			ArrayList<Room> tierRooms= new ArrayList<>();
+			for (Room room : rooms) {
+				if (room.type() >= lb && room.type() < ub) {
+					hotelBuilder.addRoom(room);
+					tierRooms.add(room);
+				}
+			}
+
+			Instance.Builder builder= new Instance.Builder(hotelBuilder.build());
+			for (Guest guest : tierGuests) {
+				builder.addGuest(guest);
+			}
+			for (Guest guest : tierGuests) {
+				for (Room room : tierRooms) {
+					builder.addWeight(guest, room, instance.weight(guest, room));
+				}
+			}
+			tiers.add(builder.build());
+		}
+		return tiers;
+	}
+
 	/** Return sample from given distribution within the specified range via rejection sampling
 	 *
 	 * @param dist The distribution from which the sample will be taken
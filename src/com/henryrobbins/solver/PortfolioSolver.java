@@ -0,0 +1,184 @@
+package com.henryrobbins.solver;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import com.henryrobbins.decision.Decision;
+import com.henryrobbins.decision.Statistic;
+import com.henryrobbins.hotel.Instance;
+
+/** Races several solvers on the same instance, each as its own task, and returns the best decision
+ * found within a wall-clock budget, as measured by the given statistic. Once every solver has
+ * returned, or the budget is spent, the solvers still running are cancelled by interrupting their
+ * tasks, and their decisions are discarded. The budget is never exceeded to wait for a decision:
+ * should no solver have returned within it, the solve fails, so the list should hold a fast
+ * heuristic. A solver that throws is skipped. Ties go to the solver listed first. race() returns
+ * the decision with the index of the solver that found it.
+ *
+ * Cancellation is cooperative: ScheduleBranchAndBound, ScheduleLNS, ScheduleLagrangian, and
+ * MemeticSolver stop early when interrupted, while other solvers (e.g. the AMPL solvers) run on in
+ * the background until they return. A solver still running must not disturb the next solve, so the
+ * solvers raced should keep the state of a solve to themselves, returning any they report with
+ * their decision (as ScheduleLagrangian.relax and CoarseToFine.refine do); so does the portfolio,
+ * which may be shared by threads. Unless an executor is given, every solve runs on a pool of its
+ * own, one thread per solver, shut down when the solve returns. */
+public class PortfolioSolver<T extends Decision> implements Solver<T> {
+
+	/** The solvers raced */
+	private ArrayList<Solver<T>> solvers;
+	/** The statistic measuring the quality of a decision */
+	private Statistic<T> statistic;
+	/** True iff a larger statistic is better */
+	private boolean maximize;
+	/** The wall-clock budget in milliseconds */
+	private long millis;
+	/** The executor running the solvers (null if every solve has a pool of its own) */
+	private ExecutorService executor;
+
+	/** Construct a portfolio racing the given solvers, every solve on a pool of its own
+	 *
+	 * @param solvers   The solvers raced (at least one, none null)
+	 * @param statistic The statistic measuring the quality of a decision (not null)
+	 * @param maximize  True iff a larger statistic is better
+	 * @param millis    The wall-clock budget in milliseconds (at least 1) */
+	public PortfolioSolver(List<Solver<T>> solvers, Statistic<T> statistic, boolean maximize, long millis) {
+		this(solvers, statistic, maximize, millis, null, false);
+	}
+
+	/** Construct a portfolio racing the given solvers on the given executor, which is left <br>
+	 * running after a solve. Solvers waiting for a thread of the executor spend the budget too.
+	 *
+	 * @param solvers   The solvers raced (at least one, none null)
+	 * @param statistic The statistic measuring the quality of a decision (not null)
+	 * @param maximize  True iff a larger statistic is better
+	 * @param millis    The wall-clock budget in milliseconds (at least 1)
+	 * @param executor  The executor running the solvers (not null) */
+	public PortfolioSolver(List<Solver<T>> solvers, Statistic<T> statistic, boolean maximize, long millis,
+		ExecutorService executor) {
+		this(solvers, statistic, maximize, millis, executor, true);
+	}
+
+	/** Construct a portfolio racing the given solvers on the given executor, if given */
+	private PortfolioSolver(List<Solver<T>> solvers, Statistic<T> statistic, boolean maximize, long millis,
+		ExecutorService executor, boolean given) {
+		if (solvers == null || solvers.isEmpty()) throw new IllegalArgumentException("No solvers given");
+		for (Solver<T> solver : solvers) {
+			if (solver == null) throw new IllegalArgumentException("Solver was null");
+		}
+		if (statistic == null) throw new IllegalArgumentException("Statistic was null");
+		if (millis < 1) throw new IllegalArgumentException("Time budget less than 1");
+		if (given && executor == null) throw new IllegalArgumentException("Executor was null");
+		this.solvers= new ArrayList<>(solvers);
+		this.statistic= statistic;
+		this.maximize= maximize;
+		this.millis= millis;
+		this.executor= executor;
+	}
+
+	/** The result of a race */
+	public static class Race<T extends Decision> {
+
+		/** The best decision found */
+		private final T decision;
+		/** The index of the solver that found the decision */
+		private final int winner;
+
+		private Race(T decision, int winner) {
+			this.decision= decision;
+			this.winner= winner;
+		}
+
+		/** Return the best decision found */
+		public T decision() {
+			return decision;
+		}
+
+		/** Return the index of the solver that found the decision (in the order the solvers <br>
+		 * were given) */
+		public int winner() {
+			return winner;
+		}
+	}
+
+	/** Return the best decision found by the solvers within the budget */
+	@Override
+	public T solve(Instance instance) {
+		return race(instance).decision();
+	}
+
+	/** Return the best decision found by the solvers within the budget with the index of the <br>
+	 * solver that found it */
+	public Race<T> race(Instance instance) {
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+		long until= System.nanoTime() + millis * 1_000_000;
+
+		ExecutorService pool= executor;
+		if (pool == null) {
+			pool= Executors.newFixedThreadPool(solvers.size(), runnable -> {
+				Thread thread= new Thread(runnable, "Portfolio");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		ExecutorCompletionService<T> race= new ExecutorCompletionService<>(pool);
+		HashMap<Future<T>, Integer> index= new HashMap<>();
+
+		T best= null;
+		int bestIndex= -1;
+		double bestValue= 0;
+		Throwable failure= null;
+		try {
+			for (int k= 0; k < solvers.size(); k++ ) {
+				Solver<T> solver= solvers.get(k);
+				index.put(race.submit(() -> solver.solve(instance)), k);
+			}
+			int left= solvers.size();
+			while (left > 0) {
+				long remaining= until - System.nanoTime();
+				Future<T> future= remaining > 0 ? race.poll(remaining, TimeUnit.NANOSECONDS) : null;
+				if (future == null) break;
+				left-- ;
+				T decision;
+				try {
+					decision= future.get();
+				} catch (ExecutionException e) {
+					failure= e.getCause();
+					continue;
+				}
+				if (decision == null) continue;
+				double value= statistic.getStat(decision);
+				int k= index.get(future);
+				if (best == null || (maximize ? value > bestValue : value < bestValue) ||
+					value == bestValue && k < bestIndex) {
+					best= decision;
+					bestIndex= k;
+					bestValue= value;
+				}
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while racing solvers", e);
+		} finally {
+			for (Future<T> future : index.keySet()) {
+				future.cancel(true);
+			}
+			if (executor == null) pool.shutdownNow();
+		}
+
+		if (best == null) throw new IllegalStateException("No solver returned a decision within the budget", failure);
+		return new Race<>(best, bestIndex);
+	}
+
+	@Override
+	public String toString() {
+		return "Portfolio " + solvers;
+	}
+
+}
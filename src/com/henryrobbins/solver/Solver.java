@@ -9,12 +9,19 @@ import com.henryrobbins.decision.Schedule;
 import com.henryrobbins.decision.Solution;
 import com.henryrobbins.hotel.Instance;
 import com.henryrobbins.solver.assignment.AssignmentIPSolver;
+import com.henryrobbins.solver.assignment.AuctionMeanSat;
 import com.henryrobbins.solver.assignment.BestFirst;
 import com.henryrobbins.solver.assignment.Linear;
+import com.henryrobbins.solver.assignment.SparseMeanSat;
+import com.henryrobbins.solver.assignment.TypeCounting;
 import com.henryrobbins.solver.assignment.WorstFirst;
+import com.henryrobbins.solver.schedule.ATCDispatch;
+import com.henryrobbins.solver.schedule.Dispatch;
+import com.henryrobbins.solver.schedule.DispatchRule;
 import com.henryrobbins.solver.schedule.FirstAvailable;
 import com.henryrobbins.solver.schedule.NeededFirst;
 import com.henryrobbins.solver.schedule.NeededFirstNoWait;
+import com.henryrobbins.solver.schedule.ScheduleBranchAndBound;
 import com.henryrobbins.solver.schedule.ScheduleIPSolver;
 import com.henryrobbins.solver.solution.SolutionIPSolver;
 
@@ -32,15 +39,21 @@ public interface Solver<T extends Decision> {
 		new AssignmentIPSolver("Below_Tau", 0.8),
 		new AssignmentIPSolver("Upgrades"),
 		new AssignmentIPSolver("Feasible"),
+		new TypeCounting(),
 		new AssignmentIPSolver("Mean_And_Min_Satisfaction", 1, 1, 0),
 		new AssignmentIPSolver("Mean_Min_Sat_And_Upgrades", 1, 1, 1),
 		new AssignmentIPSolver("Mean_And_Below_Tau", 0.8, 1, 1, 0),
-		new AssignmentIPSolver("Mean_Below_Tau_And_Upgrades", 0.8, 1, 1, 1)));
+		new AssignmentIPSolver("Mean_Below_Tau_And_Upgrades", 0.8, 1, 1, 1),
+		new AuctionMeanSat(),
+		new SparseMeanSat()));
 
 	ArrayList<Solver<Schedule>> SCHEDULE_SOLVERS= new ArrayList<>(Arrays.asList(
 		new FirstAvailable(),
 		new NeededFirst(),
 		new NeededFirstNoWait(),
+		new Dispatch(new DispatchRule.EDD()),
+		new ATCDispatch(),
+		new ScheduleBranchAndBound("Makespan"),
 		new ScheduleIPSolver("Makespan"),
 		new ScheduleIPSolver("Sum_Completion_Time"),
 		new ScheduleIPSolver("Sum_Tardiness"),
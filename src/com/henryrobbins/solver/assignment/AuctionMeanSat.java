@@ -0,0 +1,317 @@
+package com.henryrobbins.solver.assignment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import com.henryrobbins.decision.Assignment;
+import com.henryrobbins.hotel.Guest;
+import com.henryrobbins.hotel.Instance;
+import com.henryrobbins.hotel.Room;
+import com.henryrobbins.solver.Solver;
+
+/** Room assignment solver maximizing mean satisfaction via Bertsekas' auction algorithm with <br>
+ * epsilon-scaling. Guests only bid on rooms satisfying their request (the sparse feasible edges).
+ * To make the problem square, every open room is represented by a "vacancy" bidder valuing all
+ * rooms at zero. In every round, the bids of all unassigned guests are computed in parallel on a
+ * ForkJoinPool against the same prices (Jacobi variant). Vacancies then bid one at a time using a
+ * heap of room prices (Gauss-Seidel variant). The final assignment is within n * epsilon of the
+ * optimal total satisfaction; auction() returns the assignment with its certified duality gap. */
+public class AuctionMeanSat implements Solver<Assignment> {
+
+	/** The number of bidders computed sequentially by a single bidding task */
+	private static final int THRESHOLD= 256;
+	/** The factor by which epsilon is reduced after every scaling phase */
+	private static final double THETA= 5;
+
+	/** The final value of epsilon (positive) */
+	private double epsilon;
+	/** The pool used to compute bids in parallel */
+	private ForkJoinPool pool;
+
+	/** Construct an auction solver with a final epsilon of 1e-7 bidding on the common pool */
+	public AuctionMeanSat() {
+		this(1e-7, ForkJoinPool.commonPool());
+	}
+
+	/** Construct an auction solver with the given final epsilon bidding on the given pool
+	 *
+	 * @param epsilon The final value of epsilon (positive)
+	 * @param pool    The pool used to compute bids in parallel (not null) */
+	public AuctionMeanSat(double epsilon, ForkJoinPool pool) {
+		if (epsilon <= 0) throw new IllegalArgumentException("Epsilon not positive");
+		if (pool == null) throw new IllegalArgumentException("Pool was null");
+		this.epsilon= epsilon;
+		this.pool= pool;
+	}
+
+	/** An assignment found by the auction together with its certified duality gap */
+	public static class Auction {
+
+		/** The assignment found */
+		private final Assignment assignment;
+		/** The duality gap (in total satisfaction) of the assignment */
+		private final double gap;
+
+		private Auction(Assignment assignment, double gap) {
+			this.assignment= assignment;
+			this.gap= gap;
+		}
+
+		/** Return the assignment found */
+		public Assignment assignment() {
+			return assignment;
+		}
+
+		/** Return the duality gap (in total satisfaction). The assignment's total satisfaction <br>
+		 * is within this amount of the optimum. */
+		public double gap() {
+			return gap;
+		}
+	}
+
+	/** Return the room assignment maximizing mean satisfaction (within n * epsilon) */
+	@Override
+	public Assignment solve(Instance instance) {
+		return auction(instance).assignment();
+	}
+
+	/** Return the room assignment maximizing mean satisfaction with its certified duality gap */
+	public Auction auction(Instance instance) {
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+		if (!instance.feasible()) throw new IllegalArgumentException("Instance is infeasible");
+
+		ArrayList<Guest> guests= instance.guests();
+		ArrayList<Room> rooms= instance.rooms();
+		int g= guests.size();
+		int n= rooms.size();
+
+		// Sparse feasible edges of every guest
+		int[][] adj= new int[g][];
+		double[][] val= new double[g][];
+		double maxWeight= 0;
+		for (int i= 0; i < g; i++ ) {
+			Guest guest= guests.get(i);
+			int[] edges= new int[n];
+			int size= 0;
+			for (int j= 0; j < n; j++ ) {
+				if (rooms.get(j).type() >= guest.type()) edges[size++ ]= j;
+			}
+			adj[i]= Arrays.copyOf(edges, size);
+			val[i]= new double[size];
+			for (int k= 0; k < size; k++ ) {
+				val[i][k]= instance.weight(guest, rooms.get(adj[i][k]));
+				maxWeight= Math.max(maxWeight, val[i][k]);
+			}
+		}
+
+		// Bidders 0..g-1 are guests, g..n-1 are vacancies
+		double[] price= new double[n];
+		int[] owner= new int[n];
+		int[] object= new int[n];
+		int[] bidObject= new int[g];
+		double[] bidAmount= new double[g];
+		double[] best= new double[n];
+		int[] winner= new int[n];
+		Arrays.fill(best, Double.NEGATIVE_INFINITY);
+
+		// Stacks of unassigned guests and vacancies
+		int[] bidders= new int[g];
+		int[] next= new int[g];
+		int[] vacant= new int[n - g];
+
+		double eps= Math.max(maxWeight / THETA, epsilon);
+		while (true) {
+			Arrays.fill(owner, -1);
+			Arrays.fill(object, -1);
+			int size= g;
+			for (int i= 0; i < g; i++ ) {
+				bidders[i]= i;
+			}
+			int vSize= n - g;
+			for (int v= g; v < n; v++ ) {
+				vacant[v - g]= v;
+			}
+			PriorityQueue<double[]> cheapest= new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+			for (int j= 0; j < n; j++ ) {
+				cheapest.add(new double[] { price[j], j });
+			}
+
+			while (size + vSize > 0) {
+				int nSize= 0;
+
+				// Jacobi bidding: unassigned guests bid in parallel against the current prices
+				if (size > 0) {
+					BidTask task= new BidTask(bidders, 0, size, adj, val, price, eps, bidObject, bidAmount, maxWeight);
+					if (size > THRESHOLD) {
+						pool.invoke(task);
+					} else {
+						task.compute();
+					}
+					for (int k= 0; k < size; k++ ) {
+						int i= bidders[k];
+						int j= bidObject[i];
+						if (bidAmount[i] > best[j]) {
+							best[j]= bidAmount[i];
+							winner[j]= i;
+						}
+					}
+					for (int k= 0; k < size; k++ ) {
+						int i= bidders[k];
+						int j= bidObject[i];
+						if (winner[j] != i || best[j] == Double.NEGATIVE_INFINITY) {
+							next[nSize++ ]= i;
+							continue;
+						}
+						int prev= award(i, j, best[j], owner, object, price, cheapest);
+						best[j]= Double.NEGATIVE_INFINITY;
+						if (prev >= g) {
+							vacant[vSize++ ]= prev;
+						} else if (prev >= 0) {
+							next[nSize++ ]= prev;
+						}
+					}
+				}
+
+				// Gauss-Seidel bidding: vacancies value every room at zero and bid for the cheapest
+				while (vSize > 0) {
+					int v= vacant[--vSize];
+					double[] first= cheapest.poll();
+					while (first[0] != price[(int) first[1]]) {
+						first= cheapest.poll();
+					}
+					double[] second= cheapest.peek();
+					while (second != null && second[0] != price[(int) second[1]]) {
+						cheapest.poll();
+						second= cheapest.peek();
+					}
+					double increment= second == null ? maxWeight : second[0] - first[0];
+					int prev= award(v, (int) first[1], first[0] + increment + eps, owner, object, price, cheapest);
+					if (prev >= g) {
+						vacant[vSize++ ]= prev;
+					} else if (prev >= 0) {
+						next[nSize++ ]= prev;
+					}
+				}
+
+				int[] swap= bidders;
+				bidders= next;
+				next= swap;
+				size= nSize;
+			}
+
+			if (eps <= epsilon) break;
+			eps= Math.max(eps / THETA, epsilon);
+		}
+
+		// Certify the assignment with the dual objective sum(price) + sum(profit)
+		double primal= 0;
+		double dual= 0;
+		double minPrice= Double.POSITIVE_INFINITY;
+		for (int j= 0; j < n; j++ ) {
+			dual+= price[j];
+			minPrice= Math.min(minPrice, price[j]);
+		}
+		dual-= (n - g) * minPrice;
+		for (int i= 0; i < g; i++ ) {
+			double profit= Double.NEGATIVE_INFINITY;
+			for (int k= 0; k < adj[i].length; k++ ) {
+				int j= adj[i][k];
+				profit= Math.max(profit, val[i][k] - price[j]);
+				if (j == object[i]) primal+= val[i][k];
+			}
+			dual+= profit;
+		}
+		double gap= Math.max(0, dual - primal);
+
+		Assignment assignment= new Assignment(instance);
+		for (int i= 0; i < g; i++ ) {
+			assignment.assign(guests.get(i), rooms.get(object[i]));
+		}
+		return new Auction(assignment, gap);
+	}
+
+	/** Assign object j to bidder i at the given price. Return the displaced bidder (-1 if none). */
+	private static int award(int i, int j, double bid, int[] owner, int[] object, double[] price,
+		PriorityQueue<double[]> cheapest) {
+		int prev= owner[j];
+		owner[j]= i;
+		object[i]= j;
+		price[j]= bid;
+		cheapest.add(new double[] { bid, j });
+		if (prev != -1) object[prev]= -1;
+		return prev;
+	}
+
+	/** Computes the bids of a range of unassigned guests. Every guest bids for their most <br>
+	 * profitable room, raising its price by the margin over their second best room plus epsilon. */
+	private static class BidTask extends RecursiveAction {
+
+		private static final long serialVersionUID= 1L;
+
+		private final int[] bidders;
+		private final int from;
+		private final int to;
+		private final int[][] adj;
+		private final double[][] val;
+		private final double[] price;
+		private final double eps;
+		private final int[] bidObject;
+		private final double[] bidAmount;
+		private final double maxWeight;
+
+		BidTask(int[] bidders, int from, int to, int[][] adj, double[][] val, double[] price, double eps,
+			int[] bidObject, double[] bidAmount, double maxWeight) {
+			this.bidders= bidders;
+			this.from= from;
+			this.to= to;
+			this.adj= adj;
+			this.val= val;
+			this.price= price;
+			this.eps= eps;
+			this.bidObject= bidObject;
+			this.bidAmount= bidAmount;
+			this.maxWeight= maxWeight;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from > THRESHOLD) {
+				int mid= (from + to) >>> 1;
+				invokeAll(new BidTask(bidders, from, mid, adj, val, price, eps, bidObject, bidAmount, maxWeight),
+					new BidTask(bidders, mid, to, adj, val, price, eps, bidObject, bidAmount, maxWeight));
+				return;
+			}
+			for (int k= from; k < to; k++ ) {
+				int i= bidders[k];
+				int[] edges= adj[i];
+				double[] values= val[i];
+				int bestJ= -1;
+				double first= Double.NEGATIVE_INFINITY;
+				double second= Double.NEGATIVE_INFINITY;
+				for (int e= 0; e < edges.length; e++ ) {
+					double profit= values[e] - price[edges[e]];
+					if (profit > first) {
+						second= first;
+						first= profit;
+						bestJ= edges[e];
+					} else if (profit > second) {
+						second= profit;
+					}
+				}
+				// A guest with a single feasible room outbids any vacancy
+				double margin= second == Double.NEGATIVE_INFINITY ? maxWeight : first - second;
+				bidObject[i]= bestJ;
+				bidAmount[i]= price[bestJ] + margin + eps;
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "Auction";
+	}
+
+}
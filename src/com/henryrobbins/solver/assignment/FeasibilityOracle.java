@@ -0,0 +1,104 @@
+package com.henryrobbins.solver.assignment;
+
+import java.util.HashSet;
+
+import com.henryrobbins.hotel.Guest;
+import com.henryrobbins.hotel.Instance;
+import com.henryrobbins.hotel.Room;
+
+/** Answers whether a guest can be assigned a room such that every remaining guest can still be
+ * assigned a room satisfying their request. Since a guest requesting type t can take any room of
+ * type t or greater, Hall's condition reduces to the nested tiers of room types: for every type t,
+ * the open rooms of type t or greater must be at least the unassigned guests requesting type t or
+ * greater. The slack of every tier is maintained as guests are assigned, so a query or assignment
+ * takes O(k) time for k room types. */
+public class FeasibilityOracle {
+
+	/** The instance being assigned */
+	private final Instance instance;
+	/** The slack of every tier (open rooms minus unassigned requests of type t or greater) */
+	private final int[] slack;
+	/** The guests assigned so far */
+	private final HashSet<Guest> assigned= new HashSet<>();
+	/** The rooms taken so far */
+	private final HashSet<Room> taken= new HashSet<>();
+
+	/** Construct an oracle for the given instance with no guest assigned
+	 *
+	 * @param instance The instance being assigned (not null) */
+	public FeasibilityOracle(Instance instance) {
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+		this.instance= instance;
+
+		int maxType= 0;
+		for (Room room : instance.rooms()) {
+			maxType= Math.max(maxType, room.type());
+		}
+		for (Guest guest : instance.guests()) {
+			maxType= Math.max(maxType, guest.type());
+		}
+		slack= new int[maxType + 2];
+		for (Room room : instance.rooms()) {
+			slack[room.type()]++ ;
+		}
+		for (Guest guest : instance.guests()) {
+			slack[guest.type()]-- ;
+		}
+		for (int t= maxType - 1; t >= 1; t-- ) {
+			slack[t]+= slack[t + 1];
+		}
+	}
+
+	/** Return true iff every unassigned guest can still be assigned a room */
+	public boolean feasible() {
+		for (int t= 1; t < slack.length; t++ ) {
+			if (slack[t] < 0) return false;
+		}
+		return true;
+	}
+
+	/** Return true iff the given guest can be assigned the given room such that every other <br>
+	 * unassigned guest can still be assigned a room. The current assignments must be feasible.
+	 *
+	 * @param guest A guest in the instance
+	 * @param room  A room in the instance */
+	public boolean canAssign(Guest guest, Room room) {
+		if (guest == null) throw new IllegalArgumentException("Guest was null");
+		if (room == null) throw new IllegalArgumentException("Room was null");
+		if (room.type() < guest.type() || assigned.contains(guest) || taken.contains(room)) return false;
+
+		// Tiers up to the guest's request lose a room and a request; the tiers above lose a room
+		for (int t= guest.type() + 1; t <= room.type(); t++ ) {
+			if (slack[t] < 1) return false;
+		}
+		return true;
+	}
+
+	/** Assign the given guest the given room. Return true if assigned successfully (as decided <br>
+	 * by canAssign).
+	 *
+	 * @param guest A guest in the instance
+	 * @param room  A room in the instance */
+	public boolean assign(Guest guest, Room room) {
+		if (guest == null) throw new IllegalArgumentException("Guest was null");
+		if (room == null) throw new IllegalArgumentException("Room was null");
+		if (!guest.equals(instance.guest(guest.id()))) throw new IllegalArgumentException("Guest not in instance");
+		if (!room.equals(instance.room(room.num()))) throw new IllegalArgumentException("Room not in instance");
+		if (!canAssign(guest, room)) return false;
+
+		for (int t= guest.type() + 1; t <= room.type(); t++ ) {
+			slack[t]-- ;
+		}
+		assigned.add(guest);
+		taken.add(room);
+		return true;
+	}
+
+	/** Return the slack of the given tier (open rooms minus unassigned requests of the given <br>
+	 * type or greater) */
+	public int slack(int type) {
+		if (type < 1) throw new IllegalArgumentException("Type less than 1");
+		return type < slack.length ? slack[type] : 0;
+	}
+
+}
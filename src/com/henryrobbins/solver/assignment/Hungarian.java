@@ -0,0 +1,277 @@
+package com.henryrobbins.solver.assignment;
+
+import java.util.Arrays;
+
+/** Maintains a minimum cost perfect matching of a square cost matrix together with dual potentials
+ * u (rows) and v (columns) such that cost[i][j] - u[i] - v[j] >= 0 with equality on matched edges.
+ * Rows are matched one at a time by a shortest augmenting path (Dijkstra over reduced costs), so a
+ * single row can be replaced and re-matched in O(n^2) time. Among shortest augmenting paths, the
+ * one moving the fewest rows of positive weight is preferred. The dense scans over a row are done
+ * by a HungarianKernel (vectorized when the Vector API is available). */
+public class Hungarian {
+
+	/** Tolerance used when comparing reduced costs */
+	private static final double TOL= 1e-9;
+	/** The kernel used for dense scans over a row */
+	private static final HungarianKernel KERNEL= HungarianKernel.load();
+
+	/** The number of rows and columns */
+	private final int n;
+	/** The cost of every row (indexed by column) */
+	private final double[][] cost;
+	/** The weight of moving every row when breaking ties between shortest paths */
+	private final int[] weight;
+	/** Row potentials */
+	private final double[] u;
+	/** Column potentials */
+	private final double[] v;
+	/** The row matched to every column (-1 if none) */
+	private final int[] rowOf;
+	/** The column matched to every row (-1 if none) */
+	private final int[] colOf;
+
+	// SCRATCH SPACE FOR AUGMENTING PATH SEARCHES
+	private final double[] d;
+	private final double[] pred;
+	private final double[] hops;
+	private final double[] lock;
+	private final int[] scanned;
+	private final boolean[] used;
+	/** The next column of every shortest alternating path found by pathsTo */
+	private final int[] next;
+	/** The distance of every column found by pathsTo */
+	private final double[] dist;
+	/** The column freed by the most recent call to pathsTo (-1 if none) */
+	private int target= -1;
+
+	/** Construct an empty matching for the given square cost matrix. The rows of the matrix are <br>
+	 * not copied and should not be modified afterwards except through setRow.
+	 *
+	 * @param cost A square cost matrix (at least one row) */
+	public Hungarian(double[][] cost) {
+		if (cost == null || cost.length < 1) throw new IllegalArgumentException("Cost matrix was empty");
+		n= cost.length;
+		for (double[] row : cost) {
+			if (row.length != n) throw new IllegalArgumentException("Cost matrix is not square");
+		}
+		this.cost= cost.clone();
+		weight= new int[n];
+		Arrays.fill(weight, 1);
+		u= new double[n];
+		v= new double[n];
+		rowOf= new int[n];
+		colOf= new int[n];
+		Arrays.fill(rowOf, -1);
+		Arrays.fill(colOf, -1);
+		d= new double[n];
+		pred= new double[n];
+		hops= new double[n];
+		lock= new double[n];
+		scanned= new int[n];
+		used= new boolean[n];
+		next= new int[n];
+		dist= new double[n];
+	}
+
+	/** Return the name of the kernel used for dense scans over a row ("Scalar" or "Vector") */
+	public static String kernel() {
+		return KERNEL.toString();
+	}
+
+	/** Return the number of rows (and columns) */
+	public int size() {
+		return n;
+	}
+
+	/** Return the column matched to the given row (-1 if none) */
+	public int col(int row) {
+		return colOf[row];
+	}
+
+	/** Return the row matched to the given column (-1 if none) */
+	public int row(int col) {
+		return rowOf[col];
+	}
+
+	/** Return the cost of the given edge */
+	public double cost(int row, int col) {
+		return cost[row][col];
+	}
+
+	/** Return the potential of the given row */
+	public double u(int row) {
+		return u[row];
+	}
+
+	/** Return the potential of the given column */
+	public double v(int col) {
+		return v[col];
+	}
+
+	/** Return the reduced cost of the given edge (non-negative) */
+	public double reduced(int row, int col) {
+		return cost[row][col] - u[row] - v[col];
+	}
+
+	/** Return the cost of the current matching */
+	public double total() {
+		double total= 0;
+		for (int i= 0; i < n; i++ ) {
+			if (colOf[i] != -1) total+= cost[i][colOf[i]];
+		}
+		return total;
+	}
+
+	/** Set the weight of moving the given row when breaking ties between shortest paths
+	 *
+	 * @param row    A row
+	 * @param weight The tie-breaking weight (at least 0) */
+	public void setWeight(int row, int weight) {
+		if (weight < 0) throw new IllegalArgumentException("Weight less than 0");
+		this.weight[row]= weight;
+	}
+
+	/** Match every unmatched row */
+	public void solve() {
+		for (int i= 0; i < n; i++ ) {
+			if (colOf[i] == -1) augment(i);
+		}
+	}
+
+	/** Replace the costs of the given row and leave it unmatched. The row potential is lowered so <br>
+	 * that all reduced costs remain non-negative. Call augment to match the row again.
+	 *
+	 * @param row  A row
+	 * @param cost The new costs of the row (of length n, not copied) */
+	public void setRow(int row, double[] cost) {
+		if (cost.length != n) throw new IllegalArgumentException("Row is not of length n");
+		if (colOf[row] != -1) {
+			rowOf[colOf[row]]= -1;
+			colOf[row]= -1;
+		}
+		this.cost[row]= cost;
+		target= -1;
+		u[row]= KERNEL.minReduced(cost, v, n);
+	}
+
+	/** Match the given unmatched row along a shortest augmenting path. Return the total weight of <br>
+	 * the other rows whose matched column changed.
+	 *
+	 * @param row An unmatched row */
+	public int augment(int row) {
+		if (colOf[row] != -1) throw new IllegalArgumentException("Row is already matched");
+
+		// Dijkstra over reduced costs from the row; d[j] is the distance of column j
+		Arrays.fill(d, Double.POSITIVE_INFINITY);
+		Arrays.fill(lock, 0);
+		Arrays.fill(hops, Double.POSITIVE_INFINITY);
+		double min= KERNEL.relax(cost[row], v, -u[row], d, hops, pred, lock, 0, row, TOL, n);
+		int size= 0;
+		int j1;
+		while (true) {
+			j1= KERNEL.select(d, hops, lock, min, TOL, n);
+			lock[j1]= Double.POSITIVE_INFINITY;
+			scanned[size++ ]= j1;
+			int i= rowOf[j1];
+			if (i == -1) break;
+			// Matched edges are tight, so leaving column j1 for column k costs cost[i][k] - u[i] - v[k]
+			min= KERNEL.relax(cost[i], v, d[j1] - u[i], d, hops, pred, lock, hops[j1] + weight[i], i, TOL, n);
+		}
+
+		// Shift the potentials of scanned columns so the new matching is tight
+		double max= d[j1];
+		for (int k= 0; k < size; k++ ) {
+			int j= scanned[k];
+			v[j]+= d[j] - max;
+		}
+		int moved= (int) hops[j1];
+		int j= j1;
+		while (true) {
+			int i= (int) pred[j];
+			int prev= colOf[i];
+			colOf[i]= j;
+			rowOf[j]= i;
+			if (i == row) break;
+			j= prev;
+		}
+		for (int k= 0; k < size; k++ ) {
+			int i= rowOf[scanned[k]];
+			u[i]= cost[i][scanned[k]] - v[scanned[k]];
+		}
+		target= -1;
+		return moved;
+	}
+
+	/** Return, for every column j, the minimum total reduced cost of moving the row matched to j <br>
+	 * along an alternating path of matched rows ending in the given column (as though the row <br>
+	 * matched to the given column has left it). Rows marked fixed are never moved; the distance <br>
+	 * of their columns is infinite. Matching some row i to column j instead of its current column <br>
+	 * c therefore increases the optimal cost by exactly reduced(i, j) + d[j] (with d[c]= 0). Runs <br>
+	 * in O(n^2) time; the paths are kept for a subsequent call to rematch.
+	 *
+	 * @param col   A matched column
+	 * @param fixed The rows which may not be moved (indexed by row, may be null) */
+	public double[] pathsTo(int col, boolean[] fixed) {
+		if (rowOf[col] == -1) throw new IllegalArgumentException("Column is not matched");
+
+		double[] d= dist;
+		Arrays.fill(d, Double.POSITIVE_INFINITY);
+		Arrays.fill(used, false);
+		d[col]= 0;
+		next[col]= col;
+		used[col]= true;
+		int last= col;
+		while (last != -1) {
+			int j1= -1;
+			for (int j= 0; j < n; j++ ) {
+				int i= rowOf[j];
+				if (used[j] || i == -1 || fixed != null && fixed[i]) continue;
+				double cur= d[last] + cost[i][last] - u[i] - v[last];
+				if (cur < d[j]) {
+					d[j]= cur;
+					next[j]= last;
+				}
+				if (d[j] < Double.POSITIVE_INFINITY && (j1 == -1 || d[j] < d[j1])) j1= j;
+			}
+			if (j1 != -1) used[j1]= true;
+			last= j1;
+		}
+		target= col;
+		return d.clone();
+	}
+
+	/** Match the given row to the given column, moving the rows along the path from the given <br>
+	 * column found by the most recent call to pathsTo. The given row must be the row previously <br>
+	 * matched to the column passed to pathsTo. The potentials are shifted by the distances so that <br>
+	 * the matching of every row not fixed remains optimal. The new edge of the given row is tight <br>
+	 * only if reduced(row, col) + d[col] is zero, so the row should be fixed afterwards. Reduced <br>
+	 * costs of fixed rows are not maintained.
+	 *
+	 * @param row The row matched to the column passed to pathsTo
+	 * @param col A column with a finite distance */
+	public void rematch(int row, int col) {
+		if (target == -1 || rowOf[target] != row) throw new IllegalArgumentException("No path from the row");
+		if (!used[col]) throw new IllegalArgumentException("No path to the column");
+
+		double max= dist[col];
+		for (int k= 0; k < n; k++ ) {
+			double shift= Math.min(dist[k], max);
+			v[k]-= shift;
+			if (rowOf[k] != row) u[rowOf[k]]+= shift;
+		}
+
+		int j= col;
+		int i= row;
+		while (j != target) {
+			int prev= rowOf[j];
+			rowOf[j]= i;
+			colOf[i]= j;
+			i= prev;
+			j= next[j];
+		}
+		rowOf[target]= i;
+		colOf[i]= target;
+		target= -1;
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.henryrobbins.solver.assignment;
+
+/** The inner loops of a shortest augmenting path search over a dense row of costs. Every array is
+ * an array of doubles (hop counts and rows are stored exactly as doubles) and scanned columns are
+ * marked by a lock of positive infinity rather than a boolean, so that the loops are free of
+ * branches and every array has the same vector shape. A scalar kernel is always available;
+ * VectorKernel (in src-vector, compiled and run with --add-modules jdk.incubator.vector)
+ * implements the same loops with the Java Vector API. The kernel is selected once at runtime. */
+public interface HungarianKernel {
+
+	/** Relax every column k with lock[k] == 0 from the given row: cur= base + c[k] - v[k] replaces <br>
+	 * d[k] (setting hops[k]= h and pred[k]= row) if it is smaller by more than tol, or within tol <br>
+	 * of d[k] with fewer hops. Return the minimum distance of an unlocked column after relaxing. */
+	double relax(double[] c, double[] v, double base, double[] d, double[] hops, double[] pred, double[] lock,
+		double h, double row, double tol, int n);
+
+	/** Return the unlocked column with the fewest hops among those within tol of the given <br>
+	 * minimum distance (the first such column on ties, -1 if none) */
+	int select(double[] d, double[] hops, double[] lock, double min, double tol, int n);
+
+	/** Return the minimum of c[k] - v[k] over all columns k */
+	double minReduced(double[] c, double[] v, int n);
+
+	/** Return the vector kernel if the Vector API is available and the system property <br>
+	 * "hotel.simd" is not "false"; otherwise, return the scalar kernel */
+	static HungarianKernel load() {
+		if (!"false".equals(System.getProperty("hotel.simd")) &&
+			ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+			try {
+				return (HungarianKernel) Class.forName("com.henryrobbins.solver.assignment.VectorKernel")
+					.getDeclaredConstructor().newInstance();
+			} catch (ReflectiveOperationException | LinkageError e) {
+				// The vector kernel was not compiled; fall back to the scalar kernel
+			}
+		}
+		return new ScalarKernel();
+	}
+
+	/** Plain loops over the arrays */
+	class ScalarKernel implements HungarianKernel {
+
+		@Override
+		public double relax(double[] c, double[] v, double base, double[] d, double[] hops, double[] pred,
+			double[] lock, double h, double row, double tol, int n) {
+			double min= Double.POSITIVE_INFINITY;
+			for (int k= 0; k < n; k++ ) {
+				if (lock[k] != 0) continue;
+				double cur= base + c[k] - v[k];
+				if (cur < d[k] - tol || cur <= d[k] + tol && h < hops[k]) {
+					d[k]= cur;
+					hops[k]= h;
+					pred[k]= row;
+				}
+				min= Math.min(min, d[k]);
+			}
+			return min;
+		}
+
+		@Override
+		public int select(double[] d, double[] hops, double[] lock, double min, double tol, int n) {
+			int best= -1;
+			for (int k= 0; k < n; k++ ) {
+				if (lock[k] == 0 && d[k] <= min + tol && (best == -1 || hops[k] < hops[best])) best= k;
+			}
+			return best;
+		}
+
+		@Override
+		public double minReduced(double[] c, double[] v, int n) {
+			double min= Double.POSITIVE_INFINITY;
+			for (int k= 0; k < n; k++ ) {
+				min= Math.min(min, c[k] - v[k]);
+			}
+			return min;
+		}
+
+		@Override
+		public String toString() {
+			return "Scalar";
+		}
+	}
+
+}
@@ -0,0 +1,216 @@
+package com.henryrobbins.solver.assignment;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+
+import com.henryrobbins.decision.Assignment;
+import com.henryrobbins.hotel.Guest;
+import com.henryrobbins.hotel.Instance;
+import com.henryrobbins.hotel.Room;
+import com.henryrobbins.solver.Solver;
+
+/** Room assignment solver maximizing mean satisfaction which is re-optimized incrementally as
+ * guests are added to or removed from the instance. Every room is a column of a square Hungarian
+ * matching; guests occupy rows and every remaining row is a vacancy with zero cost for every room.
+ * Adding (removing) a guest replaces a vacancy (guest) row and re-matches it with a single
+ * augmenting path from the previous dual potentials in O(n^2) time. Among all optimal assignments,
+ * the one changing the fewest previous assignments is chosen; this number is returned. The weights
+ * of guests already in the instance are assumed to be unchanged by an update.
+ *
+ * As in the weights of an instance, rooms and guests are told apart by identity. An update must be
+ * on the very hotel object of the solved instance (an equal copy is rejected), and update keeps a
+ * guest only if it is the same object: a guest read again, even if equal, counts as removed and
+ * then added. */
+public class IncrementalAssignmentSolver implements Solver<Assignment> {
+
+	/** The instance currently assigned (null if never solved) */
+	private Instance instance;
+	/** The matching of guest and vacancy rows to room columns */
+	private Hungarian hungarian;
+	/** The list of rooms (indexed by column) */
+	private ArrayList<Room> rooms;
+	/** The guest in every row (null for vacancies) */
+	private Guest[] guestOf;
+	/** Map from guests to rows */
+	private HashMap<Guest, Integer> row;
+	/** The costs of a vacancy row */
+	private double[] vacancy;
+	/** The cost of assigning a guest a room not satisfying their request */
+	private double infeasible;
+
+	/** Solve the given instance from scratch and keep the optimal matching and dual potentials for <br>
+	 * subsequent updates. Return the room assignment maximizing mean satisfaction. */
+	@Override
+	public Assignment solve(Instance instance) {
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+		if (!instance.feasible()) throw new IllegalArgumentException("Instance is infeasible");
+
+		this.instance= instance;
+		rooms= instance.rooms();
+		int n= rooms.size();
+		infeasible= n + 1;
+		vacancy= new double[n];
+
+		double[][] cost= new double[n][];
+		guestOf= new Guest[n];
+		row= new HashMap<>();
+		ArrayList<Guest> guests= instance.guests();
+		for (int i= 0; i < n; i++ ) {
+			if (i < guests.size()) {
+				Guest guest= guests.get(i);
+				cost[i]= costOf(instance, guest);
+				guestOf[i]= guest;
+				row.put(guest, i);
+			} else {
+				cost[i]= vacancy;
+			}
+		}
+		hungarian= new Hungarian(cost);
+		for (int i= 0; i < n; i++ ) {
+			hungarian.setWeight(i, guestOf[i] == null ? 0 : 1);
+		}
+		hungarian.solve();
+		return assignment();
+	}
+
+	/** Re-optimize the assignment for the given instance which is the current instance with the <br>
+	 * given guest added. Return the minimum number of guests whose room changed.
+	 *
+	 * @param instance The current instance with the given guest added (feasible)
+	 * @param guest    The added guest (in the given instance) */
+	public int addGuest(Instance instance, Guest guest) {
+		checkUpdate(instance);
+		if (guest == null) throw new IllegalArgumentException("Guest was null");
+		if (!guest.equals(instance.guest(guest.id()))) throw new IllegalArgumentException("Guest not in instance");
+		if (row.containsKey(guest)) throw new IllegalArgumentException("Guest already assigned");
+		if (!instance.feasible()) throw new IllegalArgumentException("Instance is infeasible");
+
+		int i= hungarian.row(vacantColumn(instance, guest));
+		hungarian.setRow(i, costOf(instance, guest));
+		hungarian.setWeight(i, 1);
+		guestOf[i]= guest;
+		row.put(guest, i);
+		this.instance= instance;
+		return hungarian.augment(i);
+	}
+
+	/** Re-optimize the assignment for the given instance which is the current instance with the <br>
+	 * given guest removed. Return the minimum number of remaining guests whose room changed.
+	 *
+	 * @param instance The current instance with the given guest removed
+	 * @param guest    The removed guest (in the current instance) */
+	public int removeGuest(Instance instance, Guest guest) {
+		checkUpdate(instance);
+		if (guest == null) throw new IllegalArgumentException("Guest was null");
+		Integer i= row.get(guest);
+		if (i == null) throw new IllegalArgumentException("Guest not assigned");
+		if (instance.guest(guest.id()) != null) throw new IllegalArgumentException("Guest still in instance");
+
+		hungarian.setRow(i, vacancy);
+		hungarian.setWeight(i, 0);
+		guestOf[i]= null;
+		row.remove(guest);
+		this.instance= instance;
+		return hungarian.augment(i);
+	}
+
+	/** Re-optimize the assignment for the given instance on the same hotel. Guests no longer in the <br>
+	 * instance are removed and new guests are added (a changed reservation is both), guests being <br>
+	 * matched by identity. Return the number of guests kept by the update whose room changed.
+	 *
+	 * @param instance An instance on the hotel of the current instance (feasible) */
+	public int update(Instance instance) {
+		checkUpdate(instance);
+		if (!instance.feasible()) throw new IllegalArgumentException("Instance is infeasible");
+
+		int[] before= new int[guestOf.length];
+		for (int i= 0; i < guestOf.length; i++ ) {
+			before[i]= hungarian.col(i);
+		}
+
+		HashSet<Guest> added= new HashSet<>(instance.guests());
+		for (Guest guest : new ArrayList<>(row.keySet())) {
+			if (!added.remove(guest)) {
+				int i= row.remove(guest);
+				hungarian.setRow(i, vacancy);
+				hungarian.setWeight(i, 0);
+				guestOf[i]= null;
+				hungarian.augment(i);
+			}
+		}
+		for (Guest guest : added) {
+			int i= hungarian.row(vacantColumn(instance, guest));
+			hungarian.setRow(i, costOf(instance, guest));
+			hungarian.setWeight(i, 1);
+			guestOf[i]= guest;
+			row.put(guest, i);
+			hungarian.augment(i);
+		}
+		this.instance= instance;
+
+		int changed= 0;
+		for (int i= 0; i < guestOf.length; i++ ) {
+			if (guestOf[i] != null && !added.contains(guestOf[i]) && hungarian.col(i) != before[i]) changed++ ;
+		}
+		return changed;
+	}
+
+	/** Return the current room assignment maximizing mean satisfaction */
+	public Assignment assignment() {
+		if (instance == null) throw new IllegalArgumentException("No instance has been solved");
+		Assignment assignment= new Assignment(instance);
+		for (int i= 0; i < guestOf.length; i++ ) {
+			if (guestOf[i] != null) assignment.assign(guestOf[i], rooms.get(hungarian.col(i)));
+		}
+		return assignment;
+	}
+
+	/** Return the current total satisfaction */
+	public double totalSatisfaction() {
+		if (instance == null) throw new IllegalArgumentException("No instance has been solved");
+		double total= 0;
+		for (int i= 0; i < guestOf.length; i++ ) {
+			if (guestOf[i] != null) total-= hungarian.cost(i, hungarian.col(i));
+		}
+		return total;
+	}
+
+	/** Throw an exception if the given instance cannot follow the current instance */
+	private void checkUpdate(Instance instance) {
+		if (this.instance == null) throw new IllegalArgumentException("No instance has been solved");
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+		if (instance.hotel() != this.instance.hotel())
+			throw new IllegalArgumentException("Instance is not on the same hotel");
+	}
+
+	/** Return the column of some room currently held by a vacancy, preferring a room satisfying <br>
+	 * the request of the given guest */
+	private int vacantColumn(Instance instance, Guest guest) {
+		int vacant= -1;
+		for (int j= 0; j < rooms.size(); j++ ) {
+			if (guestOf[hungarian.row(j)] == null) {
+				if (rooms.get(j).type() >= guest.type()) return j;
+				vacant= j;
+			}
+		}
+		if (vacant == -1) throw new IllegalArgumentException("Instance is infeasible");
+		return vacant;
+	}
+
+	/** Return the cost of every room (indexed by column) for the given guest */
+	private double[] costOf(Instance instance, Guest guest) {
+		double[] cost= new double[rooms.size()];
+		for (int j= 0; j < rooms.size(); j++ ) {
+			Room room= rooms.get(j);
+			cost[j]= room.type() >= guest.type() ? -instance.weight(guest, room) : infeasible;
+		}
+		return cost;
+	}
+
+	@Override
+	public String toString() {
+		return "Incremental Mean Satisfaction";
+	}
+
+}
@@ -0,0 +1,82 @@
+package com.henryrobbins.solver.assignment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+
+import com.henryrobbins.decision.Assignment;
+import com.henryrobbins.hotel.Guest;
+import com.henryrobbins.hotel.Instance;
+import com.henryrobbins.hotel.Room;
+import com.henryrobbins.solver.Solver;
+
+/** Room assignment solver making the same decisions as OnlineMeanSatIP without an IP per guest.
+ * One Hungarian matching maximizing mean satisfaction is solved up front. As guests arrive, the
+ * arriving guest can take any room in some optimal assignment that keeps the earlier guests fixed;
+ * these are exactly the rooms whose forced assignment costs nothing, which a single shortest
+ * alternating path search over reduced costs finds in O(n^2) time. The guest takes the best such
+ * room, the matching is rotated along the zero-cost path, and the dual potentials are reused for
+ * the next guest. */
+public class OnlineMeanSat implements Solver<Assignment> {
+
+	/** Tolerance under which the cost of forcing an assignment is considered zero */
+	private static final double TOL= 1e-9;
+
+	/** Return a room assignment by maximizing guest's satisfaction as they arrive while maintaining an
+	 * optimal future assignment that maximizes mean satisfaction */
+	@Override
+	public Assignment solve(Instance instance) {
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+		if (!instance.feasible()) throw new IllegalArgumentException("Instance is infeasible");
+
+		ArrayList<Room> rooms= instance.rooms();
+		ArrayList<Guest> guests= instance.guests();
+		int n= rooms.size();
+
+		// Guests occupy the first rows; the remaining rows are vacancies with zero cost
+		double[][] cost= new double[n][];
+		double[] vacancy= new double[n];
+		for (int i= 0; i < n; i++ ) {
+			if (i < guests.size()) {
+				Guest guest= guests.get(i);
+				cost[i]= new double[n];
+				for (int j= 0; j < n; j++ ) {
+					Room room= rooms.get(j);
+					cost[i][j]= room.type() >= guest.type() ? -instance.weight(guest, room) : n + 1;
+				}
+			} else {
+				cost[i]= vacancy;
+			}
+		}
+		Hungarian hungarian= new Hungarian(cost);
+		hungarian.solve();
+
+		// Iterate through guests by arrival time
+		ArrayList<Integer> arrivals= new ArrayList<>();
+		for (int i= 0; i < guests.size(); i++ ) {
+			arrivals.add(i);
+		}
+		Collections.sort(arrivals, Comparator.comparingInt(i -> guests.get(i).arrival()));
+
+		Assignment assignment= new Assignment(instance);
+		boolean[] fixed= new boolean[n];
+		for (int i : arrivals) {
+			double[] d= hungarian.pathsTo(hungarian.col(i), fixed);
+			int best= -1;
+			for (int j= 0; j < n; j++ ) {
+				if (hungarian.reduced(i, j) + d[j] > TOL) continue;
+				if (best == -1 || cost[i][j] < cost[i][best]) best= j;
+			}
+			hungarian.rematch(i, best);
+			fixed[i]= true;
+			assignment.assign(guests.get(i), rooms.get(best));
+		}
+		return assignment;
+	}
+
+	@Override
+	public String toString() {
+		return "Online";
+	}
+
+}
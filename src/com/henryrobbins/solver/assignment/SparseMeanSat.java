@@ -0,0 +1,290 @@
+package com.henryrobbins.solver.assignment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+import com.henryrobbins.decision.Assignment;
+import com.henryrobbins.hotel.Guest;
+import com.henryrobbins.hotel.Instance;
+import com.henryrobbins.hotel.Room;
+import com.henryrobbins.solver.Solver;
+
+/** Room assignment solver maximizing mean satisfaction on a sparse graph. Every guest keeps only
+ * the k feasible rooms they are most satisfied with, plus the edges of one feasible assignment so
+ * that a matching of every guest exists. The sparse problem is solved by shortest augmenting paths
+ * (Dijkstra over reduced costs with a heap), which takes O(G * k) memory. The dual potentials then
+ * certify optimality for the dense problem: a pruned edge can only improve the matching if its
+ * weight exceeds what its guest earns over their room's potential. Guests failing this bound have
+ * their k most improving pruned edges added and the sparse problem is re-solved. If this does not
+ * certify the matching within a few rounds, the dense problem is solved instead. Whether it was is
+ * returned with the assignment in a Matching. */
+public class SparseMeanSat implements Solver<Assignment> {
+
+	/** Tolerance used when checking reduced costs */
+	private static final double TOL= 1e-9;
+	/** The number of sparse solves attempted before falling back to the dense problem */
+	private static final int ROUNDS= 10;
+
+	/** The number of rooms kept per guest (at least 1) */
+	private int k;
+
+	/** Construct a sparse solver keeping the 32 best rooms per guest */
+	public SparseMeanSat() {
+		this(32);
+	}
+
+	/** Construct a sparse solver keeping the k best rooms per guest
+	 *
+	 * @param k The number of rooms kept per guest (at least 1) */
+	public SparseMeanSat(int k) {
+		if (k < 1) throw new IllegalArgumentException("K less than 1");
+		this.k= k;
+	}
+
+	/** A room assignment and whether it was found on the dense problem */
+	public static class Matching {
+
+		/** The room assignment */
+		private final Assignment assignment;
+		/** True iff the sparse graph could not certify the assignment */
+		private final boolean dense;
+
+		private Matching(Assignment assignment, boolean dense) {
+			this.assignment= assignment;
+			this.dense= dense;
+		}
+
+		/** Return the room assignment */
+		public Assignment assignment() {
+			return assignment;
+		}
+
+		/** Return true iff the assignment could not be certified on the sparse graph and the <br>
+		 * dense problem was solved instead */
+		public boolean dense() {
+			return dense;
+		}
+	}
+
+	/** Return the room assignment maximizing mean satisfaction */
+	@Override
+	public Assignment solve(Instance instance) {
+		return match(instance).assignment();
+	}
+
+	/** Return the room assignment maximizing mean satisfaction and whether it was found on the <br>
+	 * dense problem */
+	public Matching match(Instance instance) {
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+		if (!instance.feasible()) throw new IllegalArgumentException("Instance is infeasible");
+
+		ArrayList<Guest> guests= instance.guests();
+		ArrayList<Room> rooms= instance.rooms();
+		int g= guests.size();
+		int n= rooms.size();
+
+		// Keep the k best feasible rooms of every guest; theta is the best weight pruned
+		int[][] adj= new int[g][];
+		double[][] cost= new double[g][];
+		double[] theta= new double[g];
+		double[] w= new double[n];
+		PriorityQueue<Integer> top= new PriorityQueue<>(Comparator.comparingDouble((Integer j) -> w[j]));
+		for (int i= 0; i < g; i++ ) {
+			Guest guest= guests.get(i);
+			theta[i]= Double.NEGATIVE_INFINITY;
+			top.clear();
+			for (int j= 0; j < n; j++ ) {
+				Room room= rooms.get(j);
+				if (room.type() < guest.type()) continue;
+				w[j]= instance.weight(guest, room);
+				top.add(j);
+				if (top.size() > k) theta[i]= Math.max(theta[i], w[top.poll()]);
+			}
+			adj[i]= new int[top.size()];
+			cost[i]= new double[top.size()];
+			for (int e= 0; !top.isEmpty(); e++ ) {
+				int j= top.poll();
+				adj[i][e]= j;
+				cost[i][e]= -w[j];
+			}
+		}
+
+		// Guarantee a matching of every guest with the edges of a greedy feasible assignment
+		Integer[] byType= new Integer[g];
+		for (int i= 0; i < g; i++ ) {
+			byType[i]= i;
+		}
+		Arrays.sort(byType, Comparator.comparingInt((Integer i) -> -guests.get(i).type()));
+		Integer[] roomsByType= new Integer[n];
+		for (int j= 0; j < n; j++ ) {
+			roomsByType[j]= j;
+		}
+		Arrays.sort(roomsByType, Comparator.comparingInt((Integer j) -> -rooms.get(j).type()));
+		for (int r= 0; r < g; r++ ) {
+			int i= byType[r];
+			addEdge(adj, cost, i, roomsByType[r], -instance.weight(guests.get(i), rooms.get(roomsByType[r])));
+		}
+
+		double[] v= new double[n];
+		int[] colOf= new int[g];
+		boolean dense= true;
+		for (int round= 0; round < ROUNDS && dense; round++ ) {
+			augmentAll(adj, cost, n, v, colOf);
+			dense= false;
+
+			// u[i]= cost of the matched edge minus its column potential; every free column has v= 0
+			for (int i= 0; i < g; i++ ) {
+				double ui= matchedCost(adj, cost, i, colOf[i]) - v[colOf[i]];
+				if (-theta[i] - ui >= -TOL) continue;
+
+				// The bound fails: add the k pruned edges with the most negative reduced costs
+				Guest guest= guests.get(i);
+				top.clear();
+				for (int j= 0; j < n; j++ ) {
+					Room room= rooms.get(j);
+					if (room.type() < guest.type()) continue;
+					w[j]= ui + v[j] + instance.weight(guest, room);
+					if (w[j] <= TOL) continue;
+					top.add(j);
+					if (top.size() > k) top.poll();
+				}
+				while (!top.isEmpty()) {
+					int j= top.poll();
+					if (addEdge(adj, cost, i, j, -instance.weight(guest, rooms.get(j)))) dense= true;
+				}
+			}
+		}
+
+		Assignment assignment= new Assignment(instance);
+		if (dense) {
+			Hungarian hungarian= new Hungarian(denseCost(instance, guests, rooms));
+			hungarian.solve();
+			for (int i= 0; i < g; i++ ) {
+				assignment.assign(guests.get(i), rooms.get(hungarian.col(i)));
+			}
+		} else {
+			for (int i= 0; i < g; i++ ) {
+				assignment.assign(guests.get(i), rooms.get(colOf[i]));
+			}
+		}
+		return new Matching(assignment, dense);
+	}
+
+	/** Match every row to a column by shortest augmenting paths from zero column potentials. Every <br>
+	 * column potential is at most 0 and the potential of every free column is 0. */
+	private static void augmentAll(int[][] adj, double[][] cost, int n, double[] v, int[] colOf) {
+		int g= adj.length;
+		Arrays.fill(v, 0);
+		Arrays.fill(colOf, -1);
+		int[] rowOf= new int[n];
+		Arrays.fill(rowOf, -1);
+
+		double[] d= new double[n];
+		Arrays.fill(d, Double.POSITIVE_INFINITY);
+		int[] pred= new int[n];
+		boolean[] scanned= new boolean[n];
+		int[] touched= new int[n];
+		PriorityQueue<double[]> heap= new PriorityQueue<>((a, b) -> Double.compare(a[0], b[0]));
+
+		for (int s= 0; s < g; s++ ) {
+			int size= 0;
+			heap.clear();
+			for (int e= 0; e < adj[s].length; e++ ) {
+				int j= adj[s][e];
+				double dj= cost[s][e] - v[j];
+				if (d[j] == Double.POSITIVE_INFINITY) touched[size++ ]= j;
+				if (dj < d[j]) {
+					d[j]= dj;
+					pred[j]= s;
+					heap.add(new double[] { dj, j });
+				}
+			}
+
+			int free= -1;
+			while (free == -1) {
+				double[] top= heap.poll();
+				int j= (int) top[1];
+				if (scanned[j] || top[0] > d[j]) continue;
+				scanned[j]= true;
+				int i= rowOf[j];
+				if (i == -1) {
+					free= j;
+					break;
+				}
+				double base= d[j] - (matchedCost(adj, cost, i, j) - v[j]);
+				for (int e= 0; e < adj[i].length; e++ ) {
+					int k= adj[i][e];
+					if (scanned[k]) continue;
+					double dk= base + cost[i][e] - v[k];
+					if (d[k] == Double.POSITIVE_INFINITY) touched[size++ ]= k;
+					if (dk < d[k]) {
+						d[k]= dk;
+						pred[k]= i;
+						heap.add(new double[] { dk, k });
+					}
+				}
+			}
+
+			// Update the potentials of scanned columns and augment along the path
+			double max= d[free];
+			for (int t= 0; t < size; t++ ) {
+				int j= touched[t];
+				if (scanned[j]) v[j]+= d[j] - max;
+				d[j]= Double.POSITIVE_INFINITY;
+				scanned[j]= false;
+			}
+			int j= free;
+			while (true) {
+				int i= pred[j];
+				int prev= colOf[i];
+				colOf[i]= j;
+				rowOf[j]= i;
+				if (i == s) break;
+				j= prev;
+			}
+		}
+	}
+
+	/** Return the cost of the edge from row i to column j (which must be an edge) */
+	private static double matchedCost(int[][] adj, double[][] cost, int i, int j) {
+		for (int e= 0; e < adj[i].length; e++ ) {
+			if (adj[i][e] == j) return cost[i][e];
+		}
+		throw new IllegalArgumentException("No edge from the row to the column");
+	}
+
+	/** Add the edge from row i to column j with the given cost. Return false if it already exists. */
+	private static boolean addEdge(int[][] adj, double[][] cost, int i, int j, double c) {
+		for (int e= 0; e < adj[i].length; e++ ) {
+			if (adj[i][e] == j) return false;
+		}
+		adj[i]= Arrays.copyOf(adj[i], adj[i].length + 1);
+		cost[i]= Arrays.copyOf(cost[i], cost[i].length + 1);
+		adj[i][adj[i].length - 1]= j;
+		cost[i][cost[i].length - 1]= c;
+		return true;
+	}
+
+	/** Return the dense square cost matrix of the given instance. Guests occupy the first rows and <br>
+	 * the remaining rows are vacancies with zero cost. */
+	private static double[][] denseCost(Instance instance, ArrayList<Guest> guests, ArrayList<Room> rooms) {
+		int n= rooms.size();
+		double[][] cost= new double[n][n];
+		for (int i= 0; i < guests.size(); i++ ) {
+			Guest guest= guests.get(i);
+			for (int j= 0; j < n; j++ ) {
+				Room room= rooms.get(j);
+				cost[i][j]= room.type() >= guest.type() ? -instance.weight(guest, room) : n + 1;
+			}
+		}
+		return cost;
+	}
+
+	@Override
+	public String toString() {
+		return "Sparse Mean Satisfaction";
+	}
+
+}
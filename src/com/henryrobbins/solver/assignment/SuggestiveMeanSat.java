@@ -0,0 +1,157 @@
+package com.henryrobbins.solver.assignment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Random;
+
+import com.henryrobbins.decision.Assignment;
+import com.henryrobbins.hotel.Guest;
+import com.henryrobbins.hotel.Instance;
+import com.henryrobbins.hotel.Room;
+import com.henryrobbins.solver.Solver;
+
+/** Room assignment solver making the decisions of SuggestiveMeanSatIP without an IP per guest and
+ * room. One Hungarian matching maximizing mean satisfaction is solved up front. When a guest
+ * arrives, a single shortest alternating path search over reduced costs gives the best total
+ * satisfaction achievable with that guest forced into every open room (keeping earlier guests
+ * fixed). Rooms within the alpha relaxation of the optimal mean satisfaction form the feasible set,
+ * from which a room is picked at random. The matching and dual potentials are then moved along the
+ * chosen path and reused for the next guest, for O(n^3) time in total. The feasible rooms of every
+ * guest are returned with the assignment in a Suggestion. Rooms are picked from the feasible set in
+ * the order of instance.rooms(), as in SuggestiveMeanSatIP, so both make the same picks given
+ * random sources in the same state. */
+public class SuggestiveMeanSat implements Solver<Assignment> {
+
+	/** Tolerance used when comparing total satisfaction against the relaxed optimum */
+	private static final double TOL= 1e-9;
+
+	/** The relaxation constant for mean satisfaction (in 0..1) */
+	private double alpha= 0.0;
+	/** The source of random room picks */
+	private Random random;
+
+	/** Construct a suggestive solver relaxed by alpha
+	 *
+	 * @param alpha The relaxation constant for mean satisfaction (in 0..1) */
+	public SuggestiveMeanSat(double alpha) {
+		this(alpha, new Random());
+	}
+
+	/** Construct a suggestive solver relaxed by alpha picking rooms with the given random source
+	 *
+	 * @param alpha  The relaxation constant for mean satisfaction (in 0..1)
+	 * @param random The source of random room picks (not null) */
+	public SuggestiveMeanSat(double alpha, Random random) {
+		if (alpha < 0 || alpha > 1) throw new IllegalArgumentException("Alpha not in range 0..1");
+		if (random == null) throw new IllegalArgumentException("Random was null");
+		this.alpha= alpha;
+		this.random= random;
+	}
+
+	/** A room assignment with the feasible rooms of every guest upon their arrival */
+	public static class Suggestion {
+
+		/** The room assignment */
+		private final Assignment assignment;
+		/** The feasible rooms of every guest upon their arrival */
+		private final HashMap<Guest, HashSet<Room>> feasible;
+
+		Suggestion(Assignment assignment, HashMap<Guest, HashSet<Room>> feasible) {
+			this.assignment= assignment;
+			this.feasible= feasible;
+		}
+
+		/** Return the room assignment */
+		public Assignment assignment() {
+			return assignment;
+		}
+
+		/** Return the feasible rooms of every guest upon their arrival */
+		public HashMap<Guest, HashSet<Room>> feasibleRooms() {
+			return feasible;
+		}
+	}
+
+	/** Return a room assignment chosen by finding all feasible room assignments maximizing mean
+	 * satisfaction for a guest upon arrival and selecting one */
+	@Override
+	public Assignment solve(Instance instance) {
+		return suggest(instance).assignment();
+	}
+
+	/** Return a room assignment chosen as in solve together with the feasible rooms of every <br>
+	 * guest upon their arrival */
+	public Suggestion suggest(Instance instance) {
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+		if (!instance.feasible()) throw new IllegalArgumentException("Instance is infeasible");
+
+		ArrayList<Room> rooms= instance.rooms();
+		ArrayList<Guest> guests= instance.guests();
+		int n= rooms.size();
+
+		// Guests occupy the first rows; the remaining rows are vacancies with zero cost
+		double[][] cost= new double[n][];
+		double[] vacancy= new double[n];
+		for (int i= 0; i < n; i++ ) {
+			if (i < guests.size()) {
+				Guest guest= guests.get(i);
+				cost[i]= new double[n];
+				for (int j= 0; j < n; j++ ) {
+					Room room= rooms.get(j);
+					cost[i][j]= room.type() >= guest.type() ? -instance.weight(guest, room) : n + 1;
+				}
+			} else {
+				cost[i]= vacancy;
+			}
+		}
+		Hungarian hungarian= new Hungarian(cost);
+		hungarian.solve();
+
+		// The minimum total satisfaction (cost of at most minus this amount)
+		double target= -hungarian.total() * alpha;
+
+		// Iterate through guests by arrival time
+		ArrayList<Integer> arrivals= new ArrayList<>();
+		for (int i= 0; i < guests.size(); i++ ) {
+			arrivals.add(i);
+		}
+		Collections.sort(arrivals, Comparator.comparingInt(i -> guests.get(i).arrival()));
+
+		HashMap<Guest, HashSet<Room>> feasible= new HashMap<>();
+		Assignment assignment= new Assignment(instance);
+		boolean[] fixed= new boolean[n];
+		for (int i : arrivals) {
+			Guest guest= guests.get(i);
+			double total= hungarian.total();
+			double[] d= hungarian.pathsTo(hungarian.col(i), fixed);
+
+			// Forcing the guest into room j costs reduced(i, j) + d[j] more than the current optimum
+			ArrayList<Integer> open= new ArrayList<>();
+			HashSet<Room> set= new HashSet<>();
+			for (int j= 0; j < n; j++ ) {
+				if (rooms.get(j).type() < guest.type() || d[j] == Double.POSITIVE_INFINITY) continue;
+				if (-(total + hungarian.reduced(i, j) + d[j]) >= target - TOL) {
+					open.add(j);
+					set.add(rooms.get(j));
+				}
+			}
+
+			// Arbitrarily picks random feasible room to assign
+			int j= open.get(random.nextInt(open.size()));
+			hungarian.rematch(i, j);
+			fixed[i]= true;
+			assignment.assign(guest, rooms.get(j));
+			feasible.put(guest, set);
+		}
+		return new Suggestion(assignment, feasible);
+	}
+
+	@Override
+	public String toString() {
+		return "Suggestive";
+	}
+
+}
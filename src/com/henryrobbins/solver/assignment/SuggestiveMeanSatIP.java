@@ -21,24 +21,43 @@ import com.henryrobbins.solver.Solver;
  * exists when that guest is assigned to that room. The constraint can be relaxed by an alpha value
  * in the range 0..1. If the assignment is feasible, that room is then added to a set of feasible
  * assignments. An assignment is then chosen from the feasible set. In practice, this could be
- * picked by a person but it is currently implemented to be random. */
+ * picked by a person but it is currently implemented to be random, in the order of
+ * instance.rooms() as in SuggestiveMeanSat. */
 public class SuggestiveMeanSatIP implements Solver<Assignment> {
 
 	/** The relaxation constant for mean satisfaction (in 0..1) */
 	private double alpha= 0.0;
+	/** The source of random room picks */
+	private Random random;
 
 	/** Construct a suggestive IP solver relaxed by alpha
 	 *
 	 * @param alpha The relaxation constant for mean satisfaction (in 0..1) */
 	public SuggestiveMeanSatIP(double alpha) {
+		this(alpha, new Random());
+	}
+
+	/** Construct a suggestive IP solver relaxed by alpha picking rooms with the given random source
+	 *
+	 * @param alpha  The relaxation constant for mean satisfaction (in 0..1)
+	 * @param random The source of random room picks (not null) */
+	public SuggestiveMeanSatIP(double alpha, Random random) {
 		if (alpha < 0 || alpha > 1) throw new IllegalArgumentException("Alpha not in range 0..1");
+		if (random == null) throw new IllegalArgumentException("Random was null");
 		this.alpha= alpha;
+		this.random= random;
 	}
 
 	/** Return a room assignment chosen by finding all feasible room assignments maximizing mean
 	 * satisfaction for a guest upon arrival and selecting one */
 	@Override
 	public Assignment solve(Instance instance) {
+		return suggest(instance).assignment();
+	}
+
+	/** Return a room assignment chosen as in solve together with the feasible rooms of every <br>
+	 * guest upon their arrival */
+	public SuggestiveMeanSat.Suggestion suggest(Instance instance) {
 		if (instance == null) throw new IllegalArgumentException("Instance is null");
 
 		Assignment assignment= new Assignment(instance);
@@ -53,6 +72,7 @@ public class SuggestiveMeanSatIP implements Solver<Assignment> {
 		Collections.sort(guests, Comparator.comparingInt(Guest::arrival));
 
 		AMPL ampl= AMPLHelper.createAMPL();
+		FeasibilityOracle oracle= new FeasibilityOracle(instance);
 
 		for (Guest guest : guests) {
 
@@ -81,10 +101,19 @@ public class SuggestiveMeanSatIP implements Solver<Assignment> {
 //			ampl.reset();
 
 			HashSet<Room> feasible= new HashSet<>();
+			ArrayList<Room> open= new ArrayList<>();
 
 			for (Room room : rooms) {
 
-				if (assignment.isRoomOpen(room) && room.type() >= guest.type()) {
+				// Rooms leaving a later guest without a room are never feasible
+				if (oracle.canAssign(guest, room)) {
+
+					// Without a mean satisfaction constraint, the oracle alone decides feasibility
+					if (average == 0) {
+						feasible.add(room);
+						open.add(room);
+						continue;
+					}
 
 					ampl.reset();
 					AMPLHelper.uploadModel(ampl, "assignment");
@@ -109,12 +138,15 @@ public class SuggestiveMeanSatIP implements Solver<Assignment> {
 					// If a feasible schedule exists, add this room to the list of feasible rooms
 					if (ampl.getObjective("Feasible").result().equals("solved")) {
 						feasible.add(room);
+						open.add(room);
 					}
 				}
 			}
 
 			// Arbitrarily picks random feasible room to assign
-			assignment.assign(guest, (Room) feasible.toArray()[new Random().nextInt(feasible.size())]);
+			Room pick= open.get(random.nextInt(open.size()));
+			assignment.assign(guest, pick);
+			oracle.assign(guest, pick);
 
 			flex.put(guest, feasible);
 			flexiblitity[guest.id() - 1]= feasible.size();
@@ -123,7 +155,7 @@ public class SuggestiveMeanSatIP implements Solver<Assignment> {
 
 		AMPLHelper.close(ampl);
 
-		return assignment;
+		return new SuggestiveMeanSat.Suggestion(assignment, flex);
 
 	}
 
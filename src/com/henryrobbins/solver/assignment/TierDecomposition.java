@@ -0,0 +1,82 @@
+package com.henryrobbins.solver.assignment;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import com.henryrobbins.decision.Assignment;
+import com.henryrobbins.hotel.Guest;
+import com.henryrobbins.hotel.Instance;
+import com.henryrobbins.hotel.InstanceFactory;
+import com.henryrobbins.hotel.Room;
+import com.henryrobbins.solver.Solver;
+
+/** Wherever the room type capacity constraint has no slack, guests requesting that type or greater
+ * must be assigned exactly the rooms of that type or greater. This solver splits an instance into
+ * these independent tiers, solves every tier in parallel with the given assignment solver, and
+ * merges the results. The merged assignment is optimal whenever the objective is a sum over guests
+ * (e.g. Mean_Satisfaction, Below_Tau, Upgrades) or the minimum over guests (Min_Satisfaction). */
+public class TierDecomposition implements Solver<Assignment> {
+
+	/** The assignment solver used to solve every tier */
+	private Solver<Assignment> solver;
+	/** The pool on which the tiers are solved */
+	private ForkJoinPool pool;
+
+	/** Construct a tier decomposition solving tiers on the common pool
+	 *
+	 * @param solver The assignment solver used to solve every tier (not null) */
+	public TierDecomposition(Solver<Assignment> solver) {
+		this(solver, ForkJoinPool.commonPool());
+	}
+
+	/** Construct a tier decomposition solving tiers on the given pool
+	 *
+	 * @param solver The assignment solver used to solve every tier (not null)
+	 * @param pool   The pool on which the tiers are solved (not null) */
+	public TierDecomposition(Solver<Assignment> solver, ForkJoinPool pool) {
+		if (solver == null) throw new IllegalArgumentException("Assignment solver was null");
+		if (pool == null) throw new IllegalArgumentException("Pool was null");
+		this.solver= solver;
+		this.pool= pool;
+	}
+
+	/** Return the merged room assignment of the independently solved tiers */
+	@Override
+	public Assignment solve(Instance instance) {
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+
+		ArrayList<Instance> tiers= InstanceFactory.tiers(instance);
+		if (tiers.size() == 1) return solver.solve(instance);
+
+		ArrayList<Callable<Assignment>> tasks= new ArrayList<>();
+		for (Instance tier : tiers) {
+			tasks.add(() -> solver.solve(tier));
+		}
+
+		Assignment assignment= new Assignment(instance);
+		for (Future<Assignment> future : pool.invokeAll(tasks)) {
+			try {
+				for (Map.Entry<Guest, Room> entry : future.get().assignment().entrySet()) {
+					if (entry.getValue() != null) assignment.assign(entry.getKey(), entry.getValue());
+				}
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+				throw new IllegalStateException("A tier could not be solved", e.getCause());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while solving tiers", e);
+			}
+		}
+		return assignment;
+	}
+
+	@Override
+	public String toString() {
+		return solver + " (Tiers)";
+	}
+
+}
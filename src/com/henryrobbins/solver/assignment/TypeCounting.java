@@ -0,0 +1,61 @@
+package com.henryrobbins.solver.assignment;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+
+import com.henryrobbins.decision.Assignment;
+import com.henryrobbins.hotel.Guest;
+import com.henryrobbins.hotel.Instance;
+import com.henryrobbins.hotel.Room;
+import com.henryrobbins.solver.Solver;
+
+/** Room assignment solver constructing a feasible assignment without an IP. As guests arrive, every
+ * guest is assigned the first open room of the minimum type which the feasibility oracle accepts.
+ * Unlike Linear, the assignment never runs out of rooms satisfying a later guest's request. */
+public class TypeCounting implements Solver<Assignment> {
+
+	/** Return a feasible room assignment */
+	@Override
+	public Assignment solve(Instance instance) {
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+		if (!instance.feasible()) throw new IllegalArgumentException("Instance is infeasible");
+
+		Assignment assignment= new Assignment(instance);
+		FeasibilityOracle oracle= new FeasibilityOracle(instance);
+		ArrayList<Room> rooms= instance.rooms();
+		ArrayList<Guest> guests= instance.guests();
+
+		// Open rooms of every type by room number
+		Collections.sort(rooms, Comparator.comparingInt(Room::num));
+		HashMap<Integer, ArrayDeque<Room>> open= new HashMap<>();
+		int maxType= 0;
+		for (Room room : rooms) {
+			open.computeIfAbsent(room.type(), t -> new ArrayDeque<>()).add(room);
+			maxType= Math.max(maxType, room.type());
+		}
+
+		Collections.sort(guests, Comparator.comparingInt(Guest::arrival));
+		for (Guest guest : guests) {
+			for (int t= guest.type(); t <= maxType; t++ ) {
+				ArrayDeque<Room> queue= open.get(t);
+				if (queue != null && !queue.isEmpty() && oracle.assign(guest, queue.peek())) {
+					assignment.assign(guest, queue.poll());
+					break;
+				}
+				// A higher room type is only feasible if the next tier has slack
+				if (oracle.slack(t + 1) < 1) break;
+			}
+		}
+
+		return assignment;
+	}
+
+	@Override
+	public String toString() {
+		return "Type Counting";
+	}
+
+}
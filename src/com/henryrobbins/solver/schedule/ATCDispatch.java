@@ -0,0 +1,106 @@
+package com.henryrobbins.solver.schedule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import com.henryrobbins.decision.Schedule;
+import com.henryrobbins.hotel.Housekeeper;
+import com.henryrobbins.hotel.Instance;
+import com.henryrobbins.hotel.Room;
+import com.henryrobbins.solver.Solver;
+
+/** Dispatches rooms by apparent tardiness cost (see DispatchRule.ATC), where the due dates of every
+ * room type are the arrivals of the guests needing that type. The look-ahead parameter is tuned for
+ * every instance by a grid search: the rooms are dispatched once per look-ahead in the grid and the
+ * schedule with the least sum of tardiness (then the least sum of completion times) is returned.
+ * The tardiness of a schedule is measured as in the schedule model: the i-th room of a type to be
+ * completed serves the i-th guest needing that type, and is late by max(0, C - arrival + 1). */
+public class ATCDispatch implements Solver<Schedule> {
+
+	/** The default look-ahead parameters tried */
+	private static final double[] GRID= { 0.1, 0.25, 0.5, 1, 2, 4, 8 };
+
+	/** The look-ahead parameters tried */
+	private double[] grid;
+
+	/** Construct an ATC dispatch solver with the default grid of look-ahead parameters */
+	public ATCDispatch() {
+		this(GRID);
+	}
+
+	/** Construct an ATC dispatch solver trying the given look-ahead parameters
+	 *
+	 * @param grid The look-ahead parameters tried (not null, non-empty, and positive) */
+	public ATCDispatch(double[] grid) {
+		if (grid == null || grid.length == 0) throw new IllegalArgumentException("Grid is empty");
+		for (double k : grid) {
+			if (!(k > 0)) throw new IllegalArgumentException("Look-ahead not positive");
+		}
+		this.grid= Arrays.copyOf(grid, grid.length);
+	}
+
+	/** Return the ATC schedule with the least sum of tardiness over the grid */
+	@Override
+	public Schedule solve(Instance instance) {
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+
+		ArrayList<Room> rooms= instance.rooms();
+		int n= rooms.size();
+		int[][] due= NeededTypes.dueDates(instance.guests(), rooms);
+
+		int[] bestStart= null;
+		int[] bestKeeper= null;
+		long bestTardiness= Long.MAX_VALUE;
+		long bestSum= Long.MAX_VALUE;
+		for (double k : grid) {
+			int[] keeper= new int[n];
+			int[] start= new Dispatch(new DispatchRule.ATC(k)).dispatch(instance, rooms, keeper);
+			long tardiness= tardiness(rooms, start, due);
+			long sum= 0;
+			for (int j= 0; j < n; j++ ) {
+				sum+= start[j] + rooms.get(j).process() - 1;
+			}
+			if (tardiness < bestTardiness || tardiness == bestTardiness && sum < bestSum) {
+				bestTardiness= tardiness;
+				bestSum= sum;
+				bestStart= start;
+				bestKeeper= keeper;
+			}
+		}
+
+		Schedule schedule= new Schedule(instance);
+		ArrayList<Housekeeper> housekeepers= schedule.getHousekeepers();
+		for (int j= 0; j < n; j++ ) {
+			schedule.add(housekeepers.get(bestKeeper[j] - 1), rooms.get(j), bestStart[j]);
+		}
+		return schedule;
+	}
+
+	/** Return the sum of tardiness of the given start times, where the i-th room of every type <br>
+	 * to be completed is due at the i-th due date of that type */
+	static long tardiness(ArrayList<Room> rooms, int[] start, int[][] due) {
+		int n= rooms.size();
+		long[] packed= new long[n];
+		for (int j= 0; j < n; j++ ) {
+			Room room= rooms.get(j);
+			packed[j]= (long) room.type() << 32 | start[j] + room.process() - 1;
+		}
+		Arrays.sort(packed);
+		long tardiness= 0;
+		int i= 0;
+		for (int p= 0; p < n; p++ ) {
+			int type= (int) (packed[p] >>> 32);
+			int completion= (int) packed[p];
+			if (p > 0 && type != (int) (packed[p - 1] >>> 32)) i= 0;
+			if (i < due[type].length) tardiness+= Math.max(0, completion - due[type][i] + 1);
+			i++ ;
+		}
+		return tardiness;
+	}
+
+	@Override
+	public String toString() {
+		return "ATC Dispatch";
+	}
+
+}
@@ -0,0 +1,197 @@
+package com.henryrobbins.solver.schedule;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+
+import com.henryrobbins.decision.Schedule;
+import com.henryrobbins.hotel.Guest;
+import com.henryrobbins.hotel.Hotel;
+import com.henryrobbins.hotel.Housekeeper;
+import com.henryrobbins.hotel.Instance;
+import com.henryrobbins.hotel.Room;
+import com.henryrobbins.solver.Solver;
+
+/** Multi-resolution housekeeping scheduling. The instance is first coarsened: every coarse time
+ * interval is factor fine intervals long, so checkout and arrival times are rounded down and
+ * cleaning times are rounded to the nearest coarse interval (at least one). A schedule of the
+ * coarse instance is found by the given solver, which fixes the housekeeper of every room and the
+ * order in which each housekeeper cleans their rooms. Start times are then refined on the fine
+ * grid by one timing pass: in order, every room starts as soon as it is released and its
+ * housekeeper is free. For a fixed sequence this is optimal for every objective function that
+ * does not decrease as rooms are completed later. As rounding may leave housekeepers idle on the
+ * fine grid, the rooms are also dispatched in order of coarse start to whichever housekeeper is
+ * free first, and the better of the two schedules is returned.
+ *
+ * The time-indexed models have factor times fewer time intervals on the coarse grid. refine()
+ * returns the schedule with its objective value, the objective value of the coarse schedule in
+ * fine intervals (a coarse interval ending where its last fine interval ends), and the relative
+ * difference between the two. One solver may be shared by threads. */
+public class CoarseToFine implements Solver<Schedule> {
+
+	/** The name of the objective function reported ("Makespan" or "Sum_Completion_Time") */
+	private String obj;
+	/** The number of fine time intervals in every coarse time interval */
+	private int factor;
+	/** The solver scheduling the coarse instance */
+	private Solver<Schedule> coarse;
+
+	/** Construct a pipeline scheduling the coarse instance with the schedule model for the given <br>
+	 * objective function
+	 *
+	 * @param obj    The objective function ("Makespan" or "Sum_Completion_Time")
+	 * @param factor The number of fine time intervals in every coarse time interval (at least 1) */
+	public CoarseToFine(String obj, int factor) {
+		this(obj, factor, new ScheduleIPSolver(obj == null ? "Makespan" : obj));
+	}
+
+	/** Construct a pipeline scheduling the coarse instance with the given solver
+	 *
+	 * @param obj    The objective function reported ("Makespan" or "Sum_Completion_Time")
+	 * @param factor The number of fine time intervals in every coarse time interval (at least 1)
+	 * @param coarse The solver scheduling the coarse instance (not null) */
+	public CoarseToFine(String obj, int factor, Solver<Schedule> coarse) {
+		if (obj == null) throw new IllegalArgumentException("Objective function was null");
+		if (!obj.equals("Makespan") && !obj.equals("Sum_Completion_Time"))
+			throw new IllegalArgumentException("Objective function undefined");
+		if (factor < 1) throw new IllegalArgumentException("Factor less than 1");
+		if (coarse == null) throw new IllegalArgumentException("Coarse solver was null");
+		this.obj= obj;
+		this.factor= factor;
+		this.coarse= coarse;
+	}
+
+	/** The result of a solve */
+	public static class Refinement {
+
+		/** The refined schedule */
+		private final Schedule schedule;
+		/** The objective value of the refined schedule */
+		private final int value;
+		/** The objective value of the coarse schedule (in fine intervals) */
+		private final int coarseValue;
+
+		private Refinement(Schedule schedule, int value, int coarseValue) {
+			this.schedule= schedule;
+			this.value= value;
+			this.coarseValue= coarseValue;
+		}
+
+		/** Return the refined schedule */
+		public Schedule schedule() {
+			return schedule;
+		}
+
+		/** Return the objective value of the refined schedule */
+		public int value() {
+			return value;
+		}
+
+		/** Return the objective value of the coarse schedule, measured in fine time intervals */
+		public int coarseValue() {
+			return coarseValue;
+		}
+
+		/** Return the relative difference between the refined and the coarse objective values <br>
+		 * (negative if refining improved on the coarse schedule) */
+		public double gap() {
+			return coarseValue == 0 ? 0 : (double) (value - coarseValue) / coarseValue;
+		}
+	}
+
+	/** Return the housekeeping schedule found on the coarse grid and refined on the fine grid */
+	@Override
+	public Schedule solve(Instance instance) {
+		return refine(instance).schedule();
+	}
+
+	/** Return the housekeeping schedule found on the coarse grid and refined on the fine grid, <br>
+	 * with its objective value and that of the coarse schedule */
+	public Refinement refine(Instance instance) {
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+
+		Instance coarseInstance= coarsen(instance, factor);
+		Schedule coarseSchedule= coarse.solve(coarseInstance);
+		if (!coarseSchedule.isValid()) throw new IllegalStateException("Coarse schedule is not valid");
+
+		// Completing in coarse interval c means completing by fine interval (c + 1) * factor - 1
+		int coarseValue= 0;
+		for (Room room : coarseInstance.rooms()) {
+			int completion= (coarseSchedule.completion(room) + 1) * factor - 1;
+			coarseValue= obj.equals("Makespan") ? Math.max(coarseValue, completion) : coarseValue + completion;
+		}
+
+		// Keep every housekeeper's sequence and start every room as early as possible
+		Schedule schedule= new Schedule(instance);
+		ArrayList<Housekeeper> housekeepers= schedule.getHousekeepers();
+		ArrayList<Housekeeper> coarseHousekeepers= coarseSchedule.getHousekeepers();
+		for (int k= 0; k < coarseHousekeepers.size(); k++ ) {
+			Housekeeper housekeeper= coarseHousekeepers.get(k);
+			LinkedList<Room> sequence= housekeeper.getSchedule();
+			sequence.sort((a, b) -> housekeeper.getStartTime(a) - housekeeper.getStartTime(b));
+			for (Room room : sequence) {
+				schedule.append(housekeepers.get(k), instance.room(room.num()));
+			}
+		}
+		int value= value(schedule, instance);
+
+		// Alternatively, dispatch the rooms to whichever housekeeper is free in order of coarse start
+		ArrayList<Room> rooms= instance.rooms();
+		double[] keys= new double[rooms.size()];
+		for (int j= 0; j < keys.length; j++ ) {
+			Room room= coarseInstance.room(rooms.get(j).num());
+			keys[j]= coarseSchedule.completion(room) - room.process();
+		}
+		Schedule dispatched= new Dispatch(new DispatchRule.Fixed(keys)).solve(instance);
+		int dispatchedValue= value(dispatched, instance);
+		if (dispatchedValue < value) return new Refinement(dispatched, dispatchedValue, coarseValue);
+		return new Refinement(schedule, value, coarseValue);
+	}
+
+	/** Return the objective value of the given schedule for the given instance */
+	private int value(Schedule schedule, Instance instance) {
+		int value= 0;
+		for (Room room : instance.rooms()) {
+			int completion= schedule.completion(room);
+			value= obj.equals("Makespan") ? Math.max(value, completion) : value + completion;
+		}
+		return value;
+	}
+
+	/** Return the given instance on a grid of time intervals factor times as long. Checkout and <br>
+	 * arrival times are rounded down, and cleaning times are rounded to the nearest interval <br>
+	 * (at least one). Rooms keep their numbers and guests their IDs and weights.
+	 *
+	 * @param instance The instance to coarsen (not null)
+	 * @param factor   The number of time intervals of the instance in every coarse interval (at least 1) */
+	public static Instance coarsen(Instance instance, int factor) {
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+		if (factor < 1) throw new IllegalArgumentException("Factor less than 1");
+
+		Hotel.Builder hotel= new Hotel.Builder();
+		hotel.setH(instance.getH());
+		HashMap<Integer, Room> rooms= new HashMap<>();
+		for (Room room : instance.rooms()) {
+			int process= Math.max(1, (room.process() + factor / 2) / factor);
+			Room coarseRoom= new Room(room.num(), room.type(), room.quality(), room.release() / factor, process);
+			hotel.addRoom(coarseRoom);
+			rooms.put(room.num(), coarseRoom);
+		}
+
+		Instance.Builder coarseInstance= new Instance.Builder(hotel.build());
+		for (Guest guest : instance.guests()) {
+			Guest coarseGuest= new Guest(guest.id(), guest.type(), guest.arrival() / factor);
+			coarseInstance.addGuest(coarseGuest);
+			for (Room room : instance.rooms()) {
+				coarseInstance.addWeight(coarseGuest, rooms.get(room.num()), instance.weight(guest, room));
+			}
+		}
+		return coarseInstance.build();
+	}
+
+	@Override
+	public String toString() {
+		return obj + " Coarse-to-Fine (" + factor + ")";
+	}
+
+}
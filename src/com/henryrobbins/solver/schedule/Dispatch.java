@@ -0,0 +1,218 @@
+package com.henryrobbins.solver.schedule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.PriorityQueue;
+
+import com.henryrobbins.decision.Schedule;
+import com.henryrobbins.hotel.Housekeeper;
+import com.henryrobbins.hotel.Instance;
+import com.henryrobbins.hotel.Room;
+import com.henryrobbins.solver.Solver;
+
+/** Event-driven list scheduling with a pluggable priority rule. Rooms are released in order of
+ * their checkout times and housekeepers are kept in a priority queue by the time they are next free.
+ * Whenever a housekeeper is free, every room released by then joins a ready heap keyed by the rule
+ * and the room with the smallest key is dispatched to them. If no room is ready, time advances to
+ * the next release. Keys are re-evaluated lazily when a room reaches the top of the heap, which is
+ * exact because keys may only increase. The engine works on primitive arrays and takes O(R log R)
+ * time for R rooms. Dynamic rules, whose keys depend on the time, instead have every released
+ * room re-keyed at every dispatch, in O(R^2) time. With the ERD rule, it schedules rooms as
+ * FirstAvailable does. An engine may be shared by threads, but since its rule holds the keys of
+ * one dispatch, their dispatches take turns. */
+public class Dispatch implements Solver<Schedule> {
+
+	/** The rule deciding which ready room is dispatched */
+	private DispatchRule rule;
+
+	/** Construct a dispatch engine with the given priority rule
+	 *
+	 * @param rule The rule deciding which ready room is dispatched (not null) */
+	public Dispatch(DispatchRule rule) {
+		if (rule == null) throw new IllegalArgumentException("Rule was null");
+		this.rule= rule;
+	}
+
+	/** Return the housekeeping schedule dispatched by the priority rule */
+	@Override
+	public Schedule solve(Instance instance) {
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+
+		ArrayList<Room> rooms= instance.rooms();
+		int[] housekeeper= new int[rooms.size()];
+		int[] start= dispatch(instance, rooms, housekeeper);
+
+		Schedule schedule= new Schedule(instance);
+		ArrayList<Housekeeper> housekeepers= schedule.getHousekeepers();
+		for (int j= 0; j < start.length; j++ ) {
+			schedule.add(housekeepers.get(housekeeper[j] - 1), rooms.get(j), start[j]);
+		}
+		return schedule;
+	}
+
+	/** Dispatch the given rooms of the given instance without building a Schedule. Return the <br>
+	 * start time of every room and store the ID of the housekeeper cleaning it in housekeeper.
+	 *
+	 * @param instance    The instance being scheduled (not null)
+	 * @param rooms       The rooms to dispatch
+	 * @param housekeeper Filled with the housekeeper (ID) of every room (same length as rooms) */
+	public int[] dispatch(Instance instance, ArrayList<Room> rooms, int[] housekeeper) {
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+		// Every housekeeper is next free at time 1 (the earliest start)
+		int[] available= new int[instance.getH()];
+		Arrays.fill(available, 1);
+		return dispatch(instance, rooms, available, housekeeper);
+	}
+
+	/** Dispatch the given rooms of the given instance to housekeepers who are first free at the <br>
+	 * given times. Return the start time of every room and store the index (in available) of <br>
+	 * the housekeeper cleaning it, plus one, in housekeeper.
+	 *
+	 * @param instance    The instance being scheduled (not null)
+	 * @param rooms       The rooms to dispatch
+	 * @param available   The time every housekeeper is first free (at least one housekeeper)
+	 * @param housekeeper Filled with the housekeeper (index plus one) of every room (same length as rooms) */
+	public int[] dispatch(Instance instance, ArrayList<Room> rooms, int[] available, int[] housekeeper) {
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+		int n= rooms.size();
+		if (housekeeper.length != n) throw new IllegalArgumentException("Housekeeper array length mismatch");
+		if (available.length == 0) throw new IllegalArgumentException("No housekeepers");
+
+		// The rule holds the keys of one dispatch, so threads sharing it dispatch in turn
+		synchronized (rule) {
+			return run(instance, rooms, available, housekeeper);
+		}
+	}
+
+	/** Dispatch as in dispatch, holding the lock of the rule */
+	private int[] run(Instance instance, ArrayList<Room> rooms, int[] available, int[] housekeeper) {
+		int n= rooms.size();
+		rule.reset(instance, rooms);
+
+		// Rooms by release time (then by index); position p in this order refers to room order[p]
+		int[] release= new int[n];
+		for (int j= 0; j < n; j++ ) {
+			release[j]= rooms.get(j).release();
+		}
+		int[] order= sortByRelease(release);
+
+		int h= available.length;
+		int[] free= Arrays.copyOf(available, h);
+		PriorityQueue<Integer> housekeepers= new PriorityQueue<>(
+			Comparator.comparingInt((Integer k) -> free[k]).thenComparingInt(k -> k));
+		for (int k= 0; k < h; k++ ) {
+			housekeepers.add(k);
+		}
+
+		boolean dynamic= rule.dynamic();
+		double[] key= new double[n];
+		int[] heap= new int[n];
+		int size= 0;
+		int next= 0;
+		int now= 1;
+		int[] start= new int[n];
+		for (int done= 0; done < n; done++ ) {
+			int k= housekeepers.poll();
+			int t= Math.max(now, free[k]);
+			if (size == 0) t= Math.max(t, release[order[next]] + 1);
+			now= t;
+
+			// Release every room checked out before time t
+			while (next < n && release[order[next]] < t) {
+				if (dynamic) {
+					heap[size++ ]= next++ ;
+				} else {
+					key[next]= rule.key(order[next]);
+					size= push(heap, size, next++ , key);
+				}
+			}
+
+			int p;
+			if (dynamic) {
+				// Scan the released rooms (kept unordered) for the smallest key at time t
+				int best= 0;
+				for (int i= 0; i < size; i++ ) {
+					key[heap[i]]= rule.key(order[heap[i]], t);
+					if (before(heap[i], heap[best], key)) best= i;
+				}
+				p= heap[best];
+				heap[best]= heap[--size];
+			} else {
+				// Pop the smallest key, re-keying rooms whose key has increased
+				while (true) {
+					p= heap[0];
+					size= pop(heap, size, key);
+					double fresh= rule.key(order[p]);
+					if (fresh <= key[p]) break;
+					key[p]= fresh;
+					size= push(heap, size, p, key);
+				}
+			}
+
+			int j= order[p];
+			start[j]= t;
+			housekeeper[j]= k + 1;
+			free[k]= t + rooms.get(j).process();
+			rule.dispatched(j);
+			housekeepers.add(k);
+		}
+		return start;
+	}
+
+	/** Return the indices of the given release times sorted by release time, then by index */
+	private static int[] sortByRelease(int[] release) {
+		int n= release.length;
+		long[] packed= new long[n];
+		for (int j= 0; j < n; j++ ) {
+			packed[j]= (long) release[j] << 32 | j;
+		}
+		Arrays.sort(packed);
+		int[] order= new int[n];
+		for (int p= 0; p < n; p++ ) {
+			order[p]= (int) packed[p];
+		}
+		return order;
+	}
+
+	/** Push position p on the binary heap of the given size ordered by key, then position. <br>
+	 * Return the new size of the heap. */
+	private static int push(int[] heap, int size, int p, double[] key) {
+		int i= size;
+		while (i > 0) {
+			int parent= (i - 1) / 2;
+			if (!before(p, heap[parent], key)) break;
+			heap[i]= heap[parent];
+			i= parent;
+		}
+		heap[i]= p;
+		return size + 1;
+	}
+
+	/** Remove the top of the binary heap of the given size. Return the new size of the heap. */
+	private static int pop(int[] heap, int size, double[] key) {
+		int last= heap[--size];
+		int i= 0;
+		while (true) {
+			int child= 2 * i + 1;
+			if (child >= size) break;
+			if (child + 1 < size && before(heap[child + 1], heap[child], key)) child++ ;
+			if (!before(heap[child], last, key)) break;
+			heap[i]= heap[child];
+			i= child;
+		}
+		heap[i]= last;
+		return size;
+	}
+
+	/** Return true iff position a comes before position b in the ready heap */
+	private static boolean before(int a, int b, double[] key) {
+		return key[a] < key[b] || key[a] == key[b] && a < b;
+	}
+
+	@Override
+	public String toString() {
+		return "Dispatch (" + rule + ")";
+	}
+
+}
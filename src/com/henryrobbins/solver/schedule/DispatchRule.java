@@ -0,0 +1,294 @@
+package com.henryrobbins.solver.schedule;
+
+import java.util.ArrayList;
+
+import com.henryrobbins.hotel.Instance;
+import com.henryrobbins.hotel.Room;
+
+/** A priority rule for the Dispatch engine. Whenever a housekeeper becomes free, the released room
+ * with the smallest key is dispatched to them (ties are broken by release time, then by the order
+ * of the rooms in the instance). Rooms are referred to by their index in the list of rooms given to
+ * reset. The key of a room may change as other rooms are dispatched, but it may only increase,
+ * unless the rule is dynamic: the keys of a dynamic rule depend on the time of dispatch and are
+ * re-evaluated for every released room at every dispatch. */
+public interface DispatchRule {
+
+	/** Prepare this rule to dispatch the given rooms of the given instance
+	 *
+	 * @param instance The instance being scheduled
+	 * @param rooms    The rooms of the instance (indexed as in key and dispatched) */
+	void reset(Instance instance, ArrayList<Room> rooms);
+
+	/** Return the priority key of room j (smaller keys are dispatched first) */
+	double key(int j);
+
+	/** Return the priority key of room j if dispatched at time t. Only dynamic rules use t. */
+	default double key(int j, int t) {
+		return key(j);
+	}
+
+	/** Return true iff the keys of this rule depend on the time of dispatch */
+	default boolean dynamic() {
+		return false;
+	}
+
+	/** Notify this rule that room j has been dispatched */
+	default void dispatched(int j) {}
+
+	/** Earliest release date: rooms are cleaned in the order they check out */
+	class ERD implements DispatchRule {
+
+		/** The release time of every room */
+		private int[] release;
+
+		@Override
+		public void reset(Instance instance, ArrayList<Room> rooms) {
+			release= new int[rooms.size()];
+			for (int j= 0; j < release.length; j++ ) {
+				release[j]= rooms.get(j).release();
+			}
+		}
+
+		@Override
+		public double key(int j) {
+			return release[j];
+		}
+
+		@Override
+		public String toString() {
+			return "ERD";
+		}
+	}
+
+	/** Shortest processing time: the quickest released room is cleaned first */
+	class SPT implements DispatchRule {
+
+		/** The processing time of every room */
+		private int[] process;
+
+		@Override
+		public void reset(Instance instance, ArrayList<Room> rooms) {
+			process= new int[rooms.size()];
+			for (int j= 0; j < process.length; j++ ) {
+				process[j]= rooms.get(j).process();
+			}
+		}
+
+		@Override
+		public double key(int j) {
+			return process[j];
+		}
+
+		@Override
+		public String toString() {
+			return "SPT";
+		}
+	}
+
+	/** Longest processing time: the slowest released room is cleaned first */
+	class LPT implements DispatchRule {
+
+		/** The processing time of every room */
+		private int[] process;
+
+		@Override
+		public void reset(Instance instance, ArrayList<Room> rooms) {
+			process= new int[rooms.size()];
+			for (int j= 0; j < process.length; j++ ) {
+				process[j]= rooms.get(j).process();
+			}
+		}
+
+		@Override
+		public double key(int j) {
+			return -process[j];
+		}
+
+		@Override
+		public String toString() {
+			return "LPT";
+		}
+	}
+
+	/** Earliest due date: the due date of a room is the earliest arrival among the guests still <br>
+	 * needing its type (as decided by NeededTypes). Rooms whose type is no longer needed have no <br>
+	 * due date and are dispatched last. */
+	class EDD implements DispatchRule {
+
+		/** The type of every room */
+		private int[] type;
+		/** The arrivals of the guests needing every type (in increasing order) */
+		private int[][] due;
+		/** The number of rooms dispatched of every type */
+		private int[] used;
+
+		@Override
+		public void reset(Instance instance, ArrayList<Room> rooms) {
+			due= NeededTypes.dueDates(instance.guests(), rooms);
+			type= new int[rooms.size()];
+			for (int j= 0; j < type.length; j++ ) {
+				type[j]= rooms.get(j).type();
+			}
+			used= new int[due.length];
+		}
+
+		@Override
+		public double key(int j) {
+			int t= type[j];
+			return used[t] < due[t].length ? due[t][used[t]] : Double.POSITIVE_INFINITY;
+		}
+
+		@Override
+		public void dispatched(int j) {
+			used[type[j]]++ ;
+		}
+
+		@Override
+		public String toString() {
+			return "EDD";
+		}
+	}
+
+	/** Needed first: rooms of a type still needed by the incoming guests (as decided by <br>
+	 * NeededTypes) are dispatched before rooms of types that are not needed. */
+	class Needed implements DispatchRule {
+
+		/** The type of every room */
+		private int[] type;
+		/** The number of rooms still needed of every type */
+		private int[] needed;
+
+		@Override
+		public void reset(Instance instance, ArrayList<Room> rooms) {
+			type= new int[rooms.size()];
+			int maxType= 0;
+			for (int j= 0; j < type.length; j++ ) {
+				type[j]= rooms.get(j).type();
+				maxType= Math.max(maxType, type[j]);
+			}
+			needed= new int[maxType + 1];
+			for (int t : NeededTypes.minTypes(instance.guests(), rooms)) {
+				needed[t]++ ;
+			}
+		}
+
+		@Override
+		public double key(int j) {
+			return needed[type[j]] > 0 ? 0 : 1;
+		}
+
+		@Override
+		public void dispatched(int j) {
+			if (needed[type[j]] > 0) needed[type[j]]-- ;
+		}
+
+		@Override
+		public String toString() {
+			return "Needed First";
+		}
+	}
+
+	/** Apparent tardiness cost: the due date of a room is its EDD due date, and a room dispatched <br>
+	 * at time t has priority exp(-slack / (k * pbar)) / p, where p is its cleaning time, slack is <br>
+	 * the time it could still wait and be completed before its due date (at least 0), and pbar <br>
+	 * is the mean cleaning time. A small look-ahead k favours rooms about to be late; a large k <br>
+	 * tends to shortest processing time. Rooms with no due date are dispatched last. There are <br>
+	 * no setup times between rooms, so this is ATC rather than ATCS. */
+	class ATC implements DispatchRule {
+
+		/** The look-ahead parameter */
+		private double k;
+		/** The type and cleaning time of every room */
+		private int[] type, process;
+		/** The arrivals of the guests needing every type (in increasing order) */
+		private int[][] due;
+		/** The number of rooms dispatched of every type */
+		private int[] used;
+		/** The mean cleaning time */
+		private double mean;
+
+		/** Construct an ATC rule with the given look-ahead parameter
+		 *
+		 * @param k The look-ahead parameter (positive) */
+		public ATC(double k) {
+			if (!(k > 0)) throw new IllegalArgumentException("Look-ahead not positive");
+			this.k= k;
+		}
+
+		@Override
+		public void reset(Instance instance, ArrayList<Room> rooms) {
+			due= NeededTypes.dueDates(instance.guests(), rooms);
+			type= new int[rooms.size()];
+			process= new int[rooms.size()];
+			mean= 0;
+			for (int j= 0; j < type.length; j++ ) {
+				type[j]= rooms.get(j).type();
+				process[j]= rooms.get(j).process();
+				mean+= (double) process[j] / type.length;
+			}
+			used= new int[due.length];
+		}
+
+		/** Return the key of room j once it can no longer be completed before its due date */
+		@Override
+		public double key(int j) {
+			int t= type[j];
+			return used[t] < due[t].length ? -1.0 / process[j] : 0;
+		}
+
+		@Override
+		public double key(int j, int t) {
+			int r= type[j];
+			if (used[r] >= due[r].length) return 0;
+			// The room is late iff it completes (at t + p - 1) at or after its due date
+			double slack= Math.max(0, due[r][used[r]] - process[j] - t);
+			return -Math.exp(-slack / (k * mean)) / process[j];
+		}
+
+		@Override
+		public boolean dynamic() {
+			return true;
+		}
+
+		@Override
+		public void dispatched(int j) {
+			used[type[j]]++ ;
+		}
+
+		@Override
+		public String toString() {
+			return "ATC " + k;
+		}
+	}
+
+	/** Fixed keys: every room keeps the key it is given, e.g. due dates computed elsewhere */
+	class Fixed implements DispatchRule {
+
+		/** The key of every room */
+		private double[] keys;
+
+		/** Construct a rule with the given key for every room
+		 *
+		 * @param keys The key of every room (indexed as the rooms given to reset) */
+		public Fixed(double[] keys) {
+			if (keys == null) throw new IllegalArgumentException("Keys were null");
+			this.keys= keys;
+		}
+
+		@Override
+		public void reset(Instance instance, ArrayList<Room> rooms) {
+			if (keys.length != rooms.size()) throw new IllegalArgumentException("Keys length mismatch");
+		}
+
+		@Override
+		public double key(int j) {
+			return keys[j];
+		}
+
+		@Override
+		public String toString() {
+			return "Fixed";
+		}
+	}
+
+}
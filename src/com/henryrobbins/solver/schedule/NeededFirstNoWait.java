@@ -1,9 +1,9 @@
 package com.henryrobbins.solver.schedule;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.LinkedList;
 import java.util.PriorityQueue;
 
 import com.henryrobbins.decision.Schedule;
@@ -31,28 +31,19 @@ public class NeededFirstNoWait implements Solver<Schedule> {
 		ArrayList<Room> rooms= instance.rooms();
 		ArrayList<Guest> guests= instance.guests();
 
-		// contains the multiset of all available room types
-		ArrayList<Integer> typeMultiset= new ArrayList<>();
-
+		// The number of rooms of every type needed to satisfy the requests, where every guest is
+		// given the minimum room type left of at least their request (see NeededTypes)
+		// Note: there are cases where an upgrade is forced because of low inventory of lower type
+		int maxType= 0;
 		for (Room room : rooms) {
-			typeMultiset.add(room.type());
+			maxType= Math.max(maxType, room.type());
 		}
-
-		// contains the "minimum" subset of room types needed to satisfy the requests
-		// "minimum" in that the minimum room type is assigned to every guest
-		// Note: there are cases where an upgrade is forced because of low inventory of lower type
-		ArrayList<Integer> minSet= new ArrayList<>();
-
-		for (Guest guest : guests) {
-			int request= guest.type();
-			while (!typeMultiset.contains(request)) {
-				request++ ;
-			}
-			typeMultiset.remove((Integer) request);
-			minSet.add(request);
+		int[] needed= new int[maxType + 1];
+		for (int type : NeededTypes.minTypes(guests, rooms)) {
+			needed[type]++ ;
 		}
 
-		LinkedList<Room> postponeQueue= new LinkedList<>();
+		ArrayDeque<Room> postponeQueue= new ArrayDeque<>();
 		PriorityQueue<Housekeeper> housekeepers= new PriorityQueue<>(Comparator.comparingInt(Housekeeper::getMakespan));
 
 		for (Housekeeper housekeeper : schedule.getHousekeepers()) {
@@ -67,15 +58,13 @@ public class NeededFirstNoWait implements Solver<Schedule> {
 			if (housekeepers.peek().getMakespan() <= room.release()) {
 				Housekeeper housekeeper= housekeepers.poll();
 				schedule.append(housekeeper, room);
-				if (minSet.contains(type)) {
-					minSet.remove((Integer) type);
-				}
+				if (needed[type] > 0) needed[type]-- ;
 				housekeepers.add(housekeeper);
 			} else {
-				if (minSet.contains(type)) {
+				if (needed[type] > 0) {
 					Housekeeper housekeeper= housekeepers.poll();
 					schedule.append(housekeeper, room);
-					minSet.remove((Integer) type);
+					needed[type]-- ;
 					housekeepers.add(housekeeper);
 
 				} else {
@@ -0,0 +1,98 @@
+package com.henryrobbins.solver.schedule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import com.henryrobbins.hotel.Guest;
+import com.henryrobbins.hotel.Room;
+
+/** Computes the "minimum" multiset of room types that satisfies a list of guests: every guest, in
+ * the given order, takes the smallest room type of at least their request that is still available.
+ * This accounts for upgrades forced by low inventory of lower types. Available types are kept as
+ * per-type counts with a pointer from every type to the next type with rooms left, so the multiset
+ * is computed in near linear time. */
+class NeededTypes {
+
+	/** Return the room type needed by every guest (in the order of the given list). Throw an <br>
+	 * IllegalArgumentException if some guest cannot be given a room of at least their request.
+	 *
+	 * @param guests The guests in the order their needs are decided
+	 * @param rooms  The rooms available to the guests */
+	static int[] minTypes(ArrayList<Guest> guests, ArrayList<Room> rooms) {
+		int maxType= 0;
+		for (Room room : rooms) {
+			maxType= Math.max(maxType, room.type());
+		}
+		int[] count= counts(rooms, maxType);
+
+		// next[t] is a type at least t whose count may be positive (maxType + 1 if none)
+		int[] next= new int[maxType + 2];
+		for (int t= 0; t < next.length; t++ ) {
+			next[t]= t;
+		}
+
+		int[] types= new int[guests.size()];
+		for (int i= 0; i < types.length; i++ ) {
+			int request= guests.get(i).type();
+			int t= request > maxType ? maxType + 1 : find(next, count, request);
+			if (t > maxType) throw new IllegalArgumentException("Instance is infeasible");
+			count[t]-- ;
+			types[i]= t;
+		}
+		return types;
+	}
+
+	/** Return the due dates of every room type (indexed by type up to the largest type of the <br>
+	 * given rooms): the arrivals, in increasing order, of the guests needing that type. The <br>
+	 * i-th room of a type to be cleaned is taken to serve the i-th of these guests.
+	 *
+	 * @param guests The guests in the order their needs are decided
+	 * @param rooms  The rooms available to the guests */
+	static int[][] dueDates(ArrayList<Guest> guests, ArrayList<Room> rooms) {
+		int[] needed= minTypes(guests, rooms);
+		int maxType= 0;
+		for (Room room : rooms) {
+			maxType= Math.max(maxType, room.type());
+		}
+		int[] count= new int[maxType + 1];
+		for (int t : needed) {
+			count[t]++ ;
+		}
+		int[][] due= new int[maxType + 1][];
+		for (int t= 0; t <= maxType; t++ ) {
+			due[t]= new int[count[t]];
+		}
+		int[] used= new int[maxType + 1];
+		for (int i= 0; i < needed.length; i++ ) {
+			due[needed[i]][used[needed[i]]++ ]= guests.get(i).arrival();
+		}
+		for (int t= 0; t <= maxType; t++ ) {
+			Arrays.sort(due[t]);
+		}
+		return due;
+	}
+
+	/** Return the number of rooms of every type (indexed by type up to maxType) */
+	static int[] counts(ArrayList<Room> rooms, int maxType) {
+		int[] count= new int[maxType + 1];
+		for (Room room : rooms) {
+			count[room.type()]++ ;
+		}
+		return count;
+	}
+
+	/** Return the smallest type of at least t with a positive count, compressing the pointers */
+	private static int find(int[] next, int[] count, int t) {
+		int root= t;
+		while (root < count.length && count[root] == 0) {
+			root= next[root] == root ? root + 1 : next[root];
+		}
+		while (t < root) {
+			int up= next[t] == t ? t + 1 : next[t];
+			next[t]= root;
+			t= up;
+		}
+		return root;
+	}
+
+}
@@ -0,0 +1,486 @@
+package com.henryrobbins.solver.schedule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import com.henryrobbins.decision.Assignment;
+import com.henryrobbins.decision.Schedule;
+import com.henryrobbins.hotel.Guest;
+import com.henryrobbins.hotel.Housekeeper;
+import com.henryrobbins.hotel.Instance;
+import com.henryrobbins.hotel.Room;
+import com.henryrobbins.solver.Solver;
+
+/** Housekeeping solver minimizing the makespan (P|r_j|Cmax) or the maximum lateness (P|r_j|Lmax)
+ * by branch and bound, without AMPL. A schedule is built as a list: the next room in the list is
+ * started as soon as possible by the housekeeper who is free first. Since housekeepers are
+ * identical, no branching on housekeepers is needed, and every optimal schedule can be built this
+ * way. The search only branches on rooms that could start before any other room is completed
+ * (active schedules) and on the first unscheduled room of every set of identical rooms. Rooms
+ * listed consecutively while several housekeepers are free are only listed in order of start.
+ *
+ * Every node is bounded below by the larger of two bounds. The first is the earliest completion of
+ * every room on its own. The second is the preemptive relaxation in which the housekeepers act as
+ * one machine of H times the speed: for every start time tau and lateness offset, the rooms that
+ * can start no earlier than tau and have at least that offset need their work to be done after
+ * tau, in the time housekeepers have left once they are free. Nodes are also pruned by energetic
+ * reasoning: if some time interval cannot fit the work that must be done within it for the
+ * incumbent to be improved, no completion of the node improves it. The same test raises the bound
+ * at the root. The incumbent starts as the best of the ERD, LPT and EDD dispatch schedules, and
+ * the search stops early once it meets the root bound (or a maximum tardiness of 0).
+ *
+ * The search returns the incumbent once the node limit is reached (or the thread is interrupted),
+ * in which case optimal() of the returned Search is false. Instances of around 50 rooms are
+ * usually solved to optimality well within the default limit; larger instances may not be.
+ *
+ * For Max_Tardiness, rooms without a deadline never count towards the objective, so they are left
+ * out of the search and cleaned once every room with a deadline has been scheduled.
+ *
+ * Every solve runs its own Search, so one solver may be shared by several threads. */
+public class ScheduleBranchAndBound implements Solver<Schedule> {
+
+	/** The default number of nodes explored before the incumbent is returned */
+	private static final long NODE_LIMIT= 2_000_000;
+
+	/** The name of the objective function ("Makespan" or "Max_Tardiness") */
+	private String obj;
+	/** The number of nodes explored before the incumbent is returned */
+	private long nodeLimit;
+
+	/** Construct a branch and bound solver for the specified objective function
+	 *
+	 * @param obj The objective function ("Makespan" or "Max_Tardiness") */
+	public ScheduleBranchAndBound(String obj) {
+		this(obj, NODE_LIMIT);
+	}
+
+	/** Construct a branch and bound solver for the specified objective function which returns <br>
+	 * the best schedule found after exploring the given number of nodes.
+	 *
+	 * @param obj       The objective function ("Makespan" or "Max_Tardiness")
+	 * @param nodeLimit The number of nodes explored before returning (at least 1) */
+	public ScheduleBranchAndBound(String obj, long nodeLimit) {
+		if (obj == null) throw new IllegalArgumentException("Objective function was null");
+		if (!obj.equals("Makespan") && !obj.equals("Max_Tardiness"))
+			throw new IllegalArgumentException("Objective function undefined");
+		if (nodeLimit < 1) throw new IllegalArgumentException("Node limit less than 1");
+		this.obj= obj;
+		this.nodeLimit= nodeLimit;
+	}
+
+	/** Return the housekeeping schedule optimizing the objective function. As in the <br>
+	 * schedule model, no room has a deadline unless one is given by an assignment. */
+	@Override
+	public Schedule solve(Instance instance) {
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+		return search(instance, null).schedule();
+	}
+
+	/** Return the housekeeping schedule optimizing the objective function where every room's <br>
+	 * deadline is the arrival of the guest it is assigned to (as in ScheduleSTAssignmentIP).
+	 *
+	 * @param instance   The instance to be scheduled (not null)
+	 * @param assignment A room assignment for the instance giving deadlines (null if none) */
+	public Schedule solve(Instance instance, Assignment assignment) {
+		return search(instance, assignment).schedule();
+	}
+
+	/** Return the search for the housekeeping schedule optimizing the objective function where <br>
+	 * every room's deadline is the arrival of the guest it is assigned to (if any). The search <br>
+	 * holds the schedule with its objective value and whether it was proved optimal.
+	 *
+	 * @param instance   The instance to be scheduled (not null)
+	 * @param assignment A room assignment for the instance giving deadlines (null if none) */
+	public Search search(Instance instance, Assignment assignment) {
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+		if (assignment != null && !assignment.isAssignmentFor(instance))
+			throw new IllegalArgumentException("This assignment is not for this instance");
+
+		// The rooms counting towards the objective; lateness is completion + 1 - deadline
+		ArrayList<Room> all= instance.rooms();
+		ArrayList<Room> rooms= new ArrayList<>();
+		ArrayList<Room> rest= new ArrayList<>();
+		ArrayList<Integer> offsets= new ArrayList<>();
+		for (Room room : all) {
+			if (obj.equals("Makespan")) {
+				rooms.add(room);
+				offsets.add(0);
+			} else {
+				Guest guest= assignment == null ? null : assignment.assignment().getKey(room);
+				if (guest == null) {
+					rest.add(room);
+				} else {
+					rooms.add(room);
+					offsets.add(1 - guest.arrival());
+				}
+			}
+		}
+
+		int[] offset= new int[rooms.size()];
+		for (int j= 0; j < offset.length; j++ ) {
+			offset[j]= offsets.get(j);
+		}
+		int[] available= new int[instance.getH()];
+		Arrays.fill(available, 1);
+		int n= rooms.size();
+		Search search= new Search(obj, nodeLimit);
+		int[] keeper= new int[n];
+		int[] start= search.optimize(instance, rooms, offset, available, keeper);
+
+		Schedule schedule= new Schedule(instance);
+		ArrayList<Housekeeper> housekeepers= schedule.getHousekeepers();
+		int[] free= Arrays.copyOf(available, available.length);
+		for (int j= 0; j < n; j++ ) {
+			schedule.add(housekeepers.get(keeper[j]), rooms.get(j), start[j]);
+			free[keeper[j]]= Math.max(free[keeper[j]], start[j] + rooms.get(j).process());
+		}
+
+		// Rooms without a deadline are cleaned last in order of release
+		rest.sort(Comparator.comparingInt(Room::release));
+		for (Room room : rest) {
+			int m= 0;
+			for (int k= 1; k < free.length; k++ ) {
+				if (free[k] < free[m]) m= k;
+			}
+			int s= Math.max(free[m], room.release() + 1);
+			schedule.add(housekeepers.get(m), room, s);
+			free[m]= s + room.process();
+		}
+		search.schedule= schedule;
+		return search;
+	}
+
+	/** Search for the best schedule of the given rooms of the given instance, with the given <br>
+	 * lateness offsets (completion + offset is the lateness), on housekeepers first free at the <br>
+	 * given times. Return the start time of every room and store the index (in available) of the <br>
+	 * housekeeper cleaning it in housekeeper.
+	 *
+	 * @param instance    The instance the rooms are from (not null)
+	 * @param rooms       The rooms to be scheduled
+	 * @param offsets     The lateness offset of every room (0 for the makespan)
+	 * @param available   The time every housekeeper is first free (at least one housekeeper)
+	 * @param housekeeper Filled with the housekeeper (index) of every room (same length as rooms) */
+	int[] optimize(Instance instance, ArrayList<Room> rooms, int[] offsets, int[] available, int[] housekeeper) {
+		return new Search(obj, nodeLimit).optimize(instance, rooms, offsets, available, housekeeper);
+	}
+
+	/** The state of one search, holding its result once done */
+	public static class Search {
+
+		/** The name of the objective function ("Makespan" or "Max_Tardiness") */
+		private final String obj;
+		/** The number of nodes explored before the incumbent is returned */
+		private final long nodeLimit;
+
+		// RESULT OF THE SEARCH
+		/** The schedule found (null until the search of a whole instance is done) */
+		private Schedule schedule;
+		/** True iff the search proved its schedule optimal */
+		private boolean optimal;
+		/** The number of nodes explored */
+		private long nodes;
+		/** The objective value of the schedule found */
+		private int value;
+
+		// STATE OF THE SEARCH (over the rooms counting towards the objective)
+		/** The release, processing time, and lateness offset of every room */
+		private int[] release, process, offset;
+		/** The index of the previous room identical to every room (-1 if none) */
+		private int[] twin;
+		/** Room indices in decreasing order of lateness offset */
+		private int[] byOffset;
+		/** The time every housekeeper is next free */
+		private int[] free;
+		/** The start time and housekeeper index of every scheduled room (start 0 if unscheduled) */
+		private int[] start, keeper;
+		/** The best start times and housekeeper indices found */
+		private int[] bestStart, bestKeeper;
+		/** The objective value of the best schedule found */
+		private int best;
+		/** A lower bound on the optimal objective value */
+		private int root;
+
+		private Search(String obj, long nodeLimit) {
+			this.obj= obj;
+			this.nodeLimit= nodeLimit;
+		}
+
+		/** Return the schedule found */
+		public Schedule schedule() {
+			return schedule;
+		}
+
+		/** Return true iff the search proved its schedule optimal */
+		public boolean optimal() {
+			return optimal;
+		}
+
+		/** Return the number of nodes explored */
+		public long nodes() {
+			return nodes;
+		}
+
+		/** Return the objective value of the schedule found (the makespan or the maximum <br>
+		 * tardiness) */
+		public int value() {
+			return value;
+		}
+
+		/** Search for the best schedule of the given rooms of the given instance, with the given <br>
+		 * lateness offsets (completion + offset is the lateness), on housekeepers first free at the <br>
+		 * given times. Return the start time of every room and store the index (in available) of the <br>
+		 * housekeeper cleaning it in housekeeper. The objective value is left in value.
+		 *
+		 * @param instance    The instance the rooms are from (not null)
+		 * @param rooms       The rooms to be scheduled
+		 * @param offsets     The lateness offset of every room (0 for the makespan)
+		 * @param available   The time every housekeeper is first free (at least one housekeeper)
+		 * @param housekeeper Filled with the housekeeper (index) of every room (same length as rooms) */
+		private int[] optimize(Instance instance, ArrayList<Room> rooms, int[] offsets, int[] available, int[] housekeeper) {
+			int n= rooms.size();
+			release= new int[n];
+			process= new int[n];
+			offset= Arrays.copyOf(offsets, n);
+			double[] due= new double[n];
+			for (int j= 0; j < n; j++ ) {
+				release[j]= rooms.get(j).release();
+				process[j]= rooms.get(j).process();
+				due[j]= -offset[j];
+			}
+
+			// Identical rooms are interchangeable, so only the first unscheduled one is branched on
+			twin= new int[n];
+			Arrays.fill(twin, -1);
+			for (int j= 0; j < n; j++ ) {
+				for (int i= j - 1; i >= 0 && twin[j] == -1; i-- ) {
+					if (release[i] == release[j] && process[i] == process[j] && offset[i] == offset[j]) twin[j]= i;
+				}
+			}
+			Integer[] order= new Integer[n];
+			for (int j= 0; j < n; j++ ) {
+				order[j]= j;
+			}
+			Arrays.sort(order, Comparator.comparingInt((Integer j) -> -offset[j]));
+			byOffset= new int[n];
+			for (int j= 0; j < n; j++ ) {
+				byOffset[j]= order[j];
+			}
+
+			// The incumbent is the best dispatch schedule
+			best= Integer.MAX_VALUE;
+			for (DispatchRule rule : new DispatchRule[] { new DispatchRule.ERD(), new DispatchRule.LPT(),
+				new DispatchRule.Fixed(due) }) {
+				int[] keeper= new int[n];
+				int[] start= new Dispatch(rule).dispatch(instance, rooms, available, keeper);
+				int val= Integer.MIN_VALUE;
+				for (int j= 0; j < n; j++ ) {
+					val= Math.max(val, start[j] + process[j] - 1 + offset[j]);
+					keeper[j]-- ;
+				}
+				if (val < best) {
+					best= val;
+					bestStart= start;
+					bestKeeper= keeper;
+				}
+			}
+
+			free= Arrays.copyOf(available, available.length);
+			start= new int[n];
+			keeper= new int[n];
+			nodes= 0;
+			optimal= true;
+			if (n > 0) {
+				// The root bound is raised while energetic reasoning proves it infeasible
+				root= bound();
+				while (root < best && !feasible(root)) {
+					root++ ;
+				}
+				// Tardiness is never negative, so any lateness of at most 0 is optimal
+				if (obj.equals("Max_Tardiness")) root= Math.max(root, 0);
+				if (root < best) explore(n, Integer.MIN_VALUE, 0, 0, -1);
+			}
+			value= obj.equals("Makespan") ? best : Math.max(0, best);
+			System.arraycopy(bestKeeper, 0, housekeeper, 0, n);
+			return bestStart;
+		}
+
+		/** Explore the node with the given number of unscheduled rooms and objective value so far. <br>
+		 * The previous room in the list is room lastJ, decided at time lastT and started at lastS. */
+		private void explore(int left, int cur, int lastT, int lastS, int lastJ) {
+			if (left == 0) {
+				best= cur;
+				bestStart= Arrays.copyOf(start, start.length);
+				bestKeeper= Arrays.copyOf(keeper, keeper.length);
+				return;
+			}
+			if (++nodes > nodeLimit || Thread.currentThread().isInterrupted()) {
+				optimal= false;
+				return;
+			}
+			if (!feasible(best - 1)) return;
+
+			// The next room goes to the housekeeper who is free first
+			int m= 0;
+			for (int k= 1; k < free.length; k++ ) {
+				if (free[k] < free[m]) m= k;
+			}
+			int t= free[m];
+
+			// Rooms starting no earlier than the earliest completion of another room are dominated
+			int ect= Integer.MAX_VALUE;
+			for (int j= 0; j < start.length; j++ ) {
+				if (start[j] == 0) ect= Math.min(ect, Math.max(t, release[j] + 1) + process[j]);
+			}
+
+			// Children are ordered by their bound, then by release
+			int[] candidate= new int[left];
+			int[] bounds= new int[left];
+			int size= 0;
+			for (int j= 0; j < start.length; j++ ) {
+				if (start[j] != 0 || twin[j] != -1 && start[twin[j]] == 0) continue;
+				int s= Math.max(t, release[j] + 1);
+				if (s >= ect) continue;
+				// Rooms decided at the same time go to different housekeepers, so order them by start
+				if (t == lastT && (s < lastS || s == lastS && j < lastJ)) continue;
+
+				int val= Math.max(cur, s + process[j] - 1 + offset[j]);
+				start[j]= s;
+				free[m]= s + process[j];
+				int lb= Math.max(val, bound());
+				start[j]= 0;
+				free[m]= t;
+				if (lb >= best) continue;
+
+				int c= size++ ;
+				while (c > 0 && (lb < bounds[c - 1] || lb == bounds[c - 1] && release[j] < release[candidate[c - 1]])) {
+					candidate[c]= candidate[c - 1];
+					bounds[c]= bounds[c - 1];
+					c-- ;
+				}
+				candidate[c]= j;
+				bounds[c]= lb;
+			}
+
+			for (int c= 0; c < size && optimal && best > root; c++ ) {
+				if (bounds[c] >= best) break;
+				int j= candidate[c];
+				int s= Math.max(t, release[j] + 1);
+				start[j]= s;
+				keeper[j]= m;
+				free[m]= s + process[j];
+				explore(left - 1, Math.max(cur, s + process[j] - 1 + offset[j]), t, s, j);
+				start[j]= 0;
+				free[m]= t;
+			}
+		}
+
+		/** Return a lower bound on the objective value of completing the current partial schedule */
+		private int bound() {
+			int t= Integer.MAX_VALUE;
+			for (int f : free) {
+				t= Math.min(t, f);
+			}
+
+			// Every room on its own, collecting the distinct earliest starts
+			int lb= Integer.MIN_VALUE;
+			int[] taus= new int[start.length];
+			int d= 0;
+			for (int j= 0; j < start.length; j++ ) {
+				if (start[j] != 0) continue;
+				int s= Math.max(t, release[j] + 1);
+				lb= Math.max(lb, s + process[j] - 1 + offset[j]);
+				taus[d++ ]= s;
+			}
+			Arrays.sort(taus, 0, d);
+
+			// Preemptive relaxation: work of rooms starting after tau with offset at least the current.
+			// Housekeeper k is available from a[k] = max(tau, free[k]), so by time T the housekeepers
+			// have capacity for sum over k of max(0, T - a[k]) units of work.
+			int h= free.length;
+			long[] a= new long[h];
+			long[] prefix= new long[h + 1];
+			for (int i= 0; i < d; i++ ) {
+				int tau= taus[i];
+				if (i > 0 && tau == taus[i - 1]) continue;
+				for (int k= 0; k < h; k++ ) {
+					a[k]= Math.max(tau, free[k]);
+				}
+				Arrays.sort(a);
+				for (int k= 0; k < h; k++ ) {
+					prefix[k + 1]= prefix[k] + a[k];
+				}
+				long work= 0;
+				for (int j : byOffset) {
+					if (start[j] != 0 || Math.max(t, release[j] + 1) < tau) continue;
+					work+= process[j];
+
+					// The earliest time T with enough capacity, using the k earliest housekeepers
+					long time= Long.MAX_VALUE;
+					for (int k= 1; k <= h; k++ ) {
+						time= Math.min(time, Math.max(a[k - 1], (work + prefix[k] + k - 1) / k));
+					}
+					lb= Math.max(lb, (int) time - 1 + offset[j]);
+				}
+			}
+			return lb;
+		}
+
+		/** Return false if energetic reasoning proves that the unscheduled rooms cannot be completed <br>
+		 * with objective value at most target. Every room j must be cleaned within its window from <br>
+		 * its earliest start to target - offset + 1, so in every interval [t1, t2) it needs at least <br>
+		 * the part of its processing time that cannot be shifted out of the interval. */
+		private boolean feasible(int target) {
+			int t= Integer.MAX_VALUE;
+			for (int f : free) {
+				t= Math.min(t, f);
+			}
+			int n= start.length;
+			int[] est= new int[n];
+			int[] end= new int[n];
+			int[] lefts= new int[2 * n];
+			int[] rights= new int[2 * n];
+			int m= 0;
+			for (int j= 0; j < n; j++ ) {
+				if (start[j] != 0) continue;
+				est[j]= Math.max(t, release[j] + 1);
+				end[j]= target - offset[j] + 1;
+				if (est[j] + process[j] > end[j]) return false;
+				lefts[2 * m]= est[j];
+				lefts[2 * m + 1]= end[j] - process[j];
+				rights[2 * m]= end[j];
+				rights[2 * m + 1]= est[j] + process[j];
+				m++ ;
+			}
+			Arrays.sort(lefts, 0, 2 * m);
+			Arrays.sort(rights, 0, 2 * m);
+			for (int a= 0; a < 2 * m; a++ ) {
+				int t1= lefts[a];
+				if (a > 0 && t1 == lefts[a - 1]) continue;
+				for (int b= 0; b < 2 * m; b++ ) {
+					int t2= rights[b];
+					if (t2 <= t1 || b > 0 && t2 == rights[b - 1]) continue;
+					long capacity= 0;
+					for (int f : free) {
+						capacity+= Math.max(0, t2 - Math.max(t1, f));
+					}
+					long work= 0;
+					for (int j= 0; j < n && work <= capacity; j++ ) {
+						if (start[j] != 0) continue;
+						int w= Math.min(Math.min(t2 - t1, process[j]),
+							Math.min(est[j] + process[j] - t1, t2 - end[j] + process[j]));
+						if (w > 0) work+= w;
+					}
+					if (work > capacity) return false;
+				}
+			}
+			return true;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return obj + " Branch and Bound";
+	}
+
+}
@@ -10,24 +10,52 @@ public class ScheduleIPSolver implements Solver<Schedule> {
 
 	/** The name of the objective function to be optimized */
 	private String obj;
+	/** The name of the schedule model run */
+	private String model;
 
 	/** Construct solver with specified objective function
 	 *
 	 * @param obj The objective function this solver will optimize */
 	public ScheduleIPSolver(String obj) {
+		this(obj, false);
+	}
+
+	/** Construct solver with specified objective function. If aggregate, the model only <br>
+	 * decides when every room starts (housekeepers being identical) and housekeepers are <br>
+	 * given to the rooms afterwards. This removes the symmetry between housekeepers.
+	 *
+	 * @param obj       The objective function this solver will optimize
+	 * @param aggregate True iff the housekeeper-aggregated model should be used */
+	public ScheduleIPSolver(String obj, boolean aggregate) {
+		this(obj, aggregate ? "scheduleAggregate" : "schedule");
+	}
+
+	/** Construct solver with specified objective function and schedule model: "schedule" <br>
+	 * (time-indexed), "scheduleAggregate" (time-indexed and housekeeper-aggregated), or <br>
+	 * "scheduleDisjunctive" (sequence-based, whose size does not depend on the length of <br>
+	 * a time interval).
+	 *
+	 * @param obj   The objective function this solver will optimize
+	 * @param model The name of the schedule model */
+	public ScheduleIPSolver(String obj, String model) {
 		if (obj == null) throw new IllegalArgumentException("Objective function was null");
+		if (!"schedule".equals(model) && !"scheduleAggregate".equals(model) && !"scheduleDisjunctive".equals(model))
+			throw new IllegalArgumentException("Schedule model undefined");
 		this.obj= obj;
+		this.model= model;
 	}
 
 	@Override
 	/** Return the housekeeping schedule optimizing the objective function */
 	public Schedule solve(Instance instance) {
 		if (instance == null) throw new IllegalArgumentException("Instance is null");
-		return AMPLHelper.runScheduleIP(instance, obj);
+		return AMPLHelper.runScheduleIP(instance, obj, model);
 	}
 
 	@Override
 	public String toString() {
+		if (model.equals("scheduleAggregate")) return obj + " (Aggregated)";
+		if (model.equals("scheduleDisjunctive")) return obj + " (Disjunctive)";
 		return obj;
 	}
 
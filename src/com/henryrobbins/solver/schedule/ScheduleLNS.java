@@ -0,0 +1,306 @@
+package com.henryrobbins.solver.schedule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import com.henryrobbins.decision.Assignment;
+import com.henryrobbins.decision.Schedule;
+import com.henryrobbins.hotel.Guest;
+import com.henryrobbins.hotel.Housekeeper;
+import com.henryrobbins.hotel.Instance;
+import com.henryrobbins.hotel.Room;
+import com.henryrobbins.solver.Solver;
+
+/** Large neighbourhood search minimizing the makespan or the maximum tardiness. Starting from the
+ * schedule of a constructive heuristic, every round frees several neighbourhoods: the rooms that a
+ * few housekeepers start from some time on. Everything else stays fixed, so every freed housekeeper
+ * is first available once their fixed rooms are cleaned, and the freed rooms are re-solved on them by
+ * ScheduleBranchAndBound (with a node limit). A neighbourhood is kept if it lowers the objective over
+ * its rooms, or keeps it and lowers their sum of completion times, so the objective never increases.
+ * The first neighbourhood of a round always holds a room attaining the objective when possible.
+ *
+ * The neighbourhoods of a round share no housekeeper, so they are solved in parallel on a
+ * ForkJoinPool and every kept neighbourhood is applied. Rounds repeat until the time budget is spent.
+ * Only the ends of housekeepers' days are freed, as the search cannot bound when a freed housekeeper
+ * must next be busy. */
+public class ScheduleLNS implements Solver<Schedule> {
+
+	/** The default time budget in milliseconds */
+	private static final long MILLIS= 1000;
+	/** The default largest number of rooms freed in a neighbourhood */
+	private static final int WINDOW= 24;
+	/** The number of nodes explored for every neighbourhood */
+	private static final long NODE_LIMIT= 20_000;
+
+	/** The name of the objective function ("Makespan" or "Max_Tardiness") */
+	private String obj;
+	/** The solver giving the initial schedule */
+	private Solver<Schedule> initial;
+	/** The time budget in milliseconds */
+	private long millis;
+	/** The largest number of rooms freed in a neighbourhood */
+	private int window;
+	/** The pool on which the neighbourhoods are solved */
+	private ForkJoinPool pool;
+
+	/** Construct a large neighbourhood search improving the ATC dispatch schedule for the given <br>
+	 * objective function on the common pool
+	 *
+	 * @param obj The objective function ("Makespan" or "Max_Tardiness") */
+	public ScheduleLNS(String obj) {
+		this(new ATCDispatch(), obj, MILLIS, WINDOW, ForkJoinPool.commonPool());
+	}
+
+	/** Construct a large neighbourhood search improving the schedule of the given solver for the <br>
+	 * given objective function, solving its neighbourhoods on the common pool
+	 *
+	 * @param initial The solver giving the initial schedule (not null)
+	 * @param obj     The objective function ("Makespan" or "Max_Tardiness")
+	 * @param millis  The time budget in milliseconds (at least 1)
+	 * @param window  The largest number of rooms freed in a neighbourhood (at least 1) */
+	public ScheduleLNS(Solver<Schedule> initial, String obj, long millis, int window) {
+		this(initial, obj, millis, window, ForkJoinPool.commonPool());
+	}
+
+	/** Construct a large neighbourhood search improving the schedule of the given solver for the <br>
+	 * given objective function, solving its neighbourhoods on the given pool
+	 *
+	 * @param initial The solver giving the initial schedule (not null)
+	 * @param obj     The objective function ("Makespan" or "Max_Tardiness")
+	 * @param millis  The time budget in milliseconds (at least 1)
+	 * @param window  The largest number of rooms freed in a neighbourhood (at least 1)
+	 * @param pool    The pool on which the neighbourhoods are solved (not null) */
+	public ScheduleLNS(Solver<Schedule> initial, String obj, long millis, int window, ForkJoinPool pool) {
+		if (initial == null) throw new IllegalArgumentException("Initial solver was null");
+		if (obj == null) throw new IllegalArgumentException("Objective function was null");
+		if (!obj.equals("Makespan") && !obj.equals("Max_Tardiness"))
+			throw new IllegalArgumentException("Objective function undefined");
+		if (millis < 1) throw new IllegalArgumentException("Time budget less than 1");
+		if (window < 1) throw new IllegalArgumentException("Window less than 1");
+		if (pool == null) throw new IllegalArgumentException("Pool was null");
+		this.initial= initial;
+		this.obj= obj;
+		this.millis= millis;
+		this.window= window;
+		this.pool= pool;
+	}
+
+	/** Return the best housekeeping schedule found. As in the schedule model, no room has a <br>
+	 * deadline unless one is given by an assignment. */
+	@Override
+	public Schedule solve(Instance instance) {
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+		return solve(instance, null);
+	}
+
+	/** Return the best housekeeping schedule found where every room's deadline is the arrival <br>
+	 * of the guest it is assigned to (as in ScheduleSTAssignmentIP).
+	 *
+	 * @param instance   The instance to be scheduled (not null)
+	 * @param assignment A room assignment for the instance giving deadlines (null if none) */
+	public Schedule solve(Instance instance, Assignment assignment) {
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+		if (assignment != null && !assignment.isAssignmentFor(instance))
+			throw new IllegalArgumentException("This assignment is not for this instance");
+		long until= System.nanoTime() + millis * 1_000_000;
+
+		ArrayList<Room> rooms= instance.rooms();
+		int n= rooms.size();
+		int h= instance.getH();
+		int[] process= new int[n];
+		int horizon= 1;
+		for (int j= 0; j < n; j++ ) {
+			process[j]= rooms.get(j).process();
+			horizon+= rooms.get(j).release() + process[j];
+		}
+
+		// The lateness of a room is completion + offset; rooms without a deadline never count
+		int[] offset= new int[n];
+		for (int j= 0; j < n; j++ ) {
+			if (obj.equals("Max_Tardiness")) {
+				Guest guest= assignment == null ? null : assignment.assignment().getKey(rooms.get(j));
+				offset[j]= guest == null ? -horizon : 1 - guest.arrival();
+			}
+		}
+
+		Schedule schedule= initial.solve(instance);
+		ArrayList<Housekeeper> housekeepers= schedule.getHousekeepers();
+		int[] start= new int[n];
+		int[] keeper= new int[n];
+		for (int j= 0; j < n; j++ ) {
+			Room room= rooms.get(j);
+			start[j]= schedule.completion(room) - room.process() + 1;
+			keeper[j]= housekeepers.indexOf(schedule.getAssignment(room));
+		}
+
+		Random random= new Random(0);
+		int parallelism= Math.max(1, Math.min(pool.getParallelism(), h));
+		while (System.nanoTime() < until && !Thread.currentThread().isInterrupted()) {
+			int value= Integer.MIN_VALUE;
+			for (int j= 0; j < n; j++ ) {
+				value= Math.max(value, start[j] + process[j] - 1 + offset[j]);
+			}
+			if (n == 0 || obj.equals("Max_Tardiness") && value <= 0) break;
+
+			// A random room attaining the objective seeds the first neighbourhood
+			int critical= -1;
+			int count= 0;
+			for (int j= 0; j < n; j++ ) {
+				if (start[j] + process[j] - 1 + offset[j] == value && random.nextInt(++count) == 0) critical= j;
+			}
+
+			// Every housekeeper joins at most one neighbourhood
+			int[] order= shuffle(h, random);
+			for (int i= 0; i < h; i++ ) {
+				if (order[i] == keeper[critical]) {
+					order[i]= order[0];
+					order[0]= keeper[critical];
+				}
+			}
+			int size= Math.max(1, Math.min(h / parallelism, 2 + random.nextInt(3)));
+			ArrayList<Callable<int[][]>> tasks= new ArrayList<>();
+			for (int c= 0; c + size <= h && tasks.size() < parallelism; c+= size) {
+				boolean[] member= new boolean[h];
+				for (int i= c; i < c + size; i++ ) {
+					member[order[i]]= true;
+				}
+				int[] freed= neighbourhood(member, start, keeper, random, c == 0 ? critical : -1);
+				if (freed.length == 0) continue;
+				tasks.add(() -> resolve(instance, rooms, freed, start, keeper, offset, process));
+			}
+
+			for (Future<int[][]> future : pool.invokeAll(tasks)) {
+				try {
+					int[][] result= future.get();
+					if (result == null) continue;
+					int[] freed= result[0];
+					for (int i= 0; i < freed.length; i++ ) {
+						start[freed[i]]= result[1][i];
+						keeper[freed[i]]= result[2][i];
+					}
+				} catch (ExecutionException e) {
+					if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+					throw new IllegalStateException("A neighbourhood could not be solved", e.getCause());
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new IllegalStateException("Interrupted while solving neighbourhoods", e);
+				}
+			}
+		}
+
+		Schedule improved= new Schedule(instance);
+		for (int j= 0; j < n; j++ ) {
+			improved.add(improved.getHousekeepers().get(keeper[j]), rooms.get(j), start[j]);
+		}
+		return improved;
+	}
+
+	/** Return the rooms freed from the given housekeepers: those starting from a random time on, <br>
+	 * at most window of them. If critical is not -1, the time is at most its start if possible.
+	 *
+	 * @param member   Whether every housekeeper (index) is in the neighbourhood
+	 * @param critical A room of the first member to be freed (-1 if none) */
+	private int[] neighbourhood(boolean[] member, int[] start, int[] keeper, Random random, int critical) {
+		ArrayList<Integer> candidates= new ArrayList<>();
+		for (int j= 0; j < start.length; j++ ) {
+			if (member[keeper[j]]) candidates.add(j);
+		}
+		if (candidates.isEmpty()) return new int[0];
+
+		// Latest starts first, so the rooms freed are the end of every member's day
+		candidates.sort((a, b) -> start[b] - start[a]);
+		int most= Math.min(window, candidates.size());
+		int take= most / 2 + random.nextInt(most - most / 2) + 1;
+		if (critical != -1) {
+			int rank= candidates.indexOf(critical);
+			if (rank < most) take= Math.max(take, rank + 1);
+		}
+		int[] freed= new int[take];
+		for (int i= 0; i < take; i++ ) {
+			freed[i]= candidates.get(i);
+		}
+		return freed;
+	}
+
+	/** Re-solve the freed rooms on their housekeepers, every housekeeper being available once its <br>
+	 * other rooms are cleaned. Return the freed rooms with their new start times and housekeepers, <br>
+	 * or null if the new schedule of the freed rooms is no better. */
+	private int[][] resolve(Instance instance, ArrayList<Room> rooms, int[] freed, int[] start, int[] keeper,
+		int[] offset, int[] process) {
+		boolean[] isFreed= new boolean[start.length];
+		for (int j : freed) {
+			isFreed[j]= true;
+		}
+
+		// The housekeepers of the neighbourhood and the time each is first available
+		int[] members= new int[freed.length];
+		int m= 0;
+		for (int j : freed) {
+			boolean seen= false;
+			for (int i= 0; i < m; i++ ) {
+				seen|= members[i] == keeper[j];
+			}
+			if (!seen) members[m++ ]= keeper[j];
+		}
+		members= Arrays.copyOf(members, m);
+		int[] available= new int[m];
+		Arrays.fill(available, 1);
+		for (int j= 0; j < start.length; j++ ) {
+			if (isFreed[j]) continue;
+			for (int i= 0; i < m; i++ ) {
+				if (keeper[j] == members[i]) available[i]= Math.max(available[i], start[j] + process[j]);
+			}
+		}
+
+		ArrayList<Room> sub= new ArrayList<>();
+		int[] subOffset= new int[freed.length];
+		int oldValue= Integer.MIN_VALUE;
+		long oldSum= 0;
+		for (int i= 0; i < freed.length; i++ ) {
+			int j= freed[i];
+			sub.add(rooms.get(j));
+			subOffset[i]= offset[j];
+			oldValue= Math.max(oldValue, start[j] + process[j] - 1 + offset[j]);
+			oldSum+= start[j] + process[j] - 1;
+		}
+
+		ScheduleBranchAndBound solver= new ScheduleBranchAndBound(obj, NODE_LIMIT);
+		int[] subKeeper= new int[freed.length];
+		int[] subStart= solver.optimize(instance, sub, subOffset, available, subKeeper);
+		int newValue= Integer.MIN_VALUE;
+		long newSum= 0;
+		for (int i= 0; i < freed.length; i++ ) {
+			newValue= Math.max(newValue, subStart[i] + process[freed[i]] - 1 + subOffset[i]);
+			newSum+= subStart[i] + process[freed[i]] - 1;
+			subKeeper[i]= members[subKeeper[i]];
+		}
+		if (obj.equals("Max_Tardiness")) {
+			oldValue= Math.max(0, oldValue);
+			newValue= Math.max(0, newValue);
+		}
+		if (newValue > oldValue || newValue == oldValue && newSum >= oldSum) return null;
+		return new int[][] { freed, subStart, subKeeper };
+	}
+
+	/** Return a random permutation of 0 .. h - 1 */
+	private static int[] shuffle(int h, Random random) {
+		int[] order= new int[h];
+		for (int i= 0; i < h; i++ ) {
+			int j= random.nextInt(i + 1);
+			order[i]= order[j];
+			order[j]= i;
+		}
+		return order;
+	}
+
+	@Override
+	public String toString() {
+		return obj + " LNS";
+	}
+
+}
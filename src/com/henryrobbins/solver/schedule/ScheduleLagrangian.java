@@ -0,0 +1,269 @@
+package com.henryrobbins.solver.schedule;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import com.henryrobbins.AMPLHelper;
+import com.henryrobbins.decision.Assignment;
+import com.henryrobbins.decision.Schedule;
+import com.henryrobbins.hotel.Guest;
+import com.henryrobbins.hotel.Housekeeper;
+import com.henryrobbins.hotel.Instance;
+import com.henryrobbins.hotel.Room;
+import com.henryrobbins.solver.Solver;
+
+/** Lagrangian relaxation of the time-indexed schedule model minimizing the sum of completion times
+ * or the sum of tardiness, without AMPL. Housekeepers are identical, so summing One_Job_At_A_Time
+ * over housekeepers gives the relaxed model in which at most H rooms are being cleaned at every
+ * time (as in the aggregated model). This capacity constraint is relaxed with a multiplier for every
+ * time, so every room on its own starts at the time in its window minimizing its cost plus the
+ * multipliers of the times it is cleaned, found by one scan over prefix sums of the multipliers. The
+ * sum of these costs less H times the sum of the multipliers bounds the optimum from below, since
+ * some optimal schedule completes by AMPLHelper.horizon.
+ *
+ * The multipliers are updated by subgradient optimization with the Polyak step towards the best
+ * schedule found, the step scale being halved whenever the bound has not improved for a while.
+ * Every iteration repairs the relaxed start times into a schedule in two ways: the rooms are listed
+ * in order of relaxed start and each is started as soon as possible by the housekeeper free first,
+ * and the rooms are dispatched with their relaxed start as priority. The search stops once the
+ * bound meets the best schedule, the step scale vanishes, or the iteration limit is reached. Both
+ * the best schedule and the best bound are kept and returned in a Relaxation, whose value() -
+ * lowerBound() is an optimality gap. Nothing of a solve is kept by the solver, so one solver may be
+ * shared by threads. */
+public class ScheduleLagrangian implements Solver<Schedule> {
+
+	/** The default number of subgradient iterations */
+	private static final int ITERATIONS= 500;
+	/** The number of iterations without a better bound before the step scale is halved */
+	private static final int PATIENCE= 20;
+
+	/** The name of the objective function ("Sum_Completion_Time" or "Sum_Tardiness") */
+	private String obj;
+	/** The largest number of subgradient iterations */
+	private int iterations;
+
+	/** Construct a Lagrangian solver for the given objective function
+	 *
+	 * @param obj The objective function ("Sum_Completion_Time" or "Sum_Tardiness") */
+	public ScheduleLagrangian(String obj) {
+		this(obj, ITERATIONS);
+	}
+
+	/** Construct a Lagrangian solver for the given objective function
+	 *
+	 * @param obj        The objective function ("Sum_Completion_Time" or "Sum_Tardiness")
+	 * @param iterations The largest number of subgradient iterations (at least 1) */
+	public ScheduleLagrangian(String obj, int iterations) {
+		if (obj == null) throw new IllegalArgumentException("Objective function was null");
+		if (!obj.equals("Sum_Completion_Time") && !obj.equals("Sum_Tardiness"))
+			throw new IllegalArgumentException("Objective function undefined");
+		if (iterations < 1) throw new IllegalArgumentException("Iterations less than 1");
+		this.obj= obj;
+		this.iterations= iterations;
+	}
+
+	/** The result of a solve */
+	public static class Relaxation {
+
+		/** The best schedule found */
+		private final Schedule schedule;
+		/** The best lower bound on the objective found */
+		private final int lowerBound;
+		/** The objective value of the schedule */
+		private final int value;
+
+		private Relaxation(Schedule schedule, int lowerBound, int value) {
+			this.schedule= schedule;
+			this.lowerBound= lowerBound;
+			this.value= value;
+		}
+
+		/** Return the best schedule found */
+		public Schedule schedule() {
+			return schedule;
+		}
+
+		/** Return the best lower bound on the objective found */
+		public int lowerBound() {
+			return lowerBound;
+		}
+
+		/** Return the objective value of the schedule */
+		public int value() {
+			return value;
+		}
+	}
+
+	/** Return the best housekeeping schedule found. As in the schedule model, no room has a <br>
+	 * deadline unless one is given by an assignment. */
+	@Override
+	public Schedule solve(Instance instance) {
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+		return solve(instance, null);
+	}
+
+	/** Return the best housekeeping schedule found where every room's deadline is the arrival <br>
+	 * of the guest it is assigned to (as in ScheduleSTAssignmentIP).
+	 *
+	 * @param instance   The instance to be scheduled (not null)
+	 * @param assignment A room assignment for the instance giving deadlines (null if none) */
+	public Schedule solve(Instance instance, Assignment assignment) {
+		return relax(instance, assignment).schedule();
+	}
+
+	/** Return the best housekeeping schedule found with its objective value and the best lower <br>
+	 * bound, where every room's deadline is the arrival of the guest it is assigned to.
+	 *
+	 * @param instance   The instance to be scheduled (not null)
+	 * @param assignment A room assignment for the instance giving deadlines (null if none) */
+	public Relaxation relax(Instance instance, Assignment assignment) {
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+		if (assignment != null && !assignment.isAssignmentFor(instance))
+			throw new IllegalArgumentException("This assignment is not for this instance");
+
+		ArrayList<Room> rooms= instance.rooms();
+		int n= rooms.size();
+		int h= instance.getH();
+		int horizon= AMPLHelper.horizon(instance);
+		int[] release= new int[n];
+		int[] process= new int[n];
+		int[] deadline= new int[n];
+		for (int j= 0; j < n; j++ ) {
+			Room room= rooms.get(j);
+			release[j]= room.release();
+			process[j]= room.process();
+			Guest guest= assignment == null ? null : assignment.assignment().getKey(room);
+			deadline[j]= guest == null ? Integer.MAX_VALUE : guest.arrival();
+		}
+
+		// The multiplier and the number of rooms being cleaned at every time 1 .. horizon
+		double[] lambda= new double[horizon + 1];
+		double[] prefix= new double[horizon + 1];
+		int[] load= new int[horizon + 2];
+		int[] relaxed= new int[n];
+		int[] start= new int[n];
+		int[] keeper= new int[n];
+		int[] bestStart= null;
+		int[] bestKeeper= null;
+		int value= Integer.MAX_VALUE;
+		int lowerBound= Integer.MIN_VALUE;
+		double best= Double.NEGATIVE_INFINITY;
+		double scale= 2;
+		int stall= 0;
+
+		for (int it= 0; it < iterations; it++ ) {
+			for (int t= 1; t <= horizon; t++ ) {
+				prefix[t]= prefix[t - 1] + lambda[t];
+			}
+
+			// Every room starts at the cheapest time in its window
+			double bound= -h * prefix[horizon];
+			Arrays.fill(load, 0);
+			for (int j= 0; j < n; j++ ) {
+				int p= process[j];
+				double min= Double.POSITIVE_INFINITY;
+				for (int s= release[j] + 1; s <= horizon - p + 1; s++ ) {
+					double cost= cost(s + p - 1, deadline[j]) + prefix[s + p - 1] - prefix[s - 1];
+					if (cost < min) {
+						min= cost;
+						relaxed[j]= s;
+					}
+				}
+				bound+= min;
+				load[relaxed[j]]++ ;
+				load[relaxed[j] + p]-- ;
+			}
+			if (bound > best + 1e-9) {
+				best= bound;
+				stall= 0;
+			} else if (++stall >= PATIENCE) {
+				scale/= 2;
+				stall= 0;
+			}
+			lowerBound= Math.max(lowerBound, (int) Math.ceil(bound - 1e-6));
+
+			// Repair the relaxed start times into schedules
+			for (int pass= 0; pass < 2; pass++ ) {
+				if (pass == 0) {
+					listSchedule(relaxed, release, process, h, start, keeper);
+				} else {
+					double[] keys= new double[n];
+					for (int j= 0; j < n; j++ ) {
+						keys[j]= relaxed[j];
+					}
+					start= new Dispatch(new DispatchRule.Fixed(keys)).dispatch(instance, rooms, keeper);
+					for (int j= 0; j < n; j++ ) {
+						keeper[j]-- ;
+					}
+				}
+				int sum= 0;
+				for (int j= 0; j < n; j++ ) {
+					sum+= cost(start[j] + process[j] - 1, deadline[j]);
+				}
+				if (sum < value) {
+					value= sum;
+					bestStart= Arrays.copyOf(start, n);
+					bestKeeper= Arrays.copyOf(keeper, n);
+				}
+			}
+			if (lowerBound >= value || scale < 1e-4 || Thread.currentThread().isInterrupted()) break;
+
+			// Step along the subgradient (the load in excess of H)
+			double norm= 0;
+			for (int t= 1; t <= horizon; t++ ) {
+				load[t]+= load[t - 1];
+				double g= load[t] - h;
+				if (lambda[t] > 0 || g > 0) norm+= g * g;
+			}
+			if (norm == 0) break;
+			double step= scale * (value - bound) / norm;
+			for (int t= 1; t <= horizon; t++ ) {
+				lambda[t]= Math.max(0, lambda[t] + step * (load[t] - h));
+			}
+		}
+
+		Schedule schedule= new Schedule(instance);
+		ArrayList<Housekeeper> housekeepers= schedule.getHousekeepers();
+		for (int j= 0; j < n; j++ ) {
+			schedule.add(housekeepers.get(bestKeeper[j]), rooms.get(j), bestStart[j]);
+		}
+		return new Relaxation(schedule, lowerBound, value);
+	}
+
+	/** Return the cost of a room completed at the given time with the given deadline */
+	private int cost(int completion, int deadline) {
+		if (obj.equals("Sum_Completion_Time")) return completion;
+		return deadline == Integer.MAX_VALUE ? 0 : Math.max(0, completion - deadline + 1);
+	}
+
+	/** List the rooms in order of relaxed start (then longest first) and start each as soon as <br>
+	 * possible by the housekeeper free first. Store the start time and housekeeper (index) of <br>
+	 * every room in start and keeper. */
+	private static void listSchedule(int[] relaxed, int[] release, int[] process, int h, int[] start,
+		int[] keeper) {
+		int n= relaxed.length;
+		Integer[] order= new Integer[n];
+		for (int j= 0; j < n; j++ ) {
+			order[j]= j;
+		}
+		Arrays.sort(order, Comparator.comparingInt((Integer j) -> relaxed[j]).thenComparingInt(j -> -process[j]));
+		int[] free= new int[h];
+		Arrays.fill(free, 1);
+		for (int j : order) {
+			int m= 0;
+			for (int k= 1; k < h; k++ ) {
+				if (free[k] < free[m]) m= k;
+			}
+			start[j]= Math.max(free[m], release[j] + 1);
+			keeper[j]= m;
+			free[m]= start[j] + process[j];
+		}
+	}
+
+	@Override
+	public String toString() {
+		return obj + " Lagrangian";
+	}
+
+}
@@ -0,0 +1,517 @@
+package com.henryrobbins.solver.schedule;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import com.henryrobbins.decision.Assignment;
+import com.henryrobbins.decision.Schedule;
+import com.henryrobbins.hotel.Guest;
+import com.henryrobbins.hotel.Housekeeper;
+import com.henryrobbins.hotel.Instance;
+import com.henryrobbins.hotel.Room;
+import com.henryrobbins.solver.Solver;
+
+/** Improves the schedule of a constructive heuristic by simulated annealing. A schedule is kept
+ * as a sequence of rooms per housekeeper, every room starting as soon as it is released and its
+ * housekeeper is free. The moves reinsert a room anywhere, swap two rooms (of the same or different
+ * housekeepers), and reverse part of a housekeeper's sequence. A move is evaluated by re-timing
+ * only the changed sequences from the first changed position, stopping as soon as a room past the
+ * change keeps its start time, since the rest of its sequence is then unchanged. The makespan, sum
+ * of completion times, and sum of tardiness are maintained under these deltas; flat objectives are
+ * broken by a small multiple of the sum of completion times.
+ *
+ * Every start anneals from the initial schedule with its own random moves, cooling geometrically
+ * until its share of the time budget is spent. The starts run in parallel on a ForkJoinPool and the
+ * best schedule found is returned. The search depends on the wall clock, so it is not deterministic;
+ * anneal() also returns the sums maintained under the deltas for the best schedule. */
+public class ScheduleLocalSearch implements Solver<Schedule> {
+
+	/** The default time budget in milliseconds */
+	private static final long MILLIS= 200;
+
+	/** The name of the objective function to be minimized */
+	private String obj;
+	/** The solver giving the initial schedule */
+	private Solver<Schedule> initial;
+	/** The time budget in milliseconds */
+	private long millis;
+	/** The number of independent starts */
+	private int starts;
+	/** The pool on which the starts run */
+	private ForkJoinPool pool;
+
+	/** Construct a local search improving the FirstAvailable schedule for the given objective <br>
+	 * function, with one start per available processor
+	 *
+	 * @param obj The objective function ("Makespan", "Sum_Completion_Time" or "Sum_Tardiness") */
+	public ScheduleLocalSearch(String obj) {
+		this(new FirstAvailable(), obj, MILLIS, Runtime.getRuntime().availableProcessors());
+	}
+
+	/** Construct a local search improving the schedule of the given solver for the given <br>
+	 * objective function, running its starts on the common pool
+	 *
+	 * @param initial The solver giving the initial schedule (not null)
+	 * @param obj     The objective function ("Makespan", "Sum_Completion_Time" or "Sum_Tardiness")
+	 * @param millis  The time budget in milliseconds (at least 1)
+	 * @param starts  The number of independent starts (at least 1) */
+	public ScheduleLocalSearch(Solver<Schedule> initial, String obj, long millis, int starts) {
+		this(initial, obj, millis, starts, ForkJoinPool.commonPool());
+	}
+
+	/** Construct a local search improving the schedule of the given solver for the given <br>
+	 * objective function, running its starts on the given pool
+	 *
+	 * @param initial The solver giving the initial schedule (not null)
+	 * @param obj     The objective function ("Makespan", "Sum_Completion_Time" or "Sum_Tardiness")
+	 * @param millis  The time budget in milliseconds (at least 1)
+	 * @param starts  The number of independent starts (at least 1)
+	 * @param pool    The pool on which the starts run (not null) */
+	public ScheduleLocalSearch(Solver<Schedule> initial, String obj, long millis, int starts, ForkJoinPool pool) {
+		if (initial == null) throw new IllegalArgumentException("Initial solver was null");
+		if (obj == null) throw new IllegalArgumentException("Objective function was null");
+		if (!obj.equals("Makespan") && !obj.equals("Sum_Completion_Time") && !obj.equals("Sum_Tardiness"))
+			throw new IllegalArgumentException("Objective function undefined");
+		if (millis < 1) throw new IllegalArgumentException("Time budget less than 1");
+		if (starts < 1) throw new IllegalArgumentException("Starts less than 1");
+		if (pool == null) throw new IllegalArgumentException("Pool was null");
+		this.initial= initial;
+		this.obj= obj;
+		this.millis= millis;
+		this.starts= starts;
+		this.pool= pool;
+	}
+
+	/** Return the best housekeeping schedule found. As in the schedule model, no room has a <br>
+	 * deadline unless one is given by an assignment. */
+	@Override
+	public Schedule solve(Instance instance) {
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+		return solve(instance, null);
+	}
+
+	/** Return the best housekeeping schedule found where every room's deadline is the arrival <br>
+	 * of the guest it is assigned to (as in ScheduleSTAssignmentIP).
+	 *
+	 * @param instance   The instance to be scheduled (not null)
+	 * @param assignment A room assignment for the instance giving deadlines (null if none) */
+	public Schedule solve(Instance instance, Assignment assignment) {
+		return anneal(instance, assignment).schedule();
+	}
+
+	/** The best schedule found by annealing with its sum of completion times and sum of <br>
+	 * tardiness, as maintained under the deltas of the moves leading to it */
+	public static class Anneal {
+
+		/** The best schedule found */
+		private final Schedule schedule;
+		/** The sum of completion times and the sum of tardiness of the schedule */
+		private final long sumCompletionTime, sumTardiness;
+
+		private Anneal(Schedule schedule, long sumCompletionTime, long sumTardiness) {
+			this.schedule= schedule;
+			this.sumCompletionTime= sumCompletionTime;
+			this.sumTardiness= sumTardiness;
+		}
+
+		/** Return the best schedule found */
+		public Schedule schedule() {
+			return schedule;
+		}
+
+		/** Return the sum of completion times of the schedule */
+		public long sumCompletionTime() {
+			return sumCompletionTime;
+		}
+
+		/** Return the sum of tardiness of the schedule */
+		public long sumTardiness() {
+			return sumTardiness;
+		}
+	}
+
+	/** Return the best housekeeping schedule found where every room's deadline is the arrival <br>
+	 * of the guest it is assigned to, with its sums maintained by the search.
+	 *
+	 * @param instance   The instance to be scheduled (not null)
+	 * @param assignment A room assignment for the instance giving deadlines (null if none) */
+	public Anneal anneal(Instance instance, Assignment assignment) {
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+		if (assignment != null && !assignment.isAssignmentFor(instance))
+			throw new IllegalArgumentException("This assignment is not for this instance");
+
+		ArrayList<Room> rooms= instance.rooms();
+		int n= rooms.size();
+		int[] release= new int[n];
+		int[] process= new int[n];
+		int[] deadline= new int[n];
+		HashMap<Integer, Integer> index= new HashMap<>();
+		int maxRelease= 0;
+		int total= 0;
+		for (int j= 0; j < n; j++ ) {
+			Room room= rooms.get(j);
+			release[j]= room.release();
+			process[j]= room.process();
+			Guest guest= assignment == null ? null : assignment.assignment().getKey(room);
+			deadline[j]= guest == null ? Integer.MAX_VALUE : guest.arrival();
+			index.put(room.num(), j);
+			maxRelease= Math.max(maxRelease, release[j]);
+			total+= process[j];
+		}
+		int horizon= maxRelease + total;
+
+		// The initial sequences, in order of start time
+		Schedule schedule= initial.solve(instance);
+		ArrayList<Housekeeper> housekeepers= schedule.getHousekeepers();
+		int h= housekeepers.size();
+		int[][] sequence= new int[h][];
+		for (int k= 0; k < h; k++ ) {
+			Housekeeper housekeeper= housekeepers.get(k);
+			LinkedList<Room> list= housekeeper.getSchedule();
+			list.sort((a, b) -> housekeeper.getStartTime(a) - housekeeper.getStartTime(b));
+			sequence[k]= new int[list.size()];
+			int i= 0;
+			for (Room room : list) {
+				sequence[k][i++ ]= index.get(room.num());
+			}
+		}
+
+		// Starts beyond the parallelism of the pool run in later rounds, sharing the budget
+		int rounds= (starts + pool.getParallelism() - 1) / pool.getParallelism();
+		long nanos= millis * 1_000_000 / rounds;
+		ArrayList<Callable<Walk>> tasks= new ArrayList<>();
+		for (int s= 0; s < starts; s++ ) {
+			long seed= s;
+			tasks.add(() -> {
+				Walk walk= new Walk(release, process, deadline, horizon, sequence);
+				walk.anneal(new Random(seed), System.nanoTime() + nanos);
+				return walk;
+			});
+		}
+
+		Walk best= null;
+		for (Future<Walk> future : pool.invokeAll(tasks)) {
+			try {
+				Walk walk= future.get();
+				if (best == null || walk.bestCost < best.bestCost) best= walk;
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+				throw new IllegalStateException("A start could not be completed", e.getCause());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while searching", e);
+			}
+		}
+
+		Schedule improved= new Schedule(instance);
+		ArrayList<Housekeeper> keepers= improved.getHousekeepers();
+		for (int j= 0; j < n; j++ ) {
+			improved.add(keepers.get(best.bestKeeper[j]), rooms.get(j), best.bestStart[j]);
+		}
+		return new Anneal(improved, best.bestSumC, best.bestSumT);
+	}
+
+	/** One annealing walk over the housekeeper sequences */
+	private class Walk {
+
+		/** The release, processing time, and deadline of every room */
+		private int[] release, process, deadline;
+		/** The number of rooms */
+		private int n;
+		/** The weight of the sum of completion times in flat objectives (below 1 in total) */
+		private double scale;
+
+		/** The sequence of rooms of every housekeeper and its length */
+		private int[][] seq;
+		private int[] len;
+		/** The housekeeper, position, and start time of every room */
+		private int[] keeper, pos, start;
+		/** The last completion time of every housekeeper (0 if idle) */
+		private int[] last;
+		/** The sum of completion times and the sum of tardiness */
+		private long sumC, sumT;
+
+		/** Scratch sequences and start times of the (at most two) changed housekeepers */
+		private int[][] buf, bufStart;
+		/** The changed housekeepers, their new lengths, and first and last changed positions */
+		private int[] ks= new int[2], newLen= new int[2], from= new int[2], to= new int[2];
+		/** The number of changed housekeepers in the pending move */
+		private int changed;
+		/** The new last completion and number of re-timed positions of every changed housekeeper */
+		private int[] newLast= new int[2], timed= new int[2];
+		/** The change in the sum of completion times and the sum of tardiness of the pending move */
+		private long dC, dT;
+
+		/** The cost of the best schedule found, with its housekeepers, start times, and sums */
+		private double bestCost;
+		private int[] bestKeeper, bestStart;
+		private long bestSumC, bestSumT;
+
+		/** Construct a walk starting from the given housekeeper sequences */
+		private Walk(int[] release, int[] process, int[] deadline, int horizon, int[][] sequence) {
+			this.release= release;
+			this.process= process;
+			this.deadline= deadline;
+			n= release.length;
+			scale= 1.0 / ((double) n * (horizon + 1));
+			int h= sequence.length;
+			seq= new int[h][n];
+			len= new int[h];
+			keeper= new int[n];
+			pos= new int[n];
+			start= new int[n];
+			last= new int[h];
+			buf= new int[2][n];
+			bufStart= new int[2][n];
+			for (int k= 0; k < h; k++ ) {
+				len[k]= sequence[k].length;
+				System.arraycopy(sequence[k], 0, seq[k], 0, len[k]);
+				int free= 1;
+				for (int i= 0; i < len[k]; i++ ) {
+					int j= seq[k][i];
+					keeper[j]= k;
+					pos[j]= i;
+					start[j]= Math.max(free, release[j] + 1);
+					free= start[j] + process[j];
+					sumC+= free - 1;
+					sumT+= tardiness(j, free - 1);
+				}
+				last[k]= free - 1;
+			}
+			bestCost= cost();
+			bestKeeper= keeper.clone();
+			bestStart= start.clone();
+			bestSumC= sumC;
+			bestSumT= sumT;
+		}
+
+		/** Return the tardiness of room j if completed at time c */
+		private long tardiness(int j, int c) {
+			return deadline[j] == Integer.MAX_VALUE ? 0 : Math.max(0, c - deadline[j] + 1);
+		}
+
+		/** Return the cost of the current schedule */
+		private double cost() {
+			int makespan= 0;
+			int critical= 0;
+			for (int end : last) {
+				if (end > makespan) {
+					makespan= end;
+					critical= 0;
+				}
+				if (end == makespan) critical++ ;
+			}
+			return cost(sumC, sumT, makespan, critical);
+		}
+
+		/** Return the cost of a schedule with the given statistics, where critical housekeepers <br>
+		 * complete their last room at the makespan. Fewer critical housekeepers break ties in the <br>
+		 * makespan, as removing all of them is the only way to reduce it. */
+		private double cost(long sumC, long sumT, int makespan, int critical) {
+			switch (obj) {
+			case "Makespan":
+				return makespan + (critical + sumC * scale) / (len.length + 1);
+			case "Sum_Tardiness":
+				return sumT + sumC * scale;
+			default:
+				return sumC;
+			}
+		}
+
+		/** Anneal with the given random moves until the given time (System.nanoTime) */
+		private void anneal(Random random, long until) {
+			if (n < 2) return;
+
+			// The initial temperature is a hundredth of the mean uphill cost of random moves, since
+			// the uphill cost is dominated by rare moves delaying the makespan
+			double cost= bestCost;
+			double uphill= 0;
+			int count= 0;
+			for (int i= 0; i < 100; i++ ) {
+				if (!propose(random)) continue;
+				double delta= evaluate() - cost;
+				if (delta > 0) {
+					uphill+= delta;
+					count++ ;
+				}
+			}
+			double t0= count == 0 ? 1 : uphill / count / 100;
+			double tEnd= t0 / 1000;
+
+			long begin= System.nanoTime();
+			double temperature= t0;
+			for (long iter= 0;; iter++ ) {
+				if ((iter & 255) == 0) {
+					long now= System.nanoTime();
+					if (now >= until) break;
+					double progress= (double) (now - begin) / (until - begin);
+					temperature= t0 * Math.pow(tEnd / t0, progress);
+				}
+				if (!propose(random)) continue;
+				double next= evaluate();
+				double delta= next - cost;
+				if (delta <= 0 || random.nextDouble() < Math.exp(-delta / temperature)) {
+					apply();
+					cost= next;
+					if (cost < bestCost) {
+						bestCost= cost;
+						System.arraycopy(keeper, 0, bestKeeper, 0, n);
+						System.arraycopy(start, 0, bestStart, 0, n);
+						bestSumC= sumC;
+						bestSumT= sumT;
+					}
+				}
+			}
+		}
+
+		/** Build a random move in the scratch sequences. Return false if there is none. */
+		private boolean propose(Random random) {
+			int h= len.length;
+			int move= random.nextInt(3);
+			int j= random.nextInt(n);
+			int a= keeper[j], i= pos[j];
+			if (move == 0) {
+				// Reinsert room j at position q of housekeeper b
+				int b= random.nextInt(h);
+				if (a == b) {
+					if (len[a] < 2) return false;
+					int q= random.nextInt(len[a] - 1);
+					if (q >= i) q++ ;
+					copy(0, a, len[a]);
+					if (q > i) System.arraycopy(seq[a], i + 1, buf[0], i, q - i);
+					else System.arraycopy(seq[a], q, buf[0], q + 1, i - q);
+					buf[0][q]= j;
+					change(0, a, len[a], Math.min(i, q), Math.max(i, q));
+					changed= 1;
+				} else {
+					int q= random.nextInt(len[b] + 1);
+					copy(0, a, i);
+					System.arraycopy(seq[a], i + 1, buf[0], i, len[a] - i - 1);
+					change(0, a, len[a] - 1, i, i - 1);
+					copy(1, b, q);
+					buf[1][q]= j;
+					System.arraycopy(seq[b], q, buf[1], q + 1, len[b] - q);
+					change(1, b, len[b] + 1, q, q);
+					changed= 2;
+				}
+			} else if (move == 1) {
+				// Swap rooms j and l
+				int l= random.nextInt(n);
+				if (l == j) return false;
+				int b= keeper[l], q= pos[l];
+				if (a == b) {
+					copy(0, a, len[a]);
+					buf[0][i]= l;
+					buf[0][q]= j;
+					change(0, a, len[a], Math.min(i, q), Math.max(i, q));
+					changed= 1;
+				} else {
+					copy(0, a, len[a]);
+					buf[0][i]= l;
+					change(0, a, len[a], i, i);
+					copy(1, b, len[b]);
+					buf[1][q]= j;
+					change(1, b, len[b], q, q);
+					changed= 2;
+				}
+			} else {
+				// Reverse the sequence of housekeeper a between room j and another of its rooms
+				if (len[a] < 2) return false;
+				int q= random.nextInt(len[a] - 1);
+				if (q >= i) q++ ;
+				int lo= Math.min(i, q), hi= Math.max(i, q);
+				copy(0, a, len[a]);
+				for (int x= lo; x <= hi; x++ ) {
+					buf[0][x]= seq[a][lo + hi - x];
+				}
+				change(0, a, len[a], lo, hi);
+				changed= 1;
+			}
+			return true;
+		}
+
+		/** Copy the first m rooms of housekeeper k into scratch sequence c */
+		private void copy(int c, int k, int m) {
+			System.arraycopy(seq[k], 0, buf[c], 0, m);
+		}
+
+		/** Record that scratch sequence c replaces the sequence of housekeeper k */
+		private void change(int c, int k, int length, int first, int lastChanged) {
+			ks[c]= k;
+			newLen[c]= length;
+			from[c]= first;
+			to[c]= lastChanged;
+		}
+
+		/** Re-time the scratch sequences and return the cost of the pending move */
+		private double evaluate() {
+			dC= 0;
+			dT= 0;
+			for (int c= 0; c < changed; c++ ) {
+				int k= ks[c];
+				int[] s= buf[c];
+				int[] st= bufStart[c];
+				int i= from[c];
+				int free= i == 0 ? 1 : start[s[i - 1]] + process[s[i - 1]];
+				newLast[c]= last[k];
+				for (; i < newLen[c]; i++ ) {
+					int j= s[i];
+					int t= Math.max(free, release[j] + 1);
+					// Past the change, a room keeping its start time keeps the rest of the sequence
+					if (i > to[c] && t == start[j]) break;
+					st[i]= t;
+					free= t + process[j];
+					int old= start[j] + process[j] - 1;
+					dC+= free - 1 - old;
+					dT+= tardiness(j, free - 1) - tardiness(j, old);
+				}
+				timed[c]= i;
+				if (i == newLen[c]) newLast[c]= newLen[c] == 0 ? 0 : free - 1;
+			}
+
+			// Rooms moved away from a housekeeper were counted with their old completion
+			int makespan= 0;
+			int critical= 0;
+			for (int k= 0; k < len.length; k++ ) {
+				int c= ks[0] == k ? 0 : changed == 2 && ks[1] == k ? 1 : -1;
+				int end= c == -1 ? last[k] : newLast[c];
+				if (end > makespan) {
+					makespan= end;
+					critical= 0;
+				}
+				if (end == makespan) critical++ ;
+			}
+			return cost(sumC + dC, sumT + dT, makespan, critical);
+		}
+
+		/** Apply the pending move */
+		private void apply() {
+			for (int c= 0; c < changed; c++ ) {
+				int k= ks[c];
+				System.arraycopy(buf[c], from[c], seq[k], from[c], newLen[c] - from[c]);
+				len[k]= newLen[c];
+				for (int i= from[c]; i < newLen[c]; i++ ) {
+					int j= seq[k][i];
+					keeper[j]= k;
+					pos[j]= i;
+					if (i < timed[c]) start[j]= bufStart[c][i];
+				}
+				last[k]= newLast[c];
+			}
+			sumC+= dC;
+			sumT+= dT;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return obj + " Local Search";
+	}
+
+}
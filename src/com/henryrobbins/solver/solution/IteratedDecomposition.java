@@ -0,0 +1,194 @@
+package com.henryrobbins.solver.solution;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import com.henryrobbins.decision.Assignment;
+import com.henryrobbins.decision.Schedule;
+import com.henryrobbins.decision.Solution;
+import com.henryrobbins.hotel.Guest;
+import com.henryrobbins.hotel.Instance;
+import com.henryrobbins.hotel.Room;
+import com.henryrobbins.solver.Solver;
+import com.henryrobbins.solver.schedule.ATCDispatch;
+import com.henryrobbins.solver.schedule.ScheduleLocalSearch;
+
+/** Alternates between the two directions of AssignmentSTScheduleIP and ScheduleSTAssignmentIP,
+ * without AMPL. Starting from the schedule of a constructive heuristic, every round first assigns
+ * the guests given the completion time of every room, then re-schedules the rooms given the
+ * deadline (the arrival of the assigned guest) of every room. The assignment is optimal for the
+ * completion times: it is the minimum cost matching of ReadinessMatching, in which guests may only
+ * get rooms of their requested type or higher. The schedule is improved by ScheduleLocalSearch for the
+ * sum of tardiness, warm-started from the previous round's schedule. Neither step can worsen the
+ * joint objective, and rounds stop once it no longer improves.
+ *
+ * Within a solve, every assignment is kept by the completion times it was computed from and every
+ * schedule by the deadlines it was computed from. This detects cycles: once the rounds return to a
+ * subproblem already met, its answer is reused rather than solved again, the round cannot improve,
+ * and the rounds stop. Nothing is kept across solves, so one solver may be shared by threads. The
+ * joint objective is the sum of tardiness ("Sum_Tardiness") or the sum of satisfaction less the sum
+ * of tardiness ("Mean_Satisfaction_And_Sum_Tardiness"), as in the solution model. */
+public class IteratedDecomposition implements Solver<Solution> {
+
+	/** The default time budget of every schedule step in milliseconds */
+	private static final long MILLIS= 100;
+	/** The default largest number of rounds */
+	private static final int ROUNDS= 20;
+
+	/** The name of the joint objective function */
+	private String obj;
+	/** The solver giving the initial schedule */
+	private Solver<Schedule> initial;
+	/** The time budget of every schedule step in milliseconds */
+	private long millis;
+	/** The largest number of rounds */
+	private int maxRounds;
+
+	/** Construct an iterated decomposition for the given joint objective function starting <br>
+	 * from the ATC dispatch schedule
+	 *
+	 * @param obj The objective function ("Sum_Tardiness" or "Mean_Satisfaction_And_Sum_Tardiness") */
+	public IteratedDecomposition(String obj) {
+		this(new ATCDispatch(), obj, MILLIS, ROUNDS);
+	}
+
+	/** Construct an iterated decomposition for the given joint objective function
+	 *
+	 * @param initial   The solver giving the initial schedule (not null)
+	 * @param obj       The objective function ("Sum_Tardiness" or "Mean_Satisfaction_And_Sum_Tardiness")
+	 * @param millis    The time budget of every schedule step in milliseconds (at least 1)
+	 * @param maxRounds The largest number of rounds (at least 1) */
+	public IteratedDecomposition(Solver<Schedule> initial, String obj, long millis, int maxRounds) {
+		if (initial == null) throw new IllegalArgumentException("Initial solver was null");
+		if (obj == null) throw new IllegalArgumentException("Objective function was null");
+		if (!obj.equals("Sum_Tardiness") && !obj.equals("Mean_Satisfaction_And_Sum_Tardiness"))
+			throw new IllegalArgumentException("Objective function undefined");
+		if (millis < 1) throw new IllegalArgumentException("Time budget less than 1");
+		if (maxRounds < 1) throw new IllegalArgumentException("Rounds less than 1");
+		this.initial= initial;
+		this.obj= obj;
+		this.millis= millis;
+		this.maxRounds= maxRounds;
+	}
+
+	/** The result of a solve */
+	public static class Decomposition {
+
+		/** The best solution found */
+		private final Solution solution;
+		/** The number of rounds */
+		private final int rounds;
+		/** The number of subproblems met again and not solved again */
+		private final int repeats;
+
+		private Decomposition(Solution solution, int rounds, int repeats) {
+			this.solution= solution;
+			this.rounds= rounds;
+			this.repeats= repeats;
+		}
+
+		/** Return the best solution found */
+		public Solution solution() {
+			return solution;
+		}
+
+		/** Return the number of rounds */
+		public int rounds() {
+			return rounds;
+		}
+
+		/** Return the number of subproblems met again in an earlier round and not solved again */
+		public int repeats() {
+			return repeats;
+		}
+	}
+
+	/** Return the best solution found */
+	@Override
+	public Solution solve(Instance instance) {
+		return decompose(instance).solution();
+	}
+
+	/** Return the best solution found with the number of rounds and of repeated subproblems */
+	public Decomposition decompose(Instance instance) {
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+
+		ArrayList<Room> rooms= instance.rooms();
+		HashMap<List<Integer>, Assignment> assignments= new HashMap<>();
+		HashMap<List<Integer>, Schedule> schedules= new HashMap<>();
+		int rounds= 0;
+		int repeats= 0;
+
+		Schedule schedule= initial.solve(instance);
+		Solution best= null;
+		double bestValue= Double.POSITIVE_INFINITY;
+		while (rounds < maxRounds) {
+			rounds++ ;
+
+			// Completions feed the assignment
+			ArrayList<Integer> completion= new ArrayList<>();
+			for (Room room : rooms) {
+				completion.add(schedule.completion(room));
+			}
+			Assignment assignment= assignments.get(completion);
+			if (assignment == null) {
+				assignment= assign(instance, completion);
+				assignments.put(completion, assignment);
+			} else {
+				repeats++ ;
+			}
+
+			// Deadlines feed the schedule
+			ArrayList<Integer> deadline= new ArrayList<>();
+			for (Room room : rooms) {
+				Guest guest= assignment.assignment().getKey(room);
+				deadline.add(guest == null ? -1 : guest.arrival());
+			}
+			Schedule next= schedules.get(deadline);
+			if (next == null) {
+				Schedule previous= schedule;
+				next= new ScheduleLocalSearch(inst -> previous, "Sum_Tardiness", millis, 1)
+					.solve(instance, assignment);
+				schedules.put(deadline, next);
+			} else {
+				repeats++ ;
+			}
+			schedule= next;
+
+			Solution solution= new Solution(instance, schedule, assignment);
+			double value= value(solution);
+			if (value >= bestValue) break;
+			best= solution;
+			bestValue= value;
+		}
+		return new Decomposition(best, rounds, repeats);
+	}
+
+	/** Return the assignment minimizing the joint objective given the completion time of every <br>
+	 * room (in the order of instance.rooms()). Dissatisfaction is one less the weight, so with <br>
+	 * every guest assigned this also maximizes the sum of satisfaction less the sum of tardiness. */
+	private Assignment assign(Instance instance, List<Integer> completion) {
+		int[] times= new int[completion.size()];
+		for (int j= 0; j < times.length; j++ ) {
+			times[j]= completion.get(j);
+		}
+		double alpha= obj.equals("Mean_Satisfaction_And_Sum_Tardiness") ? 1 : 0;
+		return ReadinessMatching.match(instance, times, alpha, Integer.MAX_VALUE);
+	}
+
+	/** Return the joint objective value of the given solution (smaller is better) */
+	private double value(Solution solution) {
+		double value= solution.tardinessStats().getSum();
+		if (obj.equals("Mean_Satisfaction_And_Sum_Tardiness")) {
+			value-= solution.assignment().satisfactionStats().getSum();
+		}
+		return value;
+	}
+
+	@Override
+	public String toString() {
+		return obj + " Iterated Decomposition";
+	}
+
+}
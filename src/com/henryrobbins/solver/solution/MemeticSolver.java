@@ -0,0 +1,542 @@
+package com.henryrobbins.solver.solution;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import com.henryrobbins.decision.Assignment;
+import com.henryrobbins.decision.Schedule;
+import com.henryrobbins.decision.Solution;
+import com.henryrobbins.hotel.Guest;
+import com.henryrobbins.hotel.Housekeeper;
+import com.henryrobbins.hotel.Instance;
+import com.henryrobbins.hotel.Room;
+import com.henryrobbins.solver.Solver;
+import com.henryrobbins.solver.schedule.ATCDispatch;
+
+/** Population-based search for joint solutions, without AMPL. An individual is a sequence of all
+ * rooms and a room for every guest. The sequence is dispatched in order, each room to whichever
+ * housekeeper is free first and started as soon as it is released, which gives the completion time
+ * of every room and so the tardiness of every guest. The objective is the sum of tardiness
+ * ("Sum_Tardiness") or the sum of tardiness less the sum of satisfaction
+ * ("Mean_Satisfaction_And_Sum_Tardiness"), as in IteratedDecomposition.
+ *
+ * Every generation, each child takes the precedence preserving crossover of the sequences of two
+ * parents (chosen by binary tournament), in which every next room is the next unused room of a
+ * random parent, and every guest the room of one of them where still free, other guests getting
+ * the cheapest free room of their requested type or higher. Children are then improved by local
+ * search: guests move to or swap rooms (costed in constant time for fixed completion times), and
+ * rooms move elsewhere in the sequence (kept if the objective decreases). The best of
+ * the parents and children, preferring distinct objective values, survive.
+ *
+ * The population is seeded with the sequence of the initial schedule and its minimum cost matching
+ * (as in ReadinessMatching). Children are bred and evaluated in parallel on a ForkJoinPool, every
+ * individual keeping its own buffers so no evaluation allocates. The search stops once the time
+ * budget or the number of generations is spent, or the thread is interrupted. The data of the
+ * instance is read into an immutable Data shared by the workers of one solve, and the results of a
+ * solve are returned in an Evolution, so one solver may be shared by threads. */
+public class MemeticSolver implements Solver<Solution> {
+
+	/** The default number of individuals */
+	private static final int POPULATION= 20;
+	/** The default time budget in milliseconds */
+	private static final long MILLIS= 1000;
+	/** The number of rooms every guest tries to move to in a pass of local search */
+	private static final int TRIES= 4;
+	/** The number of sequence moves tried in local search */
+	private static final int MOVES= 16;
+
+	/** The name of the objective function */
+	private String obj;
+	/** The solver giving the seed schedule */
+	private Solver<Schedule> initial;
+	/** The number of individuals */
+	private int population;
+	/** The time budget in milliseconds */
+	private long millis;
+	/** The largest number of generations */
+	private int generations;
+	/** The pool on which children are bred and evaluated */
+	private ForkJoinPool pool;
+
+	/** Construct a memetic solver for the given objective function seeded by the ATC dispatch <br>
+	 * schedule, on the common pool
+	 *
+	 * @param obj The objective function ("Sum_Tardiness" or "Mean_Satisfaction_And_Sum_Tardiness") */
+	public MemeticSolver(String obj) {
+		this(new ATCDispatch(), obj, POPULATION, MILLIS, Integer.MAX_VALUE);
+	}
+
+	/** Construct a memetic solver for the given objective function, on the common pool
+	 *
+	 * @param initial     The solver giving the seed schedule (not null)
+	 * @param obj         The objective function ("Sum_Tardiness" or "Mean_Satisfaction_And_Sum_Tardiness")
+	 * @param population  The number of individuals (at least 2)
+	 * @param millis      The time budget in milliseconds (at least 1)
+	 * @param generations The largest number of generations (at least 0) */
+	public MemeticSolver(Solver<Schedule> initial, String obj, int population, long millis, int generations) {
+		this(initial, obj, population, millis, generations, ForkJoinPool.commonPool());
+	}
+
+	/** Construct a memetic solver for the given objective function, on the given pool
+	 *
+	 * @param initial     The solver giving the seed schedule (not null)
+	 * @param obj         The objective function ("Sum_Tardiness" or "Mean_Satisfaction_And_Sum_Tardiness")
+	 * @param population  The number of individuals (at least 2)
+	 * @param millis      The time budget in milliseconds (at least 1)
+	 * @param generations The largest number of generations (at least 0)
+	 * @param pool        The pool on which children are bred and evaluated (not null) */
+	public MemeticSolver(Solver<Schedule> initial, String obj, int population, long millis, int generations,
+		ForkJoinPool pool) {
+		if (initial == null) throw new IllegalArgumentException("Initial solver was null");
+		if (obj == null) throw new IllegalArgumentException("Objective function was null");
+		if (!obj.equals("Sum_Tardiness") && !obj.equals("Mean_Satisfaction_And_Sum_Tardiness"))
+			throw new IllegalArgumentException("Objective function undefined");
+		if (population < 2) throw new IllegalArgumentException("Population less than 2");
+		if (millis < 1) throw new IllegalArgumentException("Time budget less than 1");
+		if (generations < 0) throw new IllegalArgumentException("Generations less than 0");
+		if (pool == null) throw new IllegalArgumentException("Pool was null");
+		this.initial= initial;
+		this.obj= obj;
+		this.population= population;
+		this.millis= millis;
+		this.generations= generations;
+		this.pool= pool;
+	}
+
+	/** The result of a solve */
+	public static class Evolution {
+
+		/** The best solution found */
+		private final Solution solution;
+		/** The number of generations */
+		private final int generations;
+		/** The best objective value at the end of every second of the search, and at its end */
+		private final ArrayList<Double> bestPerSecond;
+
+		private Evolution(Solution solution, int generations, ArrayList<Double> bestPerSecond) {
+			this.solution= solution;
+			this.generations= generations;
+			this.bestPerSecond= bestPerSecond;
+		}
+
+		/** Return the best solution found */
+		public Solution solution() {
+			return solution;
+		}
+
+		/** Return the number of generations */
+		public int generations() {
+			return generations;
+		}
+
+		/** Return the best objective value at the end of every second of the search, and at its end */
+		public ArrayList<Double> bestPerSecond() {
+			return new ArrayList<>(bestPerSecond);
+		}
+	}
+
+	/** Return the best solution found */
+	@Override
+	public Solution solve(Instance instance) {
+		return evolve(instance).solution();
+	}
+
+	/** Return the best solution found together with the progress of the search */
+	public Evolution evolve(Instance instance) {
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+		long begin= System.nanoTime();
+		long until= begin + millis * 1_000_000;
+
+		ArrayList<Room> rooms= instance.rooms();
+		ArrayList<Guest> guests= instance.guests();
+		Data data= new Data(instance, obj.equals("Mean_Satisfaction_And_Sum_Tardiness"));
+		int n= rooms.size();
+		int g= guests.size();
+		int h= data.h;
+
+		// Seed with the initial schedule's sequence and its minimum cost matching
+		Schedule schedule= initial.solve(instance);
+		Individual seed= new Individual(n, g, h);
+		Integer[] sorted= new Integer[n];
+		for (int j= 0; j < n; j++ ) {
+			sorted[j]= j;
+		}
+		Arrays.sort(sorted, Comparator.comparingInt(j -> schedule.completion(rooms.get(j)) - data.process[j]));
+		for (int j= 0; j < n; j++ ) {
+			seed.order[j]= sorted[j];
+		}
+		data.decode(seed, null, null);
+		Assignment matching= ReadinessMatching.match(instance, seed.completion, data.joint ? 1 : 0, Integer.MAX_VALUE);
+		for (int i= 0; i < g; i++ ) {
+			seed.room[i]= rooms.indexOf(matching.assignment().get(guests.get(i)));
+		}
+		data.evaluate(seed);
+
+		Individual[] parents= new Individual[population];
+		Individual[] children= new Individual[population];
+		parents[0]= seed;
+		for (int k= 1; k < population; k++ ) {
+			parents[k]= new Individual(n, g, h);
+		}
+		for (int k= 0; k < population; k++ ) {
+			children[k]= new Individual(n, g, h);
+		}
+		Random random= new Random(0);
+		breed(data, parents, parents, 1, random.nextLong(), true);
+		Arrays.sort(parents, Comparator.comparingDouble(ind -> ind.value));
+
+		int generation= 0;
+		ArrayList<Double> bestPerSecond= new ArrayList<>();
+		Individual[] merged= new Individual[2 * population];
+		boolean[] survives= new boolean[2 * population];
+		while (generation < generations && System.nanoTime() < until && !Thread.currentThread().isInterrupted()) {
+			generation++ ;
+			breed(data, parents, children, 0, random.nextLong(), false);
+
+			// Keep the best, preferring distinct objective values
+			System.arraycopy(parents, 0, merged, 0, population);
+			System.arraycopy(children, 0, merged, population, population);
+			Arrays.sort(merged, Comparator.comparingDouble(ind -> ind.value));
+			Arrays.fill(survives, false);
+			int kept= 0;
+			for (int k= 0; k < merged.length && kept < population; k++ ) {
+				if (kept > 0 && merged[k].value <= parents[kept - 1].value + 1e-9) continue;
+				parents[kept++ ]= merged[k];
+				survives[k]= true;
+			}
+			for (int k= 0; k < merged.length && kept < population; k++ ) {
+				if (survives[k]) continue;
+				parents[kept++ ]= merged[k];
+				survives[k]= true;
+			}
+			int c= 0;
+			for (int k= 0; k < merged.length; k++ ) {
+				if (!survives[k]) children[c++ ]= merged[k];
+			}
+
+			while (System.nanoTime() - begin >= (bestPerSecond.size() + 1) * 1_000_000_000L) {
+				bestPerSecond.add(parents[0].value);
+			}
+		}
+		bestPerSecond.add(parents[0].value);
+
+		return new Evolution(data.solution(instance, parents[0]), generation, bestPerSecond);
+	}
+
+	/** Fill the individuals of the given range of children in parallel. If seeding, every child is <br>
+	 * a perturbed copy of the first parent, otherwise the crossover of two parents. Children are <br>
+	 * then improved by local search and evaluated. */
+	private void breed(Data data, Individual[] parents, Individual[] children, int from, long seed, boolean seeding) {
+		int chunks= Math.max(1, Math.min(pool.getParallelism(), children.length - from));
+		ArrayList<Callable<Void>> tasks= new ArrayList<>();
+		for (int c= 0; c < chunks; c++ ) {
+			int lo= from + c * (children.length - from) / chunks;
+			int hi= from + (c + 1) * (children.length - from) / chunks;
+			long taskSeed= seed + c;
+			tasks.add(() -> {
+				Random random= new Random(taskSeed);
+				for (int k= lo; k < hi; k++ ) {
+					Individual child= children[k];
+					if (seeding) {
+						perturb(parents[0], child, random);
+					} else {
+						data.crossover(tournament(parents, random), tournament(parents, random), child, random);
+					}
+					data.localSearch(child, random);
+				}
+				return null;
+			});
+		}
+		for (Future<Void> future : pool.invokeAll(tasks)) {
+			try {
+				future.get();
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+				throw new IllegalStateException("A child could not be bred", e.getCause());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while breeding", e);
+			}
+		}
+	}
+
+	/** Return the better of two parents chosen at random */
+	private static Individual tournament(Individual[] parents, Random random) {
+		Individual a= parents[random.nextInt(parents.length)];
+		Individual b= parents[random.nextInt(parents.length)];
+		return a.value <= b.value ? a : b;
+	}
+
+	/** Copy the given individual into the child and swap a few random pairs of its sequence */
+	private static void perturb(Individual seed, Individual child, Random random) {
+		int n= seed.order.length;
+		System.arraycopy(seed.order, 0, child.order, 0, n);
+		System.arraycopy(seed.room, 0, child.room, 0, seed.room.length);
+		int swaps= 1 + random.nextInt(Math.max(1, n / 10));
+		for (int s= 0; s < swaps; s++ ) {
+			swap(child.order, random.nextInt(n), random.nextInt(n));
+		}
+	}
+
+	/** Move the entry at position p of the given array to position q, shifting those between */
+	private static void move(int[] array, int p, int q) {
+		int temp= array[p];
+		if (p < q) {
+			System.arraycopy(array, p + 1, array, p, q - p);
+		} else {
+			System.arraycopy(array, q, array, q + 1, p - q);
+		}
+		array[q]= temp;
+	}
+
+	/** Swap the given positions of the given array */
+	private static void swap(int[] array, int p, int q) {
+		int temp= array[p];
+		array[p]= array[q];
+		array[q]= temp;
+	}
+
+	/** The data of the instance being solved, read once per solve and shared by its workers */
+	private static class Data {
+		/** The release, processing time, and type of every room */
+		final int[] release, process, roomType;
+		/** The arrival and requested type of every guest */
+		final int[] arrival, guestType;
+		/** The weight of every guest for every room */
+		final double[][] weight;
+		/** The number of housekeepers */
+		final int h;
+		/** True iff the objective counts satisfaction */
+		final boolean joint;
+
+		Data(Instance instance, boolean joint) {
+			ArrayList<Room> rooms= instance.rooms();
+			ArrayList<Guest> guests= instance.guests();
+			int n= rooms.size();
+			int g= guests.size();
+			h= instance.getH();
+			release= new int[n];
+			process= new int[n];
+			roomType= new int[n];
+			for (int j= 0; j < n; j++ ) {
+				release[j]= rooms.get(j).release();
+				process[j]= rooms.get(j).process();
+				roomType[j]= rooms.get(j).type();
+			}
+			arrival= new int[g];
+			guestType= new int[g];
+			weight= new double[g][n];
+			for (int i= 0; i < g; i++ ) {
+				Guest guest= guests.get(i);
+				arrival[i]= guest.arrival();
+				guestType[i]= guest.type();
+				for (int j= 0; j < n; j++ ) {
+					weight[i][j]= instance.weight(guest, rooms.get(j));
+				}
+			}
+			this.joint= joint;
+		}
+
+		/** Make the child the crossover of the two given parents */
+		void crossover(Individual a, Individual b, Individual child, Random random) {
+			int n= a.order.length;
+			int g= a.room.length;
+
+			// Precedence preserving crossover: the next unused room of a random parent
+			boolean[] used= child.used;
+			Arrays.fill(used, false);
+			int pa= 0;
+			int pb= 0;
+			for (int k= 0; k < n; k++ ) {
+				while (used[a.order[pa]]) {
+					pa++ ;
+				}
+				while (used[b.order[pb]]) {
+					pb++ ;
+				}
+				int j= random.nextBoolean() ? a.order[pa] : b.order[pb];
+				child.order[k]= j;
+				used[j]= true;
+			}
+
+			// Every guest takes the room of a random parent if free, else of the other
+			Arrays.fill(used, false);
+			for (int i= 0; i < g; i++ ) {
+				int first= random.nextBoolean() ? a.room[i] : b.room[i];
+				int second= first == a.room[i] ? b.room[i] : a.room[i];
+				child.room[i]= !used[first] ? first : !used[second] ? second : -1;
+				if (child.room[i] >= 0) used[child.room[i]]= true;
+			}
+			decode(child, null, null);
+			for (int i= 0; i < g; i++ ) {
+				if (child.room[i] >= 0) continue;
+				int best= -1;
+				for (int j= 0; j < n; j++ ) {
+					if (!used[j] && roomType[j] >= guestType[i] && (best < 0 || cost(child, i, j) < cost(child, i, best)))
+						best= j;
+				}
+				if (best < 0) {
+					// No room of the requested type is left, so keep the first parent's rooms
+					System.arraycopy(a.room, 0, child.room, 0, g);
+					return;
+				}
+				child.room[i]= best;
+				used[best]= true;
+			}
+		}
+
+		/** Improve the given individual by moving guests and swapping rooms in its sequence, and <br>
+		 * evaluate it */
+		void localSearch(Individual ind, Random random) {
+			evaluate(ind);
+			improveAssignment(ind, random);
+			int n= ind.order.length;
+			for (int s= 0; s < MOVES; s++ ) {
+				int p= random.nextInt(n);
+				int q= Math.max(0, Math.min(n - 1, p + random.nextInt(4 * h + 1) - 2 * h));
+				if (p == q) continue;
+				double before= ind.value;
+				System.arraycopy(ind.completion, 0, ind.saved, 0, n);
+				move(ind.order, p, q);
+				evaluate(ind);
+				if (ind.value >= before - 1e-9) {
+					move(ind.order, q, p);
+					System.arraycopy(ind.saved, 0, ind.completion, 0, n);
+					ind.value= before;
+				}
+			}
+			improveAssignment(ind, random);
+		}
+
+		/** Move every guest to a vacant room or swap them with another guest wherever the objective <br>
+		 * decreases, for the completion times of the given (evaluated) individual */
+		private void improveAssignment(Individual ind, Random random) {
+			int n= ind.order.length;
+			int g= ind.room.length;
+			int[] owner= ind.owner;
+			Arrays.fill(owner, -1);
+			for (int i= 0; i < g; i++ ) {
+				owner[ind.room[i]]= i;
+			}
+			for (int i= 0; i < g; i++ ) {
+				for (int t= 0; t < TRIES; t++ ) {
+					int j= random.nextInt(n);
+					int mine= ind.room[i];
+					if (j == mine || roomType[j] < guestType[i]) continue;
+					int k= owner[j];
+					double delta= cost(ind, i, j) - cost(ind, i, mine);
+					if (k >= 0) {
+						if (roomType[mine] < guestType[k]) continue;
+						delta+= cost(ind, k, mine) - cost(ind, k, j);
+					}
+					if (delta < -1e-9) {
+						ind.room[i]= j;
+						owner[j]= i;
+						owner[mine]= k;
+						if (k >= 0) ind.room[k]= mine;
+						ind.value+= delta;
+					}
+				}
+			}
+		}
+
+		/** Return the cost of the given guest in the given room for the completion times of the <br>
+		 * given individual */
+		private double cost(Individual ind, int i, int j) {
+			double cost= Math.max(0, ind.completion[j] + 1 - arrival[i]);
+			return joint ? cost - weight[i][j] : cost;
+		}
+
+		/** Set the completion times and objective value of the given individual */
+		void evaluate(Individual ind) {
+			decode(ind, null, null);
+			double value= 0;
+			for (int i= 0; i < ind.room.length; i++ ) {
+				value+= cost(ind, i, ind.room[i]);
+			}
+			ind.value= value;
+		}
+
+		/** Dispatch the sequence of the given individual, setting the completion time of every room, <br>
+		 * and the start time and housekeeper (index) of every room if start and keeper are not null */
+		void decode(Individual ind, int[] start, int[] keeper) {
+			int[] free= ind.free;
+			Arrays.fill(free, 1);
+			for (int j : ind.order) {
+				int m= 0;
+				for (int k= 1; k < h; k++ ) {
+					if (free[k] < free[m]) m= k;
+				}
+				int s= Math.max(free[m], release[j] + 1);
+				ind.completion[j]= s + process[j] - 1;
+				free[m]= s + process[j];
+				if (start != null) {
+					start[j]= s;
+					keeper[j]= m;
+				}
+			}
+		}
+
+		/** Return the solution of the given individual */
+		Solution solution(Instance instance, Individual ind) {
+			ArrayList<Room> rooms= instance.rooms();
+			ArrayList<Guest> guests= instance.guests();
+			int n= rooms.size();
+			int[] start= new int[n];
+			int[] keeper= new int[n];
+			decode(ind, start, keeper);
+			Schedule schedule= new Schedule(instance);
+			ArrayList<Housekeeper> housekeepers= schedule.getHousekeepers();
+			for (int j= 0; j < n; j++ ) {
+				schedule.add(housekeepers.get(keeper[j]), rooms.get(j), start[j]);
+			}
+			Assignment assignment= new Assignment(instance);
+			for (int i= 0; i < guests.size(); i++ ) {
+				assignment.assign(guests.get(i), rooms.get(ind.room[i]));
+			}
+			return new Solution(instance, schedule, assignment);
+		}
+	}
+
+	/** A sequence of all rooms and a room (index) for every guest, with its own buffers */
+	private static class Individual {
+		/** The sequence of rooms (indices) */
+		int[] order;
+		/** The room (index) of every guest */
+		int[] room;
+		/** The completion time of every room */
+		int[] completion;
+		/** The completion time of every room before a move */
+		int[] saved;
+		/** The time every housekeeper is next free */
+		int[] free;
+		/** The guest (index) in every room, or -1 */
+		int[] owner;
+		/** Scratch marks of rooms */
+		boolean[] used;
+		/** The objective value */
+		double value;
+
+		Individual(int n, int g, int h) {
+			order= new int[n];
+			room= new int[g];
+			completion= new int[n];
+			saved= new int[n];
+			free= new int[h];
+			owner= new int[n];
+			used= new boolean[n];
+		}
+	}
+
+	@Override
+	public String toString() {
+		return obj + " Memetic";
+	}
+
+}
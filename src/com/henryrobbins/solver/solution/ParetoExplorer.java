@@ -0,0 +1,322 @@
+package com.henryrobbins.solver.solution;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import com.henryrobbins.decision.Assignment;
+import com.henryrobbins.decision.Schedule;
+import com.henryrobbins.decision.Solution;
+import com.henryrobbins.hotel.Guest;
+import com.henryrobbins.hotel.Instance;
+import com.henryrobbins.hotel.Room;
+import com.henryrobbins.solver.Solver;
+import com.henryrobbins.solver.schedule.ATCDispatch;
+import com.henryrobbins.solver.schedule.ScheduleLNS;
+import com.henryrobbins.solver.schedule.ScheduleLocalSearch;
+
+/** Traces the trade-off between mean satisfaction and tardiness (the sum or the maximum over
+ * guests) by the epsilon-constraint method, without AMPL. Every point of the frontier maximizes mean
+ * satisfaction such that the tardiness is at most epsilon, for epsilon evenly spaced between the
+ * tardiness of the minimum tardiness matching and that of the maximum satisfaction matching of the
+ * initial schedule. Guests may only get rooms of their requested type or higher.
+ *
+ * For a given schedule, the maximum tardiness constraint is met by forbidding every room a guest
+ * would wait longer than epsilon for, and satisfaction is maximized exactly, the sum of tardiness
+ * breaking ties, by ReadinessMatching.matchSatisfaction. The sum of tardiness constraint is relaxed
+ * instead: unless that matching is within epsilon, the matching minimizing the sum of tardiness
+ * plus alpha times the sum of dissatisfaction is found for the largest alpha (by bisection) within
+ * epsilon, so only supported points are found. The
+ * schedule is then improved for the assignment by ScheduleLocalSearch (sum) or ScheduleLNS (max),
+ * neither of which increases its tardiness, and the guests are matched again.
+ *
+ * Points are solved from the tightest epsilon to the loosest, every point warm-started from the
+ * schedule of its neighbour, for which the neighbour's assignment is within epsilon. The points
+ * are split into contiguous runs solved in parallel on a ForkJoinPool, the first point of every
+ * run starting from the initial schedule; every schedule improvement also runs on that pool.
+ * Dominated points are dropped, and the frontier is returned with the epsilon of every point and
+ * can be written as CSV. One explorer may be shared by threads. */
+public class ParetoExplorer {
+
+	/** The default number of epsilon values */
+	private static final int POINTS= 11;
+	/** The default time budget of every schedule improvement in milliseconds */
+	private static final long MILLIS= 100;
+	/** The number of bisection steps on alpha for every point */
+	private static final int STEPS= 20;
+	/** The largest number of rooms freed in a neighbourhood of ScheduleLNS */
+	private static final int WINDOW= 24;
+
+	/** The name of the tardiness objective ("Sum_Tardiness" or "Max_Tardiness") */
+	private String obj;
+	/** The solver giving the initial schedule */
+	private Solver<Schedule> initial;
+	/** The number of epsilon values */
+	private int points;
+	/** The time budget of every schedule improvement in milliseconds */
+	private long millis;
+	/** The pool on which the points are solved */
+	private ForkJoinPool pool;
+
+	/** Construct an explorer of the frontier between mean satisfaction and the given tardiness <br>
+	 * objective starting from the ATC dispatch schedule on the common pool
+	 *
+	 * @param obj The tardiness objective ("Sum_Tardiness" or "Max_Tardiness") */
+	public ParetoExplorer(String obj) {
+		this(new ATCDispatch(), obj, POINTS, MILLIS);
+	}
+
+	/** Construct an explorer of the frontier between mean satisfaction and the given tardiness <br>
+	 * objective, solving its points on the common pool
+	 *
+	 * @param initial The solver giving the initial schedule (not null)
+	 * @param obj     The tardiness objective ("Sum_Tardiness" or "Max_Tardiness")
+	 * @param points  The number of epsilon values (at least 2)
+	 * @param millis  The time budget of every schedule improvement in milliseconds (at least 1) */
+	public ParetoExplorer(Solver<Schedule> initial, String obj, int points, long millis) {
+		this(initial, obj, points, millis, ForkJoinPool.commonPool());
+	}
+
+	/** Construct an explorer of the frontier between mean satisfaction and the given tardiness <br>
+	 * objective, solving its points on the given pool
+	 *
+	 * @param initial The solver giving the initial schedule (not null)
+	 * @param obj     The tardiness objective ("Sum_Tardiness" or "Max_Tardiness")
+	 * @param points  The number of epsilon values (at least 2)
+	 * @param millis  The time budget of every schedule improvement in milliseconds (at least 1)
+	 * @param pool    The pool on which the points are solved (not null) */
+	public ParetoExplorer(Solver<Schedule> initial, String obj, int points, long millis, ForkJoinPool pool) {
+		if (initial == null) throw new IllegalArgumentException("Initial solver was null");
+		if (obj == null) throw new IllegalArgumentException("Objective function was null");
+		if (!obj.equals("Sum_Tardiness") && !obj.equals("Max_Tardiness"))
+			throw new IllegalArgumentException("Objective function undefined");
+		if (points < 2) throw new IllegalArgumentException("Points less than 2");
+		if (millis < 1) throw new IllegalArgumentException("Time budget less than 1");
+		if (pool == null) throw new IllegalArgumentException("Pool was null");
+		this.initial= initial;
+		this.obj= obj;
+		this.points= points;
+		this.millis= millis;
+		this.pool= pool;
+	}
+
+	/** The non-dominated solutions of an explore and the epsilon every solution was found for */
+	public static class Frontier {
+
+		/** The non-dominated solutions (increasing tardiness) */
+		private final ArrayList<Solution> solutions;
+		/** The epsilon of every solution */
+		private final ArrayList<Integer> epsilons;
+
+		private Frontier(ArrayList<Solution> solutions, ArrayList<Integer> epsilons) {
+			this.solutions= solutions;
+			this.epsilons= epsilons;
+		}
+
+		/** Return the non-dominated solutions in order of increasing tardiness (and so increasing <br>
+		 * mean satisfaction) */
+		public ArrayList<Solution> solutions() {
+			return solutions;
+		}
+
+		/** Return the epsilon of every solution (in the order of solutions()) */
+		public ArrayList<Integer> epsilons() {
+			return epsilons;
+		}
+
+		/** Write a CSV file called name to the specified directory with the epsilon, mean <br>
+		 * satisfaction, sum of tardiness, and maximum tardiness of every point of this frontier
+		 *
+		 * @param dir  directory where the CSV file will be written
+		 * @param name name of the csv file
+		 * @throws Exception */
+		public void writeCSV(Path dir, String name) throws Exception {
+			File file= new File(Paths.get(dir.toString(), name + ".csv").toString());
+			FileWriter fw= new FileWriter(file);
+			fw.write("Epsilon, Mean Satisfaction, Sum Tardiness, Max Tardiness \n");
+			for (int k= 0; k < solutions.size(); k++ ) {
+				Solution solution= solutions.get(k);
+				fw.write(epsilons.get(k) + "," + solution.assignment().satisfactionStats().getMean() + "," +
+					(int) solution.tardinessStats().getSum() + "," + (int) solution.tardinessStats().getMax() + "\n");
+			}
+			fw.close();
+		}
+	}
+
+	/** Return the non-dominated solutions found for the given instance in order of increasing <br>
+	 * tardiness (and so increasing mean satisfaction), with the epsilon of every solution */
+	public Frontier explore(Instance instance) {
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+
+		Schedule schedule= initial.solve(instance);
+		int[] completion= completion(instance, schedule);
+
+		// The range of epsilon on the initial schedule
+		int lo= tardiness(instance, completion, ReadinessMatching.match(instance, completion, 0, Integer.MAX_VALUE));
+		if (obj.equals("Max_Tardiness")) lo= bottleneck(instance, completion, lo);
+		int hi= tardiness(instance, completion, maxSatisfaction(instance, completion, Integer.MAX_VALUE));
+		ArrayList<Integer> epsilon= new ArrayList<>();
+		for (int k= 0; k < points; k++ ) {
+			int e= lo + (int) Math.round((double) (hi - lo) * k / (points - 1));
+			if (epsilon.isEmpty() || epsilon.get(epsilon.size() - 1) != e) epsilon.add(e);
+		}
+
+		// Split the points into contiguous runs, each warm-started along its run
+		int runs= Math.min(pool.getParallelism(), epsilon.size());
+		ArrayList<Callable<ArrayList<Solution>>> tasks= new ArrayList<>();
+		for (int r= 0; r < runs; r++ ) {
+			int from= r * epsilon.size() / runs;
+			int to= (r + 1) * epsilon.size() / runs;
+			tasks.add(() -> {
+				ArrayList<Solution> run= new ArrayList<>();
+				Schedule warm= schedule;
+				for (int k= from; k < to; k++ ) {
+					Solution solution= point(instance, epsilon.get(k), warm);
+					run.add(solution);
+					warm= solution.schedule();
+				}
+				return run;
+			});
+		}
+		ArrayList<Solution> solutions= new ArrayList<>();
+		for (Future<ArrayList<Solution>> future : pool.invokeAll(tasks)) {
+			try {
+				solutions.addAll(future.get());
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+				throw new IllegalStateException("A point could not be solved", e.getCause());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while solving points", e);
+			}
+		}
+
+		// In order of increasing tardiness, keep the points more satisfying than every point before
+		Integer[] order= new Integer[solutions.size()];
+		for (int k= 0; k < order.length; k++ ) {
+			order[k]= k;
+		}
+		Arrays.sort(order, Comparator.comparingDouble((Integer k) -> tardiness(solutions.get(k)))
+			.thenComparingDouble(k -> -solutions.get(k).assignment().satisfactionStats().getMean()));
+		ArrayList<Solution> frontier= new ArrayList<>();
+		ArrayList<Integer> epsilons= new ArrayList<>();
+		double best= Double.NEGATIVE_INFINITY;
+		for (int k : order) {
+			double satisfaction= solutions.get(k).assignment().satisfactionStats().getMean();
+			if (satisfaction > best) {
+				frontier.add(solutions.get(k));
+				epsilons.add(epsilon.get(k));
+				best= satisfaction;
+			}
+		}
+		return new Frontier(frontier, epsilons);
+	}
+
+	/** Return the solution maximizing mean satisfaction within the given epsilon, warm-started <br>
+	 * from the given schedule (for which some assignment is within epsilon) */
+	private Solution point(Instance instance, int epsilon, Schedule warm) {
+		Assignment assignment= maxSatisfaction(instance, completion(instance, warm), epsilon);
+		Schedule schedule;
+		if (obj.equals("Sum_Tardiness")) {
+			schedule= new ScheduleLocalSearch(inst -> warm, obj, millis, 1, pool).solve(instance, assignment);
+		} else {
+			schedule= new ScheduleLNS(inst -> warm, obj, millis, WINDOW, pool).solve(instance, assignment);
+		}
+		assignment= maxSatisfaction(instance, completion(instance, schedule), epsilon);
+		return new Solution(instance, schedule, assignment);
+	}
+
+	/** Return the assignment of greatest mean satisfaction (least tardiness breaking ties) found <br>
+	 * whose tardiness is at most epsilon given the completion time of every room, or the minimum <br>
+	 * tardiness matching if there is none. */
+	private Assignment maxSatisfaction(Instance instance, int[] completion, int epsilon) {
+		if (obj.equals("Max_Tardiness")) {
+			Assignment assignment= ReadinessMatching.matchSatisfaction(instance, completion, epsilon);
+			if (assignment != null) return assignment;
+			return ReadinessMatching.match(instance, completion, 0, Integer.MAX_VALUE);
+		}
+
+		Assignment within= ReadinessMatching.matchSatisfaction(instance, completion, Integer.MAX_VALUE);
+		if (tardiness(instance, completion, within) <= epsilon) return within;
+
+		// The sum of tardiness does not decrease as alpha increases; past this alpha a whole unit
+		// of satisfaction outweighs all tardiness
+		int horizon= 0;
+		for (int c : completion) {
+			horizon= Math.max(horizon, c);
+		}
+		within= ReadinessMatching.match(instance, completion, 0, Integer.MAX_VALUE);
+		double low= 0;
+		double high= instance.rooms().size() * (horizon + 2.0);
+		for (int step= 0; step < STEPS; step++ ) {
+			double mid= (low + high) / 2;
+			Assignment assignment= ReadinessMatching.match(instance, completion, mid, Integer.MAX_VALUE);
+			if (tardiness(instance, completion, assignment) <= epsilon) {
+				low= mid;
+				within= assignment;
+			} else {
+				high= mid;
+			}
+		}
+		return within;
+	}
+
+	/** Return the least maximum tardiness of any assignment given the completion time of every <br>
+	 * room, at most the given maximum tardiness of some assignment */
+	private static int bottleneck(Instance instance, int[] completion, int hi) {
+		int lo= 0;
+		while (lo < hi) {
+			int mid= lo + (hi - lo) / 2;
+			if (ReadinessMatching.match(instance, completion, 0, mid) == null) {
+				lo= mid + 1;
+			} else {
+				hi= mid;
+			}
+		}
+		return lo;
+	}
+
+	/** Return the tardiness objective of the given assignment given the completion time of <br>
+	 * every room (in the order of instance.rooms()) */
+	private int tardiness(Instance instance, int[] completion, Assignment assignment) {
+		ArrayList<Room> rooms= instance.rooms();
+		int value= 0;
+		for (int j= 0; j < completion.length; j++ ) {
+			Guest guest= assignment.assignment().getKey(rooms.get(j));
+			if (guest == null) continue;
+			int tardiness= Math.max(0, completion[j] + 1 - guest.arrival());
+			value= obj.equals("Sum_Tardiness") ? value + tardiness : Math.max(value, tardiness);
+		}
+		return value;
+	}
+
+	/** Return the tardiness objective of the given solution */
+	private double tardiness(Solution solution) {
+		if (obj.equals("Sum_Tardiness")) return solution.tardinessStats().getSum();
+		return solution.tardinessStats().getMax();
+	}
+
+	/** Return the completion time of every room (in the order of instance.rooms()) */
+	private static int[] completion(Instance instance, Schedule schedule) {
+		ArrayList<Room> rooms= instance.rooms();
+		int[] completion= new int[rooms.size()];
+		for (int j= 0; j < completion.length; j++ ) {
+			completion[j]= schedule.completion(rooms.get(j));
+		}
+		return completion;
+	}
+
+	@Override
+	public String toString() {
+		return "Mean_Satisfaction / " + obj + " Pareto Explorer";
+	}
+
+}
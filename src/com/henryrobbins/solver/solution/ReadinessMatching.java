@@ -0,0 +1,229 @@
+package com.henryrobbins.solver.solution;
+
+import java.util.ArrayList;
+
+import com.henryrobbins.decision.Assignment;
+import com.henryrobbins.decision.Schedule;
+import com.henryrobbins.decision.Solution;
+import com.henryrobbins.hotel.Guest;
+import com.henryrobbins.hotel.Instance;
+import com.henryrobbins.hotel.Room;
+import com.henryrobbins.solver.Solver;
+import com.henryrobbins.solver.assignment.Hungarian;
+
+/** This solver takes any housekeeping solver as an argument. A housekeeping schedule is chosen via
+ * that housekeeping solver, and guests are then matched to rooms given how soon every room is ready.
+ * Every guest may get any room of their requested type or higher at a cost of their tardiness plus
+ * alpha times their dissatisfaction (one less their weight), and a minimum cost matching is found
+ * by the Hungarian algorithm. Unlike FirstRoom, which assigns guests one at a time as they arrive,
+ * this trades the tardiness of every guest against the others and against satisfaction.
+ *
+ * If bottleneck, the maximum tardiness is minimized first: the smallest threshold for which every
+ * guest can get a room they wait at most that long for is found by binary search, between the
+ * largest of the guests' least tardiness and the maximum tardiness of the minimum cost matching.
+ * The minimum cost matching within that threshold is then returned. */
+public class ReadinessMatching implements Solver<Solution> {
+
+	/** The largest reduced cost of an edge taken to lie on a maximum satisfaction matching */
+	private static final double TIGHT= 1e-9;
+
+	/** The housekeeping schedule solver to be used */
+	private Solver<Schedule> housekeepingSolver;
+	/** The cost of a guest's dissatisfaction relative to one time interval of tardiness */
+	private double alpha;
+	/** True iff the maximum tardiness is minimized first */
+	private boolean bottleneck;
+
+	/** Construct a solver matching guests to rooms to minimize the sum of tardiness
+	 *
+	 * @param housekeepingSolver The solver used to generate a housekeeping schedule (not null) */
+	public ReadinessMatching(Solver<Schedule> housekeepingSolver) {
+		this(housekeepingSolver, 0, false);
+	}
+
+	/** Construct a solver matching guests to rooms to minimize the sum of tardiness plus alpha <br>
+	 * times the sum of dissatisfaction, after minimizing the maximum tardiness if bottleneck
+	 *
+	 * @param housekeepingSolver The solver used to generate a housekeeping schedule (not null)
+	 * @param alpha              The cost of dissatisfaction relative to tardiness (at least 0)
+	 * @param bottleneck         True iff the maximum tardiness should be minimized first */
+	public ReadinessMatching(Solver<Schedule> housekeepingSolver, double alpha, boolean bottleneck) {
+		if (housekeepingSolver == null) throw new IllegalArgumentException("Housekeeping Solver was null");
+		if (!(alpha >= 0)) throw new IllegalArgumentException("Alpha was negative");
+		this.housekeepingSolver= housekeepingSolver;
+		this.alpha= alpha;
+		this.bottleneck= bottleneck;
+	}
+
+	/** Return the solution comprising the schedule of this housekeeping solver and the <br>
+	 * minimum cost matching of guests to rooms given that schedule */
+	@Override
+	public Solution solve(Instance instance) {
+		if (instance == null) throw new IllegalArgumentException("Instance is null");
+
+		Schedule schedule= housekeepingSolver.solve(instance);
+		ArrayList<Room> rooms= instance.rooms();
+		int[] completion= new int[rooms.size()];
+		for (int j= 0; j < completion.length; j++ ) {
+			completion[j]= schedule.completion(rooms.get(j));
+		}
+
+		Assignment assignment= match(instance, completion, alpha, Integer.MAX_VALUE);
+		if (bottleneck) {
+			// Every guest waits at least as long as for their best room
+			int lo= 0;
+			for (Guest guest : instance.guests()) {
+				int least= Integer.MAX_VALUE;
+				for (int j= 0; j < completion.length; j++ ) {
+					if (rooms.get(j).type() >= guest.type()) least= Math.min(least, tardiness(completion[j], guest));
+				}
+				lo= Math.max(lo, least);
+			}
+			int hi= 0;
+			for (Guest guest : instance.guests()) {
+				Room room= assignment.assignment().get(guest);
+				hi= Math.max(hi, tardiness(schedule.completion(room), guest));
+			}
+			while (lo < hi) {
+				int mid= lo + (hi - lo) / 2;
+				Assignment within= match(instance, completion, alpha, mid);
+				if (within == null) {
+					lo= mid + 1;
+				} else {
+					hi= mid;
+					assignment= within;
+				}
+			}
+		}
+
+		return new Solution(instance, schedule, assignment);
+	}
+
+	/** Return the tardiness of the given guest if assigned a room completed at the given time */
+	private static int tardiness(int completion, Guest guest) {
+		return Math.max(0, completion + 1 - guest.arrival());
+	}
+
+	/** Return the assignment minimizing the sum of tardiness plus alpha times the sum of <br>
+	 * dissatisfaction given the completion time of every room, where no guest may wait longer <br>
+	 * than the given maximum tardiness. Return null if there is no such assignment. Rooms left <br>
+	 * vacant are matched to dummy guests.
+	 *
+	 * @param instance     The instance to be assigned (not null)
+	 * @param completion   The completion time of every room (in the order of instance.rooms())
+	 * @param alpha        The cost of dissatisfaction relative to tardiness (at least 0)
+	 * @param maxTardiness The longest any guest may wait */
+	static Assignment match(Instance instance, int[] completion, double alpha, int maxTardiness) {
+		ArrayList<Room> rooms= instance.rooms();
+		ArrayList<Guest> guests= instance.guests();
+		int n= rooms.size();
+
+		// A forbidden edge costs more than every matching of allowed edges
+		int horizon= 0;
+		for (int c : completion) {
+			horizon= Math.max(horizon, c);
+		}
+		double forbidden= n * (horizon + 2 + alpha) + 1;
+
+		double[][] cost= new double[n][];
+		double[] vacancy= new double[n];
+		for (int i= 0; i < n; i++ ) {
+			if (i >= guests.size()) {
+				cost[i]= vacancy;
+				continue;
+			}
+			Guest guest= guests.get(i);
+			cost[i]= new double[n];
+			for (int j= 0; j < n; j++ ) {
+				Room room= rooms.get(j);
+				int tardiness= tardiness(completion[j], guest);
+				if (room.type() < guest.type() || tardiness > maxTardiness) {
+					cost[i][j]= forbidden;
+				} else {
+					cost[i][j]= tardiness + alpha * (1 - instance.weight(guest, room));
+				}
+			}
+		}
+		Hungarian matching= new Hungarian(cost);
+		matching.solve();
+		if (matching.total() >= forbidden) return null;
+
+		Assignment assignment= new Assignment(instance);
+		for (int i= 0; i < guests.size(); i++ ) {
+			assignment.assign(guests.get(i), rooms.get(matching.col(i)));
+		}
+		return assignment;
+	}
+
+	/** Return the assignment of greatest total satisfaction given the completion time of every <br>
+	 * room, the least sum of tardiness breaking ties, where no guest may wait longer than the <br>
+	 * given maximum tardiness. Return null if there is no such assignment. Satisfaction is <br>
+	 * maximized first; the optimal duals then give the edges of every maximum satisfaction <br>
+	 * matching (those of reduced cost at most TIGHT), over which the sum of tardiness is <br>
+	 * minimized. Unlike a weighted sum, no loss of satisfaction, however small, is traded for <br>
+	 * less tardiness.
+	 *
+	 * @param instance     The instance to be assigned (not null)
+	 * @param completion   The completion time of every room (in the order of instance.rooms())
+	 * @param maxTardiness The longest any guest may wait */
+	static Assignment matchSatisfaction(Instance instance, int[] completion, int maxTardiness) {
+		ArrayList<Room> rooms= instance.rooms();
+		ArrayList<Guest> guests= instance.guests();
+		int n= rooms.size();
+
+		// Maximize satisfaction; dissatisfaction is at most 1 on every allowed edge
+		double forbidden= n + 1;
+		double[][] cost= new double[n][];
+		double[] vacancy= new double[n];
+		for (int i= 0; i < n; i++ ) {
+			if (i >= guests.size()) {
+				cost[i]= vacancy;
+				continue;
+			}
+			Guest guest= guests.get(i);
+			cost[i]= new double[n];
+			for (int j= 0; j < n; j++ ) {
+				Room room= rooms.get(j);
+				if (room.type() < guest.type() || tardiness(completion[j], guest) > maxTardiness) {
+					cost[i][j]= forbidden;
+				} else {
+					cost[i][j]= 1 - instance.weight(guest, room);
+				}
+			}
+		}
+		Hungarian satisfaction= new Hungarian(cost);
+		satisfaction.solve();
+		if (satisfaction.total() >= forbidden) return null;
+
+		// Minimize tardiness over the edges of zero reduced cost, on which the first matching lies
+		int horizon= 0;
+		for (int c : completion) {
+			horizon= Math.max(horizon, c);
+		}
+		double loose= n * (horizon + 2) + 1;
+		double[][] tardy= new double[n][n];
+		for (int i= 0; i < n; i++ ) {
+			for (int j= 0; j < n; j++ ) {
+				if (cost[i][j] >= forbidden || satisfaction.reduced(i, j) > TIGHT) {
+					tardy[i][j]= loose;
+				} else if (i < guests.size()) {
+					tardy[i][j]= tardiness(completion[j], guests.get(i));
+				}
+			}
+		}
+		Hungarian matching= new Hungarian(tardy);
+		matching.solve();
+
+		Assignment assignment= new Assignment(instance);
+		for (int i= 0; i < guests.size(); i++ ) {
+			assignment.assign(guests.get(i), rooms.get(matching.col(i)));
+		}
+		return assignment;
+	}
+
+	@Override
+	public String toString() {
+		return "Readiness Matching (" + alpha + (bottleneck ? ", Bottleneck)" : ")");
+	}
+
+}
@@ -0,0 +1,264 @@
+package com.henryrobbins.solver.solution;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import com.henryrobbins.RandProperties;
+import com.henryrobbins.decision.Assignment;
+import com.henryrobbins.decision.Schedule;
+import com.henryrobbins.decision.Solution;
+import com.henryrobbins.hotel.Guest;
+import com.henryrobbins.hotel.Hotel;
+import com.henryrobbins.hotel.Housekeeper;
+import com.henryrobbins.hotel.Instance;
+import com.henryrobbins.hotel.Room;
+import com.henryrobbins.solver.Solver;
+
+/** Drives a season of consecutive daily instances on one continuous timeline, where day d begins
+ * d day lengths after day 0 and every day's times are measured from its beginning. Every step
+ * solves the active window (the next window days) as one instance with the given solver, commits
+ * the first frozen days of it, and moves on by frozen days. Only the committed days' decisions are
+ * kept: the window's later days are solved again in the next step, when more days are known.
+ *
+ * The window instance keeps every day on its own tier of room types: a guest of the j-th day
+ * requesting type t requests t + 1 + j * T (T the largest type), and so may only get a room of
+ * their own day or a later one, with no weight for any room but their own day's. State carries
+ * across steps through the housekeepers: a housekeeper still busy when the window begins holds a
+ * busy room released at time 0 for as long as they are busy. Busy rooms are of a type above every
+ * tier, requested only by one placeholder guest per busy room, due when the room is done if started
+ * at time 1. Every busy room so goes to a placeholder guest, who is tardy for every time interval it
+ * starts later, which pins it to time 1 for every solver minimizing tardiness.
+ *
+ * To commit, every housekeeper of the window solution is matched to a physical housekeeper (the
+ * one they hold the busy room of, else in order of availability), keeps the order of their
+ * committed rooms, and starts each as soon as the room is released and they are free. Cleaning
+ * left unfinished at a day boundary so delays the next day. Each committed day is returned as a
+ * solution of its own instance, whose start times may run past the day length. Should a guest of a
+ * committed day get a room of a later day (ready sooner when housekeeping falls behind), the day's
+ * guests are matched again to its own rooms by minimum tardiness (as in ReadinessMatching). */
+public class RollingHorizon {
+
+	/** The number of minutes in a day */
+	private static final int MINUTES= 24 * 60;
+
+	/** The solver of every window */
+	private Solver<Solution> solver;
+	/** The number of days in the active window */
+	private int window;
+	/** The number of days committed at every step */
+	private int frozen;
+	/** The number of time intervals in a day */
+	private int dayLength;
+
+	/** Construct a driver solving two days at a time and committing one
+	 *
+	 * @param solver The solver of every window (not null) */
+	public RollingHorizon(Solver<Solution> solver) {
+		this(solver, 2, 1, (int) (MINUTES / RandProperties.TIME_INTERVAL));
+	}
+
+	/** Construct a driver solving window days at a time and committing the first frozen
+	 *
+	 * @param solver    The solver of every window (not null)
+	 * @param window    The number of days in the active window (at least 1)
+	 * @param frozen    The number of days committed at every step (in 1..window)
+	 * @param dayLength The number of time intervals in a day (at least 1) */
+	public RollingHorizon(Solver<Solution> solver, int window, int frozen, int dayLength) {
+		if (solver == null) throw new IllegalArgumentException("Solver was null");
+		if (window < 1) throw new IllegalArgumentException("Window less than 1");
+		if (frozen < 1 || frozen > window) throw new IllegalArgumentException("Frozen days not in 1..window");
+		if (dayLength < 1) throw new IllegalArgumentException("Day length less than 1");
+		this.solver= solver;
+		this.window= window;
+		this.frozen= frozen;
+		this.dayLength= dayLength;
+	}
+
+	/** Return the committed solution of every day (in order) of the given season
+	 *
+	 * @param days The daily instances of the season in order (at least one, not null, with the <br>
+	 *             same number of housekeepers) */
+	public ArrayList<Solution> solve(List<Instance> days) {
+		if (days == null || days.isEmpty()) throw new IllegalArgumentException("No days given");
+		for (Instance day : days) {
+			if (day == null) throw new IllegalArgumentException("Instance is null");
+			if (day.getH() != days.get(0).getH())
+				throw new IllegalArgumentException("Days have different numbers of housekeepers");
+		}
+
+		int h= days.get(0).getH();
+		// The earliest time (on the season's timeline) every housekeeper may start a room
+		int[] free= new int[h];
+		Arrays.fill(free, 1);
+		ArrayList<Solution> committed= new ArrayList<>();
+		for (int first= 0; first < days.size(); first+= frozen) {
+			List<Instance> active= days.subList(first, Math.min(days.size(), first + window));
+			committed.addAll(step(active, first * dayLength, free));
+		}
+		return committed;
+	}
+
+	/** Solve the given window beginning at the given time, commit its frozen days, and update <br>
+	 * when every housekeeper is free. Return the committed solution of every frozen day. */
+	private ArrayList<Solution> step(List<Instance> active, int begin, int[] free) {
+		int h= free.length;
+
+		// Every day's rooms and guests are numbered apart and typed on their own tier
+		int rooms= 0;
+		int guests= 0;
+		int types= 0;
+		for (Instance day : active) {
+			for (Room room : day.rooms()) {
+				rooms= Math.max(rooms, room.num());
+				types= Math.max(types, room.type());
+			}
+			for (Guest guest : day.guests()) {
+				guests= Math.max(guests, guest.id());
+				types= Math.max(types, guest.type());
+			}
+		}
+
+		// Busy rooms are above every tier
+		int top= active.size() * types + 2;
+		Hotel.Builder hotel= new Hotel.Builder();
+		hotel.setH(h);
+		ArrayList<Room> busy= new ArrayList<>();
+		for (int k= 0; k < h; k++ ) {
+			if (free[k] - begin > 1) busy.add(new Room(k + 1, top, 0, 0, free[k] - begin - 1));
+		}
+		for (Room room : busy) {
+			hotel.addRoom(room);
+		}
+		HashMap<Integer, Room> original= new HashMap<>();
+		HashMap<Integer, Integer> dayOf= new HashMap<>();
+		ArrayList<HashMap<Room, Room>> tiers= new ArrayList<>();
+		for (int j= 0; j < active.size(); j++ ) {
+			HashMap<Room, Room> tier= new HashMap<>();
+			for (Room room : active.get(j).rooms()) {
+				Room tiered= new Room(h + j * rooms + room.num(), room.type() + 1 + j * types, room.quality(),
+					room.release() + j * dayLength, room.process());
+				hotel.addRoom(tiered);
+				tier.put(room, tiered);
+				original.put(tiered.num(), room);
+				dayOf.put(tiered.num(), j);
+			}
+			tiers.add(tier);
+		}
+		Instance.Builder builder= new Instance.Builder(hotel.build());
+		ArrayList<HashMap<Guest, Guest>> originalGuests= new ArrayList<>();
+		for (int j= 0; j < active.size(); j++ ) {
+			Instance day= active.get(j);
+			HashMap<Guest, Guest> originalGuest= new HashMap<>();
+			for (Guest guest : day.guests()) {
+				Guest tiered= new Guest(j * guests + guest.id(), guest.type() + 1 + j * types,
+					guest.arrival() + j * dayLength);
+				builder.addGuest(tiered);
+				originalGuest.put(tiered, guest);
+				for (Room room : day.rooms()) {
+					builder.addWeight(tiered, tiers.get(j).get(room), day.weight(guest, room));
+				}
+			}
+			originalGuests.add(originalGuest);
+		}
+		for (int b= 0; b < busy.size(); b++ ) {
+			Room room= busy.get(b);
+			Guest placeholder= new Guest(active.size() * guests + b + 1, top, room.process() + 1);
+			builder.addGuest(placeholder);
+			builder.addWeight(placeholder, room, 1.0);
+		}
+		Instance instance= builder.build();
+
+		Solution solution= solver.solve(instance);
+		Schedule windowSchedule= solution.schedule();
+		Assignment windowAssignment= solution.assignment();
+		if (!windowSchedule.isValid()) throw new IllegalStateException("Window schedule is not valid");
+
+		// Match housekeepers holding a busy room to theirs, and the rest in order of availability
+		ArrayList<Housekeeper> housekeepers= windowSchedule.getHousekeepers();
+		int[] physical= new int[h];
+		Arrays.fill(physical, -1);
+		boolean[] matched= new boolean[h];
+		ArrayList<LinkedList<Room>> sequences= new ArrayList<>();
+		for (int k= 0; k < h; k++ ) {
+			Housekeeper housekeeper= housekeepers.get(k);
+			LinkedList<Room> sequence= housekeeper.getSchedule();
+			sequence.sort((a, b) -> housekeeper.getStartTime(a) - housekeeper.getStartTime(b));
+			for (Room room : sequence) {
+				if (!dayOf.containsKey(room.num()) && physical[k] < 0) {
+					physical[k]= room.num() - 1;
+					matched[room.num() - 1]= true;
+				}
+			}
+			sequence.removeIf(room -> !dayOf.containsKey(room.num()) || dayOf.get(room.num()) >= frozen);
+			sequences.add(sequence);
+		}
+		ArrayList<Integer> unmatched= new ArrayList<>();
+		for (int k= 0; k < h; k++ ) {
+			if (!matched[k]) unmatched.add(k);
+		}
+		unmatched.sort((a, b) -> free[a] - free[b]);
+		ArrayList<Integer> rest= new ArrayList<>();
+		for (int k= 0; k < h; k++ ) {
+			if (physical[k] < 0) rest.add(k);
+		}
+		rest.sort((a, b) -> Integer.compare(firstStart(housekeepers.get(a), sequences.get(a)),
+			firstStart(housekeepers.get(b), sequences.get(b))));
+		for (int i= 0; i < rest.size(); i++ ) {
+			physical[rest.get(i)]= unmatched.get(i);
+		}
+
+		// Commit every frozen day as a solution of its own instance
+		int days= Math.min(frozen, active.size());
+		ArrayList<Schedule> schedules= new ArrayList<>();
+		for (int j= 0; j < days; j++ ) {
+			schedules.add(new Schedule(active.get(j)));
+		}
+		for (int k= 0; k < h; k++ ) {
+			int p= physical[k];
+			for (Room room : sequences.get(k)) {
+				int j= dayOf.get(room.num());
+				int start= Math.max(free[p], begin + room.release() + 1);
+				Schedule schedule= schedules.get(j);
+				schedule.add(schedule.getHousekeepers().get(p), original.get(room.num()), start - begin - j * dayLength);
+				free[p]= start + room.process();
+			}
+		}
+		ArrayList<Solution> committed= new ArrayList<>();
+		for (int j= 0; j < days; j++ ) {
+			Instance day= active.get(j);
+			Schedule schedule= schedules.get(j);
+			Assignment assignment= new Assignment(day);
+			for (Map.Entry<Guest, Guest> entry : originalGuests.get(j).entrySet()) {
+				Room room= windowAssignment.assignment().get(entry.getKey());
+				if (room == null || !dayOf.containsKey(room.num()) || dayOf.get(room.num()) != j) {
+					// A room of a later day was ready sooner, so match the day's guests again
+					int[] completion= new int[day.rooms().size()];
+					for (int r= 0; r < completion.length; r++ ) {
+						completion[r]= schedule.completion(day.rooms().get(r));
+					}
+					assignment= ReadinessMatching.match(day, completion, 0, Integer.MAX_VALUE);
+					break;
+				}
+				assignment.assign(entry.getValue(), original.get(room.num()));
+			}
+			committed.add(new Solution(day, schedule, assignment));
+		}
+		return committed;
+	}
+
+	/** Return the start time of the first of the given rooms of the given housekeeper (the <br>
+	 * largest integer if there are none) */
+	private static int firstStart(Housekeeper housekeeper, LinkedList<Room> sequence) {
+		return sequence.isEmpty() ? Integer.MAX_VALUE : housekeeper.getStartTime(sequence.getFirst());
+	}
+
+	@Override
+	public String toString() {
+		return solver + " (Rolling Horizon " + window + "/" + frozen + ")";
+	}
+
+}
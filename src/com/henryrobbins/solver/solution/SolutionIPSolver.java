@@ -10,25 +10,38 @@ public class SolutionIPSolver implements Solver<Solution> {
 
 	/** The name of the objective function to be optimized */
 	private String obj;
+	/** True iff the sequence-based (disjunctive) model is used */
+	private boolean disjunctive;
 
 	/** Construct solver with specified objective function
 	 *
 	 * @param obj The objective function this solver will optimize */
 	public SolutionIPSolver(String obj) {
+		this(obj, false);
+	}
+
+	/** Construct solver with specified objective function. If disjunctive, the model <br>
+	 * sequences the rooms of every housekeeper instead of indexing them by time, so its size <br>
+	 * does not depend on the length of a time interval.
+	 *
+	 * @param obj         The objective function this solver will optimize
+	 * @param disjunctive True iff the sequence-based model should be used */
+	public SolutionIPSolver(String obj, boolean disjunctive) {
 		if (obj == null) throw new IllegalArgumentException("Objective function was null");
 		this.obj= obj;
+		this.disjunctive= disjunctive;
 	}
 
 	@Override
 	/** Return the solution optimizing the objective function */
 	public Solution solve(Instance instance) {
 		if (instance == null) throw new IllegalArgumentException("Instance is null");
-		return AMPLHelper.runSolutionIP(instance, obj);
+		return AMPLHelper.runSolutionIP(instance, obj, disjunctive);
 	}
 
 	@Override
 	public String toString() {
-		return "Solution (" + obj + ")";
+		return disjunctive ? "Solution (" + obj + ", Disjunctive)" : "Solution (" + obj + ")";
 	}
 
 }